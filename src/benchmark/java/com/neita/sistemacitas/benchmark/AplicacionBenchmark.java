@@ -0,0 +1,106 @@
+package com.neita.sistemacitas.benchmark;
+
+import com.neita.sistemacitas.SistemaCitasApplication;
+import com.neita.sistemacitas.dto.ProfesionalDTO;
+import com.neita.sistemacitas.dto.ServicioDTO;
+import com.neita.sistemacitas.dto.UsuarioDTO;
+import com.neita.sistemacitas.service.ProfesionalService;
+import com.neita.sistemacitas.service.ServicioService;
+import com.neita.sistemacitas.service.UsuarioService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arranque de la aplicación y datos de partida comunes a las pruebas de rendimiento.
+ */
+final class AplicacionBenchmark {
+
+    static final String EMAIL_ADMIN = "admin@barberia.com";
+    static final String PASSWORD_ADMIN = "admin123";
+    static final int PROFESIONALES_MINIMOS = 10;
+
+    private AplicacionBenchmark() {
+    }
+
+    /**
+     * Arranca la aplicación en un puerto libre. Los argumentos de línea de comandos tienen prioridad
+     * sobre application.properties; se baja el nivel de log para que la consola no limite el rendimiento.
+     * @param argumentos argumentos adicionales (--clave=valor), por ejemplo --spring.profiles.active=perf
+     */
+    static ConfigurableApplicationContext iniciar(List<String> argumentos) {
+        // DevTools reiniciaría la aplicación en otro cargador de clases
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> todos = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.neita.sistemacitas=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        // Las pruebas de rendimiento se ejecutan con el classpath de test, donde el application.properties de
+        // las pruebas de integración oculta al de la aplicación: se cargan los de target/classes
+        todos.add("--spring.config.location=" + SistemaCitasApplication.class.getProtectionDomain()
+                .getCodeSource().getLocation());
+        todos.addAll(argumentos);
+        return new SpringApplicationBuilder(SistemaCitasApplication.class).run(todos.toArray(String[]::new));
+    }
+
+    static int puerto(ConfigurableApplicationContext contexto) {
+        return ((WebServerApplicationContext) contexto).getWebServer().getPort();
+    }
+
+    /**
+     * Obtiene los datos necesarios para reservar: el usuario administrador, un servicio activo y
+     * al menos PROFESIONALES_MINIMOS profesionales activos, que se crean si no existen.
+     */
+    static DatosReserva prepararDatosReserva(ConfigurableApplicationContext contexto) {
+        UsuarioService usuarioService = contexto.getBean(UsuarioService.class);
+        ServicioService servicioService = contexto.getBean(ServicioService.class);
+        ProfesionalService profesionalService = contexto.getBean(ProfesionalService.class);
+
+        Long usuarioId = usuarioService.obtenerPorEmail(EMAIL_ADMIN).getId();
+
+        List<ServicioDTO> servicios = servicioService.obtenerActivos();
+        ServicioDTO servicio = servicios.isEmpty()
+                ? servicioService.crear(new ServicioDTO(null, "Corte (benchmark)", null, 30, 25000.0, true))
+                : servicios.get(0);
+
+        List<Long> profesionalIds = new ArrayList<>(profesionalService.obtenerActivos().stream()
+                .map(ProfesionalDTO::getId)
+                .toList());
+        for (int i = profesionalIds.size(); i < PROFESIONALES_MINIMOS; i++) {
+            UsuarioDTO usuario = new UsuarioDTO();
+            usuario.setNombre("Profesional benchmark " + i);
+            usuario.setEmail("benchmark-" + i + "-" + System.currentTimeMillis() + "@barberia.com");
+            usuario.setPassword("benchmark123");
+            Long nuevoUsuarioId = usuarioService.crear(usuario).getId();
+            profesionalIds.add(profesionalService.crear(
+                    new ProfesionalDTO(null, "Barbería", null, true, nuevoUsuarioId, null, null)).getId());
+        }
+
+        int horaApertura = contexto.getEnvironment().getProperty("app.agenda.hora-apertura", Integer.class, 8);
+        int horaCierre = contexto.getEnvironment().getProperty("app.agenda.hora-cierre", Integer.class, 20);
+        return new DatosReserva(usuarioId, servicio.getId(), servicio.getDuracionMinutos(), profesionalIds,
+                horaApertura, horaCierre);
+    }
+
+    /**
+     * Usuario, servicio y profesionales con los que se reservan citas, y horario de atención.
+     */
+    record DatosReserva(Long usuarioId, Long servicioId, int duracionMinutos, List<Long> profesionalIds,
+                        int horaApertura, int horaCierre) {
+
+        /**
+         * Número de horas de inicio posibles en un día para el servicio, en franjas de 15 minutos.
+         */
+        int franjasPorDia() {
+            return Math.max((horaCierre - horaApertura) * 4 - Math.ceilDiv(duracionMinutos, 15) + 1, 1);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.neita.sistemacitas.benchmark;
+
+import com.neita.sistemacitas.service.CustomUserDetailsService;
+import com.neita.sistemacitas.service.TokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de autenticar una petición con cada mecanismo de la API, sobre la base de datos del perfil perf:
+ * la carga de credenciales de CustomUserDetailsService, la autenticación básica completa
+ * (caché de usuarios y comprobación BCrypt) y la validación de un token de acceso JWT.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutenticacionBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+    private CustomUserDetailsService userDetailsService;
+    private DaoAuthenticationProvider authenticationProvider;
+    private JwtDecoder jwtDecoder;
+    private String tokenAcceso;
+
+    @Setup
+    public void iniciar() {
+        contexto = AplicacionBenchmark.iniciar(List.of("--spring.profiles.active=perf"));
+        userDetailsService = contexto.getBean(CustomUserDetailsService.class);
+        authenticationProvider = contexto.getBean(DaoAuthenticationProvider.class);
+        jwtDecoder = contexto.getBean(JwtDecoder.class);
+        tokenAcceso = contexto.getBean(TokenService.class)
+                .emitir(userDetailsService.loadUserByUsername(AplicacionBenchmark.EMAIL_ADMIN))
+                .getAccessToken();
+    }
+
+    @TearDown
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public UserDetails cargarCredenciales() {
+        return userDetailsService.loadUserByUsername(AplicacionBenchmark.EMAIL_ADMIN);
+    }
+
+    @Benchmark
+    public Authentication autenticarBasico() {
+        return authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(
+                AplicacionBenchmark.EMAIL_ADMIN, AplicacionBenchmark.PASSWORD_ADMIN));
+    }
+
+    @Benchmark
+    public Jwt validarToken() {
+        return jwtDecoder.decode(tokenAcceso);
+    }
+}
@@ -0,0 +1,309 @@
+package com.neita.sistemacitas.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neita.sistemacitas.benchmark.AplicacionBenchmark.DatosReserva;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba de carga en proceso que compara la atención de peticiones con hilos de plataforma
+ * (pool de Tomcat) y con hilos virtuales.
+ * Para cada modo arranca la aplicación en un puerto libre, y para cada número de clientes concurrentes
+ * mide durante un tiempo fijo dos escenarios: la consulta paginada GET /api/citas/rango y la reserva
+ * POST /api/citas. Cada cliente envía una petición, espera la respuesta y envía la siguiente.
+ * Los clientes corren en la misma JVM sobre hilos virtuales, para que no sean ellos el límite.
+ * <p>
+ * Uso: {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="clientes=50,500,5000 duracion=30"}
+ * <p>
+ * Opciones (clave=valor): modos (plataforma,virtual), clientes (50,500,5000), calentamiento (10 s),
+ * duracion (30 s), hilos-tomcat (200), perfil (perfil de Spring; perf por defecto, vacío para usar
+ * la configuración de MySQL) y salida (target/benchmark/carga-hilos.json).
+ */
+public class CargaHilosBenchmark {
+
+    private static final int DIAS_RANGO = 30;
+    private static final int DIAS_RESERVA = 365;
+    private static final Duration TIMEOUT_PETICION = Duration.ofSeconds(60);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = leerOpciones(args);
+        List<String> modos = Arrays.asList(opciones.getOrDefault("modos", "plataforma,virtual").split(","));
+        List<Integer> niveles = Arrays.stream(opciones.getOrDefault("clientes", "50,500,5000").split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .toList();
+        Duration calentamiento = Duration.ofSeconds(Long.parseLong(opciones.getOrDefault("calentamiento", "10")));
+        Duration duracion = Duration.ofSeconds(Long.parseLong(opciones.getOrDefault("duracion", "30")));
+        Path salida = Path.of(opciones.getOrDefault("salida", "target/benchmark/carga-hilos.json"));
+
+        List<Resultado> resultados = new ArrayList<>();
+        String poolConexiones = null;
+        System.out.printf("%-10s %-8s %8s %10s %9s %9s %9s %9s %9s %9s %9s%n", "modo", "escenario", "clientes",
+                "peticiones", "por_seg", "p50_ms", "p95_ms", "p99_ms", "conflict", "rechaz", "errores");
+
+        for (String modo : modos) {
+            if (!modo.equals("plataforma") && !modo.equals("virtual")) {
+                throw new IllegalArgumentException("Modo desconocido: " + modo);
+            }
+            try (ConfigurableApplicationContext contexto = iniciar(modo.equals("virtual"), opciones)) {
+                poolConexiones = contexto.getEnvironment().getProperty("spring.datasource.hikari.maximum-pool-size");
+                Objetivo objetivo = prepararObjetivo(contexto);
+                for (int clientes : niveles) {
+                    for (Escenario escenario : Escenario.values()) {
+                        Resultado resultado = medir(modo, escenario, clientes, objetivo, calentamiento, duracion);
+                        resultados.add(resultado);
+                        System.out.printf("%-10s %-8s %8d %10d %9.1f %9.1f %9.1f %9.1f %9d %9d %9d%n",
+                                resultado.modo(), resultado.escenario(), resultado.clientes(),
+                                resultado.peticiones(), resultado.porSegundo(), resultado.p50Ms(),
+                                resultado.p95Ms(), resultado.p99Ms(), resultado.conflictos(),
+                                resultado.rechazadas(), resultado.errores());
+                    }
+                }
+            }
+        }
+
+        Map<String, Object> informe = new LinkedHashMap<>();
+        informe.put("fecha", LocalDateTime.now().toString());
+        informe.put("java", System.getProperty("java.version"));
+        informe.put("procesadores", Runtime.getRuntime().availableProcessors());
+        informe.put("poolConexiones", poolConexiones);
+        informe.put("calentamientoSegundos", calentamiento.toSeconds());
+        informe.put("duracionSegundos", duracion.toSeconds());
+        informe.put("resultados", resultados);
+        Files.createDirectories(salida.toAbsolutePath().getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(salida.toFile(), informe);
+        System.out.println("Resultados guardados en " + salida.toAbsolutePath());
+    }
+
+    private static ConfigurableApplicationContext iniciar(boolean hilosVirtuales, Map<String, String> opciones) {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--spring.threads.virtual.enabled=" + hilosVirtuales,
+                "--server.tomcat.threads.max=" + opciones.getOrDefault("hilos-tomcat", "200"),
+                "--server.tomcat.max-connections=20000"));
+        String perfil = opciones.getOrDefault("perfil", "perf");
+        if (!perfil.isBlank()) {
+            argumentos.add("--spring.profiles.active=" + perfil);
+        }
+        return AplicacionBenchmark.iniciar(argumentos);
+    }
+
+    private static Objetivo prepararObjetivo(ConfigurableApplicationContext contexto) {
+        return new Objetivo(URI.create("http://localhost:" + AplicacionBenchmark.puerto(contexto)),
+                contexto.getBean(ObjectMapper.class), AplicacionBenchmark.prepararDatosReserva(contexto));
+    }
+
+    /**
+     * Ejecuta un escenario con el número de clientes indicado. Solo se cuentan las respuestas
+     * recibidas dentro de la ventana de medición, tras el calentamiento.
+     */
+    private static Resultado medir(String modo, Escenario escenario, int clientes, Objetivo objetivo,
+                                   Duration calentamiento, Duration duracion) throws IOException, InterruptedException {
+        try (ExecutorService hilosCliente = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(hilosCliente)
+                     .build()) {
+            String token = obtenerToken(http, objetivo);
+
+            long inicioMedicion = System.nanoTime() + calentamiento.toNanos();
+            long finMedicion = inicioMedicion + duracion.toNanos();
+            List<Muestras> muestrasPorCliente = new ArrayList<>(clientes);
+            try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < clientes; i++) {
+                    Muestras muestras = new Muestras();
+                    muestrasPorCliente.add(muestras);
+                    ejecutor.submit(() -> ejecutarCliente(http, escenario, objetivo, token, muestras,
+                            inicioMedicion, finMedicion));
+                }
+            }
+            return resumir(modo, escenario, clientes, duracion, muestrasPorCliente);
+        }
+    }
+
+    private static void ejecutarCliente(HttpClient http, Escenario escenario, Objetivo objetivo, String token,
+                                        Muestras muestras, long inicioMedicion, long finMedicion) {
+        while (System.nanoTime() < finMedicion) {
+            HttpRequest peticion = escenario.construir(objetivo, token);
+            long inicio = System.nanoTime();
+            int estado;
+            try {
+                estado = http.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                estado = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long fin = System.nanoTime();
+            if (fin >= inicioMedicion && fin <= finMedicion) {
+                muestras.registrar(estado, fin - inicio);
+            }
+        }
+    }
+
+    private static String obtenerToken(HttpClient http, Objetivo objetivo) throws IOException, InterruptedException {
+        String credenciales = objetivo.mapper().writeValueAsString(
+                Map.of("email", AplicacionBenchmark.EMAIL_ADMIN, "password", AplicacionBenchmark.PASSWORD_ADMIN));
+        HttpResponse<String> respuesta = http.send(HttpRequest.newBuilder(objetivo.base().resolve("/api/public/auth/token"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(credenciales))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException("No se pudo obtener el token (" + respuesta.statusCode() + "): " + respuesta.body());
+        }
+        return objetivo.mapper().readTree(respuesta.body()).path("data").path("accessToken").asText();
+    }
+
+    private static Resultado resumir(String modo, Escenario escenario, int clientes, Duration duracion,
+                                     List<Muestras> muestrasPorCliente) {
+        int total = muestrasPorCliente.stream().mapToInt(m -> m.cantidad).sum();
+        long[] latencias = new long[total];
+        int posicion = 0;
+        long exitosas = 0, conflictos = 0, rechazadas = 0, errores = 0;
+        for (Muestras muestras : muestrasPorCliente) {
+            System.arraycopy(muestras.latencias, 0, latencias, posicion, muestras.cantidad);
+            posicion += muestras.cantidad;
+            exitosas += muestras.exitosas;
+            conflictos += muestras.conflictos;
+            rechazadas += muestras.rechazadas;
+            errores += muestras.errores;
+        }
+        Arrays.sort(latencias);
+        return new Resultado(modo, escenario.name().toLowerCase(), clientes, total,
+                total / (double) duracion.toSeconds(),
+                exitosas, conflictos, rechazadas, errores,
+                percentil(latencias, 0.50), percentil(latencias, 0.95), percentil(latencias, 0.99),
+                percentil(latencias, 1.0));
+    }
+
+    private static double percentil(long[] ordenadas, double fraccion) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(fraccion * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static Map<String, String> leerOpciones(String[] args) {
+        Map<String, String> opciones = new HashMap<>();
+        for (String argumento : args) {
+            int igual = argumento.indexOf('=');
+            if (igual > 0) {
+                opciones.put(argumento.substring(0, igual), argumento.substring(igual + 1));
+            }
+        }
+        return opciones;
+    }
+
+    /**
+     * Escenarios medidos. Cada petición elige un día, una hora y un profesional al azar para repartir
+     * la carga; las reservas que coinciden con una franja ya ocupada se cuentan como conflictos (409).
+     */
+    private enum Escenario {
+        RANGO {
+            @Override
+            HttpRequest construir(Objetivo objetivo, String token) {
+                LocalDateTime inicio = LocalDate.now()
+                        .plusDays(ThreadLocalRandom.current().nextInt(DIAS_RANGO))
+                        .atStartOfDay();
+                String consulta = "/api/citas/rango?limit=50&inicio=" + inicio.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                        + "&fin=" + inicio.plusDays(1).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+                return HttpRequest.newBuilder(objetivo.base().resolve(consulta))
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(TIMEOUT_PETICION)
+                        .GET()
+                        .build();
+            }
+        },
+        RESERVA {
+            @Override
+            HttpRequest construir(Objetivo objetivo, String token) {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                DatosReserva datos = objetivo.datos();
+                LocalDateTime fechaHora = LocalDate.now()
+                        .plusDays(1 + aleatorio.nextInt(DIAS_RESERVA))
+                        .atTime(datos.horaApertura(), 0)
+                        .plusMinutes(15L * aleatorio.nextInt(datos.franjasPorDia()));
+                Long profesionalId = datos.profesionalIds().get(aleatorio.nextInt(datos.profesionalIds().size()));
+                String cuerpo = String.format(
+                        "{\"fechaHora\":\"%s\",\"estado\":\"PENDIENTE\",\"usuarioId\":%d,\"servicioId\":%d,\"profesionalId\":%d}",
+                        fechaHora.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), datos.usuarioId(),
+                        datos.servicioId(), profesionalId);
+                return HttpRequest.newBuilder(objetivo.base().resolve("/api/citas"))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .timeout(TIMEOUT_PETICION)
+                        .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                        .build();
+            }
+        };
+
+        abstract HttpRequest construir(Objetivo objetivo, String token);
+    }
+
+    /**
+     * Aplicación arrancada y datos con los que se construyen las peticiones.
+     */
+    private record Objetivo(URI base, ObjectMapper mapper, DatosReserva datos) {
+    }
+
+    /**
+     * Latencias y resultados de un cliente; solo los escribe el hilo de ese cliente.
+     */
+    private static final class Muestras {
+
+        private long[] latencias = new long[1024];
+        private int cantidad;
+        private long exitosas;
+        private long conflictos;
+        private long rechazadas;
+        private long errores;
+
+        void registrar(int estado, long latenciaNanos) {
+            if (cantidad == latencias.length) {
+                latencias = Arrays.copyOf(latencias, cantidad * 2);
+            }
+            latencias[cantidad++] = latenciaNanos;
+            if (estado >= 200 && estado < 300) {
+                exitosas++;
+            } else if (estado == 409) {
+                conflictos++;
+            } else if (estado == 503) {
+                rechazadas++;
+            } else {
+                errores++;
+            }
+        }
+    }
+
+    /**
+     * Resultado de un escenario con un número de clientes.
+     */
+    public record Resultado(String modo, String escenario, int clientes, long peticiones, double porSegundo,
+                            long exitosas, long conflictos, long rechazadas, long errores,
+                            double p50Ms, double p95Ms, double p99Ms, double maximoMs) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.neita.sistemacitas.benchmark;
+
+import com.neita.sistemacitas.dto.CitaDTO;
+import com.neita.sistemacitas.entity.Cita;
+import com.neita.sistemacitas.entity.EstadoCita;
+import com.neita.sistemacitas.entity.Profesional;
+import com.neita.sistemacitas.entity.Servicio;
+import com.neita.sistemacitas.entity.Usuario;
+import com.neita.sistemacitas.service.CitaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de entidades Cita a CitaDTO tal como la hace CitaService al crear y actualizar,
+ * frente a la construcción directa que usan las proyecciones de lectura de CitaRepository.
+ * El método de conversión es privado, por lo que se invoca a través de un MethodHandle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConversionCitaBenchmark {
+
+    private static final int CITAS = 1000;
+
+    private MethodHandle convertirADTO;
+    private Cita[] citas;
+
+    @Setup
+    public void preparar() throws ReflectiveOperationException {
+        // La conversión no usa ninguna dependencia del servicio
+        Constructor<?> constructor = CitaService.class.getDeclaredConstructors()[0];
+        CitaService citaService = (CitaService) constructor.newInstance(new Object[constructor.getParameterCount()]);
+        Method metodo = CitaService.class.getDeclaredMethod("convertirADTO", Cita.class, String.class);
+        convertirADTO = MethodHandles.privateLookupIn(CitaService.class, MethodHandles.lookup())
+                .unreflect(metodo)
+                .bindTo(citaService);
+
+        Servicio servicio = new Servicio();
+        servicio.setId(1L);
+        servicio.setNombre("Corte clásico");
+        servicio.setDuracionMinutos(30);
+        servicio.setPrecio(25000.0);
+
+        LocalDateTime inicio = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        citas = new Cita[CITAS];
+        for (int i = 0; i < CITAS; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setId((long) i + 1);
+            usuario.setNombre("Cliente " + i);
+
+            Usuario usuarioProfesional = new Usuario();
+            usuarioProfesional.setId((long) CITAS + i % 10);
+            usuarioProfesional.setNombre("Profesional " + i % 10);
+            Profesional profesional = new Profesional();
+            profesional.setId((long) i % 10 + 1);
+            profesional.setEspecialidad("Barbería");
+            profesional.setUsuario(usuarioProfesional);
+
+            Cita cita = new Cita();
+            cita.setId((long) i + 1);
+            cita.setFechaHora(inicio.plusMinutes(30L * i));
+            cita.setFechaHoraFin(inicio.plusMinutes(30L * i + 30));
+            cita.setEstado(EstadoCita.CONFIRMADA);
+            cita.setNotas(i % 3 == 0 ? "Traer referencia del corte" : null);
+            cita.setPrecio(servicio.getPrecio());
+            cita.setFechaCreacion(inicio.minusDays(2));
+            cita.setUsuario(usuario);
+            cita.setServicio(servicio);
+            cita.setProfesional(profesional);
+            citas[i] = cita;
+        }
+    }
+
+    @Benchmark
+    public void convertirEntidad(Blackhole blackhole) throws Throwable {
+        for (Cita cita : citas) {
+            blackhole.consume((CitaDTO) convertirADTO.invokeExact(cita, cita.getUsuario().getNombre()));
+        }
+    }
+
+    @Benchmark
+    public void construirProyeccion(Blackhole blackhole) {
+        for (Cita cita : citas) {
+            blackhole.consume(new CitaDTO(cita.getId(), cita.getFechaHora(), cita.getFechaHoraFin(), cita.getEstado(),
+                    cita.getNotas(), cita.getFechaCreacion(), cita.getUsuario().getId(), cita.getUsuario().getNombre(),
+                    cita.getServicio().getId(), cita.getServicio().getNombre(), cita.getServicio().getPrecio(),
+                    cita.getPrecio(), cita.getProfesional().getId(), cita.getProfesional().getUsuario().getNombre(),
+                    cita.getProfesional().getEspecialidad()));
+        }
+    }
+}
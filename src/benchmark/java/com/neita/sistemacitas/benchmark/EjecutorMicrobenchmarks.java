@@ -0,0 +1,42 @@
+package com.neita.sistemacitas.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Ejecuta los benchmarks JMH del paquete y guarda los resultados en JSON en target/benchmark,
+ * un archivo por ejecución para poder comparar ejecuciones (por ejemplo con JMH Visualizer).
+ * Acepta las opciones de línea de comandos de JMH: una expresión regular con los benchmarks a
+ * ejecutar, -p elementos=1000 para fijar parámetros, -f/-wi/-i para forks e iteraciones, etc.
+ */
+public final class EjecutorMicrobenchmarks {
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private EjecutorMicrobenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions lineaComandos = new CommandLineOptions(args);
+        ChainedOptionsBuilder opciones = new OptionsBuilder().parent(lineaComandos);
+        if (lineaComandos.getIncludes().isEmpty()) {
+            opciones.include(EjecutorMicrobenchmarks.class.getPackageName() + "\\..*Benchmark");
+        }
+        if (!lineaComandos.getResult().hasValue()) {
+            Path salida = Path.of("target", "benchmark",
+                    "jmh-" + LocalDateTime.now().format(FORMATO_FECHA) + ".json");
+            Files.createDirectories(salida.getParent());
+            opciones.resultFormat(ResultFormatType.JSON).result(salida.toString());
+            System.out.println("Resultados en " + salida.toAbsolutePath());
+        }
+        new Runner(opciones.build()).run();
+    }
+}
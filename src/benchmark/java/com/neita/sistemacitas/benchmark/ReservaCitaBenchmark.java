@@ -0,0 +1,81 @@
+package com.neita.sistemacitas.benchmark;
+
+import com.neita.sistemacitas.benchmark.AplicacionBenchmark.DatosReserva;
+import com.neita.sistemacitas.dto.CitaDTO;
+import com.neita.sistemacitas.entity.EstadoCita;
+import com.neita.sistemacitas.service.CitaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserva de citas con CitaService.crear sobre la base de datos embebida del perfil perf:
+ * validación, bloqueo de franjas, inserción y eventos de la transacción.
+ * Cada invocación reserva un hueco distinto (profesional, hora y día), por lo que no hay conflictos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class ReservaCitaBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+    private CitaService citaService;
+    private DatosReserva datos;
+    private LocalDate primerDia;
+    private int huecosPorDia;
+    private int duracionHueco;
+    private long reservas;
+
+    @Setup
+    public void iniciar() {
+        contexto = AplicacionBenchmark.iniciar(List.of("--spring.profiles.active=perf"));
+        citaService = contexto.getBean(CitaService.class);
+        datos = AplicacionBenchmark.prepararDatosReserva(contexto);
+        // Huecos consecutivos alineados a las franjas de 15 minutos, sin solaparse entre sí
+        duracionHueco = Math.ceilDiv(datos.duracionMinutos(), 15) * 15;
+        huecosPorDia = Math.max((datos.horaCierre() - datos.horaApertura()) * 60 / duracionHueco, 1);
+        primerDia = LocalDate.now().plusDays(1);
+    }
+
+    @TearDown
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public CitaDTO reservar() {
+        long n = reservas++;
+        List<Long> profesionales = datos.profesionalIds();
+        long resto = n / profesionales.size();
+        LocalDateTime fechaHora = primerDia.plusDays(resto / huecosPorDia)
+                .atTime(datos.horaApertura(), 0)
+                .plusMinutes(resto % huecosPorDia * duracionHueco);
+
+        CitaDTO cita = new CitaDTO();
+        cita.setFechaHora(fechaHora);
+        cita.setEstado(EstadoCita.PENDIENTE);
+        cita.setUsuarioId(datos.usuarioId());
+        cita.setServicioId(datos.servicioId());
+        cita.setProfesionalId(profesionales.get((int) (n % profesionales.size())));
+        return citaService.crear(cita);
+    }
+}
@@ -0,0 +1,79 @@
+package com.neita.sistemacitas.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.neita.sistemacitas.controller.EscritorNdjson;
+import com.neita.sistemacitas.dto.ApiResponse;
+import com.neita.sistemacitas.dto.CitaDTO;
+import com.neita.sistemacitas.entity.EstadoCita;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de ApiResponse&lt;List&lt;CitaDTO&gt;&gt; con la misma configuración de Jackson que usa
+ * Spring Boot (módulo de java.time y fechas ISO), frente a la respuesta NDJSON de EscritorNdjson.
+ * La salida se descarta para medir solo la serialización.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacionRespuestaBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int elementos;
+
+    private ObjectMapper objectMapper;
+    private EscritorNdjson escritorNdjson;
+    private List<CitaDTO> citas;
+    private ApiResponse<List<CitaDTO>> respuesta;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        escritorNdjson = new EscritorNdjson(objectMapper);
+
+        LocalDateTime inicio = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        citas = new ArrayList<>(elementos);
+        for (int i = 0; i < elementos; i++) {
+            LocalDateTime fechaHora = inicio.plusMinutes(30L * i);
+            citas.add(new CitaDTO((long) i + 1, fechaHora, fechaHora.plusMinutes(30), EstadoCita.CONFIRMADA,
+                    i % 3 == 0 ? "Traer referencia del corte" : null, inicio.minusDays(2),
+                    (long) i % 5000 + 1, "Cliente " + i % 5000,
+                    (long) i % 30 + 1, "Servicio " + i % 30, 25000.0, 25000.0,
+                    (long) i % 40 + 1, "Profesional " + i % 40, "Barbería"));
+        }
+        respuesta = ApiResponse.success("Citas obtenidas exitosamente", citas);
+    }
+
+    @Benchmark
+    public void serializarApiResponse() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), respuesta);
+    }
+
+    @Benchmark
+    public void serializarNdjson() throws IOException {
+        escritorNdjson.<CitaDTO>respuesta(citas::forEach).getBody().writeTo(OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,97 @@
+package com.neita.sistemacitas.config;
+
+import com.neita.sistemacitas.dto.ProfesionalDTO;
+import com.neita.sistemacitas.dto.ServicioDTO;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Caché de los catálogos de servicios y profesionales que guarda y devuelve copias de los DTO.
+ * Los DTO son mutables y los métodos {@code @Cacheable} los devuelven tal cual a quien llama;
+ * sin copia, un controlador que modificara el resultado cambiaría también la entrada en caché.
+ * El resto de operaciones se delegan en la caché envuelta.
+ */
+class CacheCatalogo implements Cache {
+
+    private final Cache cache;
+
+    CacheCatalogo(Cache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public String getName() {
+        return cache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return cache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return copiar(cache.get(key));
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return type.cast(copiar(cache.get(key, type)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) copiar(cache.get(key, () -> copiar(valueLoader.call())));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, copiar(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return copiar(cache.putIfAbsent(key, copiar(value)));
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return cache.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return cache.invalidate();
+    }
+
+    private static ValueWrapper copiar(ValueWrapper valor) {
+        return valor == null ? null : new SimpleValueWrapper(copiar(valor.get()));
+    }
+
+    private static Object copiar(Object valor) {
+        return switch (valor) {
+            case null -> null;
+            case ServicioDTO s -> new ServicioDTO(s.getId(), s.getNombre(), s.getDescripcion(),
+                    s.getDuracionMinutos(), s.getPrecio(), s.getActivo());
+            case ProfesionalDTO p -> new ProfesionalDTO(p.getId(), p.getEspecialidad(), p.getHorarioDisponible(),
+                    p.getActivo(), p.getUsuarioId(), p.getUsuarioNombre(), p.getUsuarioEmail());
+            case List<?> lista -> lista.stream().map(CacheCatalogo::copiar).toList();
+            default -> throw new IllegalArgumentException(
+                    "Valor sin copia definida en la caché del catálogo: " + valor.getClass().getName());
+        };
+    }
+}
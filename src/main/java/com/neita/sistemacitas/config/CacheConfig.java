@@ -0,0 +1,76 @@
+package com.neita.sistemacitas.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuración de la caché en memoria (Caffeine) de los catálogos de servicios y profesionales
+ * y de los usuarios autenticados (HTTP Basic y formulario de login).
+ * Las cachés tienen un tamaño máximo y un tiempo de vida, y registran estadísticas de aciertos y desalojos.
+ * Las cachés del catálogo guardan y devuelven copias (ver {@link CacheCatalogo}).
+ * Las invalidaciones se aplican tras el commit de la transacción que modifica el catálogo. Eso reduce
+ * la ventana en la que una lectura concurrente vuelve a guardar los datos anteriores al cambio, pero no
+ * la elimina: una lectura que cargó los datos antes del commit puede guardarlos después de la invalidación,
+ * y la entrada obsoleta dura hasta el siguiente cambio o hasta que expira su tiempo de vida.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String SERVICIOS_ACTIVOS = "serviciosActivos";
+    public static final String SERVICIO_POR_ID = "servicioPorId";
+    public static final String PROFESIONALES_ACTIVOS = "profesionalesActivos";
+    public static final String PROFESIONAL_POR_ID = "profesionalPorId";
+    public static final String USUARIOS_AUTENTICADOS = "usuariosAutenticados";
+
+    public static final List<String> CACHES = List.of(
+            SERVICIOS_ACTIVOS, SERVICIO_POR_ID, PROFESIONALES_ACTIVOS, PROFESIONAL_POR_ID, USUARIOS_AUTENTICADOS);
+
+    @Value("${app.cache.catalogo.maximo-entradas:1000}")
+    private long maximoEntradas;
+
+    @Value("${app.cache.catalogo.ttl-minutos:60}")
+    private long ttlMinutos;
+
+    @Value("${app.cache.autenticacion.maximo-entradas:10000}")
+    private long maximoEntradasAutenticacion;
+
+    @Value("${app.cache.autenticacion.ttl-minutos:10}")
+    private long ttlMinutosAutenticacion;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                                               com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                Cache adaptada = super.adaptCaffeineCache(name, cache);
+                // Los usuarios autenticados los copia CacheAutenticacionService
+                return USUARIOS_AUTENTICADOS.equals(name) ? adaptada : new CacheCatalogo(adaptada);
+            }
+        };
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximoEntradas)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .recordStats());
+        cacheManager.setCacheNames(CACHES);
+        cacheManager.setAllowNullValues(false);
+        // Los usuarios autenticados tienen su propio límite y un tiempo de vida más corto
+        cacheManager.registerCustomCache(USUARIOS_AUTENTICADOS, Caffeine.newBuilder()
+                .maximumSize(maximoEntradasAutenticacion)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutosAutenticacion))
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,336 @@
+package com.neita.sistemacitas.config;
+
+import com.neita.sistemacitas.entity.Cita;
+import com.neita.sistemacitas.entity.EstadoCita;
+import com.neita.sistemacitas.entity.FranjaReservada;
+import com.neita.sistemacitas.repository.ResumenDiarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generador de datos sintéticos del perfil perf. Llena una base de datos vacía con volúmenes
+ * realistas de usuarios, profesionales, servicios y citas para las pruebas de rendimiento.
+ * Las citas se reparten por día de la semana y hora según la demanda habitual de una barbería,
+ * sin solaparse en la agenda de cada profesional, desde los próximos días hacia atrás hasta
+ * alcanzar el total pedido. Las citas futuras reservan sus franjas y los resúmenes diarios
+ * se calculan al terminar, igual que si las citas se hubieran creado desde la API.
+ * <p>
+ * Se activa con app.generador.habilitado=true y no hace nada si la base de datos ya tiene citas,
+ * de modo que con una base de datos en archivo los datos se generan una sola vez.
+ */
+@Component
+@Profile("perf")
+@ConditionalOnProperty(name = "app.generador.habilitado", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class GeneradorDatosPerf implements ApplicationRunner {
+
+    private static final String DOMINIO_EMAIL = "@perf.barberia.com";
+    private static final String PASSWORD_GENERADA = "perf123";
+
+    // Demanda relativa por día de la semana (lunes a domingo); el domingo no se atiende
+    private static final double[] PESO_DIA = {0.55, 0.6, 0.65, 0.75, 0.95, 1.0, 0.0};
+
+    // Demanda relativa por hora de inicio: picos a media mañana y al salir del trabajo
+    private static final double[] PESO_HORA = {
+            0, 0, 0, 0, 0, 0, 0.2, 0.3,
+            0.45, 0.65, 0.85, 0.8, 0.5, 0.35, 0.55, 0.7,
+            0.85, 1.0, 0.95, 0.6, 0.3, 0.15, 0, 0};
+
+    // Probabilidad de que una franja libre reciba una cita en el día y la hora de mayor demanda
+    private static final double OCUPACION_MAXIMA = 0.8;
+
+    private static final String[] NOMBRES = {"Juan", "María", "Carlos", "Ana", "Luis", "Laura", "Andrés", "Camila",
+            "Jorge", "Valentina", "Diego", "Sofía", "Felipe", "Daniela", "Santiago", "Paula", "Mateo", "Natalia"};
+    private static final String[] APELLIDOS = {"García", "Rodríguez", "Martínez", "López", "González", "Pérez",
+            "Sánchez", "Ramírez", "Torres", "Díaz", "Vargas", "Moreno", "Rojas", "Castro", "Ortiz", "Gómez"};
+    private static final String[] ESPECIALIDADES = {"Barbería", "Corte y peinado", "Colorimetría", "Barba y afeitado"};
+    private static final String[] SERVICIOS = {"Corte clásico", "Corte degradado", "Arreglo de barba",
+            "Afeitado tradicional", "Corte y barba", "Corte infantil", "Tinte", "Mechas", "Tratamiento capilar",
+            "Cejas", "Lavado y peinado", "Keratina"};
+    private static final int[] DURACIONES = {15, 30, 30, 30, 45, 45, 60, 90};
+    private static final String[] NOTAS = {"Primera visita", "Traer referencia del corte", "Cliente prefiere tijera",
+            "Llega unos minutos tarde", "Piel sensible"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ResumenDiarioRepository resumenDiarioRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${app.generador.usuarios:50000}")
+    private int totalUsuarios;
+
+    @Value("${app.generador.profesionales:40}")
+    private int totalProfesionales;
+
+    @Value("${app.generador.servicios:30}")
+    private int totalServicios;
+
+    @Value("${app.generador.citas:5000000}")
+    private long totalCitas;
+
+    @Value("${app.generador.dias-futuro:30}")
+    private int diasFuturo;
+
+    @Value("${app.generador.tamano-lote:5000}")
+    private int tamanoLote;
+
+    @Value("${app.generador.semilla:42}")
+    private long semilla;
+
+    @Value("${app.generador.terminar:false}")
+    private boolean terminar;
+
+    @Value("${app.agenda.hora-apertura:8}")
+    private int horaApertura;
+
+    @Value("${app.agenda.hora-cierre:20}")
+    private int horaCierre;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long citasExistentes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cita", Long.class);
+        if (citasExistentes != null && citasExistentes > 0) {
+            log.info("La base de datos ya contiene {} citas. Omitiendo generación de datos.", citasExistentes);
+        } else {
+            generar();
+        }
+        if (terminar) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private void generar() {
+        log.info("Generando {} usuarios, {} profesionales, {} servicios y {} citas (semilla {})",
+                totalUsuarios, totalProfesionales, totalServicios, totalCitas, semilla);
+        long inicio = System.nanoTime();
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+
+        long[] clientes = insertarUsuarios(aleatorio, "cliente", totalUsuarios);
+        long[] profesionales = insertarProfesionales(aleatorio, insertarUsuarios(aleatorio, "profesional", totalProfesionales));
+        Servicios servicios = insertarServicios(aleatorio);
+        long franjas = insertarCitas(aleatorio, clientes, profesionales, servicios);
+
+        transactionTemplate.executeWithoutResult(estado -> resumenDiarioRepository.reconstruirDesde(LocalDate.EPOCH));
+        // Estadísticas del optimizador de H2 para las tablas recién llenadas
+        jdbcTemplate.execute("ANALYZE");
+
+        log.info("Datos generados: {} citas y {} franjas reservadas en {} s (contraseña de los usuarios: {})",
+                totalCitas, franjas, Duration.ofNanos(System.nanoTime() - inicio).toSeconds(), PASSWORD_GENERADA);
+    }
+
+    /**
+     * Inserta usuarios con emails prefijo{n}@perf.barberia.com y devuelve sus IDs.
+     * Todos comparten la misma contraseña, codificada una sola vez.
+     */
+    private long[] insertarUsuarios(SplittableRandom aleatorio, String prefijo, int cantidad) {
+        String password = passwordEncoder.encode(PASSWORD_GENERADA);
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Object[]> lote = new ArrayList<>(tamanoLote);
+        for (int i = 1; i <= cantidad; i++) {
+            lote.add(new Object[]{
+                    elegir(aleatorio, NOMBRES) + " " + elegir(aleatorio, APELLIDOS) + " " + elegir(aleatorio, APELLIDOS),
+                    prefijo + i + DOMINIO_EMAIL,
+                    password,
+                    "3" + (100000000L + aleatorio.nextLong(900000000L)),
+                    ahora.minusMinutes(aleatorio.nextLong(5L * 365 * 24 * 60)),
+                    "SUPER_ADMIN",
+                    true});
+            if (lote.size() == tamanoLote || i == cantidad) {
+                jdbcTemplate.batchUpdate("INSERT INTO usuario (nombre, email, password, telefono, fecha_registro, rol, activo) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)", lote);
+                lote.clear();
+            }
+        }
+        return jdbcTemplate.queryForList("SELECT id FROM usuario WHERE email LIKE ? ORDER BY id",
+                Long.class, prefijo + "%" + DOMINIO_EMAIL).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long[] insertarProfesionales(SplittableRandom aleatorio, long[] usuarios) {
+        List<Object[]> filas = new ArrayList<>(usuarios.length);
+        for (long usuarioId : usuarios) {
+            filas.add(new Object[]{elegir(aleatorio, ESPECIALIDADES), true, usuarioId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO profesional (especialidad, activo, usuario_id) VALUES (?, ?, ?)", filas);
+        return jdbcTemplate.queryForList("SELECT p.id FROM profesional p JOIN usuario u ON u.id = p.usuario_id " +
+                "WHERE u.email LIKE ? ORDER BY p.id", Long.class, "profesional%" + DOMINIO_EMAIL)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Inserta los servicios. Los primeros del catálogo son los más solicitados: la popularidad
+     * decrece con la posición, de modo que unos pocos servicios concentran la mayoría de citas.
+     */
+    private Servicios insertarServicios(SplittableRandom aleatorio) {
+        List<Object[]> filas = new ArrayList<>(totalServicios);
+        int[] duraciones = new int[totalServicios];
+        double[] precios = new double[totalServicios];
+        double[] popularidadAcumulada = new double[totalServicios];
+        double acumulada = 0;
+        for (int i = 0; i < totalServicios; i++) {
+            String nombre = SERVICIOS[i % SERVICIOS.length] + (i < SERVICIOS.length ? "" : " " + (i / SERVICIOS.length + 1));
+            duraciones[i] = DURACIONES[aleatorio.nextInt(DURACIONES.length)];
+            precios[i] = 10000 + duraciones[i] * 500 + aleatorio.nextInt(20) * 1000;
+            filas.add(new Object[]{nombre, "Servicio generado para pruebas de rendimiento", duraciones[i], precios[i], true});
+            acumulada += 1.0 / (i + 1);
+            popularidadAcumulada[i] = acumulada;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO servicio (nombre, descripcion, duracion_minutos, precio, activo) " +
+                "VALUES (?, ?, ?, ?, ?)", filas);
+        long[] ids = jdbcTemplate.queryForList("SELECT id FROM servicio ORDER BY id DESC LIMIT ?",
+                Long.class, totalServicios).stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Servicios(ids, duraciones, precios, popularidadAcumulada);
+    }
+
+    /**
+     * Recorre los días hacia atrás desde el último día con citas futuras y, para cada profesional,
+     * ocupa franjas libres con una probabilidad que depende del día y la hora.
+     * Los IDs se asignan del total hacia 1 a medida que se retrocede, de modo que crecen con la fecha
+     * como si las citas se hubieran creado en ese orden.
+     * @return el número de franjas reservadas
+     */
+    private long insertarCitas(SplittableRandom aleatorio, long[] clientes, long[] profesionales, Servicios servicios) {
+        if (clientes.length == 0 || profesionales.length == 0 || servicios.ids().length == 0) {
+            log.warn("Sin clientes, profesionales o servicios no se pueden generar citas");
+            return 0;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Object[]> citas = new ArrayList<>(tamanoLote);
+        List<Object[]> franjas = new ArrayList<>();
+        long generadas = 0;
+        long franjasReservadas = 0;
+        long inicio = System.nanoTime();
+
+        for (LocalDate dia = ahora.toLocalDate().plusDays(diasFuturo); generadas < totalCitas; dia = dia.minusDays(1)) {
+            double pesoDia = PESO_DIA[dia.getDayOfWeek().getValue() - 1];
+            if (pesoDia == 0) {
+                continue;
+            }
+            LocalDateTime apertura = dia.atTime(horaApertura, 0);
+            LocalDateTime cierre = dia.atTime(horaCierre, 0);
+            for (int p = 0; p < profesionales.length && generadas < totalCitas; p++) {
+                LocalDateTime franja = apertura;
+                while (franja.isBefore(cierre) && generadas < totalCitas) {
+                    int servicio = servicios.elegir(aleatorio);
+                    LocalDateTime fin = franja.plusMinutes(servicios.duraciones()[servicio]);
+                    if (fin.isAfter(cierre)
+                            || aleatorio.nextDouble() >= OCUPACION_MAXIMA * pesoDia * PESO_HORA[franja.getHour()]) {
+                        franja = franja.plusMinutes(FranjaReservada.MINUTOS_POR_FRANJA);
+                        continue;
+                    }
+
+                    long id = totalCitas - generadas;
+                    boolean futura = franja.isAfter(ahora);
+                    EstadoCita estado = futura ? estadoFutura(aleatorio) : estadoPasada(aleatorio);
+                    LocalDateTime creacion = franja.minusMinutes(30 + aleatorio.nextLong(21L * 24 * 60));
+                    citas.add(new Object[]{
+                            id, franja, fin, estado.name(),
+                            aleatorio.nextInt(7) == 0 ? elegir(aleatorio, NOTAS) : null,
+                            servicios.precios()[servicio],
+                            creacion.isAfter(ahora) ? ahora.minusMinutes(aleatorio.nextLong(60)) : creacion,
+                            clientes[elegirCliente(aleatorio, clientes.length)],
+                            servicios.ids()[servicio],
+                            profesionales[p]});
+                    generadas++;
+
+                    LocalDateTime siguiente = franja;
+                    while (siguiente.isBefore(fin)) {
+                        if (futura && estado.ocupaAgenda()) {
+                            franjas.add(new Object[]{++franjasReservadas, profesionales[p], siguiente, id});
+                        }
+                        siguiente = siguiente.plusMinutes(FranjaReservada.MINUTOS_POR_FRANJA);
+                    }
+                    franja = siguiente;
+
+                    if (citas.size() == tamanoLote) {
+                        insertarLote(citas, franjas);
+                    }
+                    if (generadas % 500_000 == 0) {
+                        log.info("{} citas generadas (hasta {}, {} citas/s)", generadas, dia,
+                                generadas * 1_000_000_000L / Math.max(System.nanoTime() - inicio, 1));
+                    }
+                }
+            }
+        }
+        insertarLote(citas, franjas);
+
+        jdbcTemplate.execute("ALTER SEQUENCE cita_seq RESTART WITH " + (totalCitas + Cita.IDS_POR_BLOQUE + 1));
+        jdbcTemplate.execute("ALTER SEQUENCE franja_reservada_seq RESTART WITH "
+                + (franjasReservadas + Cita.IDS_POR_BLOQUE + 1));
+        return franjasReservadas;
+    }
+
+    /**
+     * Inserta las citas acumuladas y después sus franjas, que las referencian.
+     */
+    private void insertarLote(List<Object[]> citas, List<Object[]> franjas) {
+        if (!citas.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO cita (id, fecha_hora, fecha_hora_fin, estado, notas, precio, " +
+                    "fecha_creacion, usuario_id, servicio_id, profesional_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", citas);
+            citas.clear();
+        }
+        if (!franjas.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO franja_reservada (id, profesional_id, inicio, cita_id) " +
+                    "VALUES (?, ?, ?, ?)", franjas);
+            franjas.clear();
+        }
+    }
+
+    private static EstadoCita estadoPasada(SplittableRandom aleatorio) {
+        int valor = aleatorio.nextInt(100);
+        return valor < 82 ? EstadoCita.COMPLETADA : valor < 94 ? EstadoCita.CANCELADA : EstadoCita.EXPIRADA;
+    }
+
+    private static EstadoCita estadoFutura(SplittableRandom aleatorio) {
+        int valor = aleatorio.nextInt(100);
+        return valor < 55 ? EstadoCita.PENDIENTE : valor < 93 ? EstadoCita.CONFIRMADA : EstadoCita.CANCELADA;
+    }
+
+    /**
+     * Elige un cliente dando más citas a los primeros: unos pocos clientes habituales
+     * concentran muchas citas y la mayoría solo tiene unas pocas.
+     */
+    private static int elegirCliente(SplittableRandom aleatorio, int clientes) {
+        double valor = aleatorio.nextDouble();
+        return (int) (valor * valor * clientes);
+    }
+
+    private static String elegir(SplittableRandom aleatorio, String[] valores) {
+        return valores[aleatorio.nextInt(valores.length)];
+    }
+
+    /**
+     * Servicios generados con su duración, su precio y su popularidad acumulada para elegirlos al azar.
+     */
+    private record Servicios(long[] ids, int[] duraciones, double[] precios, double[] popularidadAcumulada) {
+
+        int elegir(SplittableRandom aleatorio) {
+            double valor = aleatorio.nextDouble() * popularidadAcumulada[popularidadAcumulada.length - 1];
+            for (int i = 0; i < popularidadAcumulada.length; i++) {
+                if (valor < popularidadAcumulada[i]) {
+                    return i;
+                }
+            }
+            return popularidadAcumulada.length - 1;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.neita.sistemacitas.config;
+
+import com.neita.sistemacitas.service.RevocacionTokenService;
+import com.neita.sistemacitas.service.TokenService;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Configuración de los tokens JWT de la API, firmados con HMAC-SHA256.
+ * Los tokens se verifican en memoria con la clave compartida y las listas de revocación,
+ * sin consultar la base de datos ni calcular BCrypt en cada petición.
+ */
+@Configuration
+public class JwtConfig {
+
+    private static final int LONGITUD_MINIMA_SECRETO = 32;
+
+    @Value("${app.jwt.secreto}")
+    private String secreto;
+
+    @Value("${app.jwt.emisor:sistema-citas}")
+    private String emisor;
+
+    /**
+     * Clave de firma de los tokens.
+     */
+    @Bean
+    public SecretKey claveFirmaJwt() {
+        byte[] bytes = secreto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < LONGITUD_MINIMA_SECRETO) {
+            throw new IllegalStateException(
+                    "app.jwt.secreto debe tener al menos " + LONGITUD_MINIMA_SECRETO + " bytes para HS256");
+        }
+        return new SecretKeySpec(bytes, "HmacSHA256");
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey claveFirmaJwt) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(claveFirmaJwt));
+    }
+
+    /**
+     * Decodificador de los tokens de acceso: comprueba firma, expiración, emisor,
+     * que no sea un token de refresco y que no esté revocado.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey claveFirmaJwt, RevocacionTokenService revocacionTokenService) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(claveFirmaJwt)
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(emisor),
+                new JwtClaimValidator<String>(TokenService.CLAIM_TIPO, TokenService.TIPO_ACCESO::equals),
+                revocacionTokenService));
+        return decoder;
+    }
+
+    /**
+     * Convierte el claim de roles del token en las autoridades de Spring Security.
+     */
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter autoridades = new JwtGrantedAuthoritiesConverter();
+        autoridades.setAuthoritiesClaimName(TokenService.CLAIM_ROLES);
+        autoridades.setAuthorityPrefix("");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(autoridades);
+        return converter;
+    }
+}
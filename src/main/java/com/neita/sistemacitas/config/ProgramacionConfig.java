@@ -0,0 +1,12 @@
+package com.neita.sistemacitas.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita la ejecución de tareas programadas (@Scheduled).
+ */
+@Configuration
+@EnableScheduling
+public class ProgramacionConfig {
+}
@@ -1,7 +1,10 @@
 package com.neita.sistemacitas.config;
 
+import com.neita.sistemacitas.service.CacheAutenticacionService;
 import com.neita.sistemacitas.service.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,6 +15,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
@@ -26,6 +30,8 @@ import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 public class SecurityConfig {
 
 	private final CustomUserDetailsService userDetailsService;
+	private final CacheAutenticacionService cacheAutenticacion;
+	private final JwtAuthenticationConverter jwtAuthenticationConverter;
 
 	/**
 	 * Configura el encoder de contraseñas usando BCrypt.
@@ -36,13 +42,15 @@ public class SecurityConfig {
 	}
 
 	/**
-	 * Configura el proveedor de autenticación.
+	 * Configura el proveedor de autenticación. Los usuarios ya autenticados se leen
+	 * de la caché en lugar de la base de datos.
 	 */
 	@Bean
 	public DaoAuthenticationProvider authenticationProvider() {
 		DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 		authProvider.setUserDetailsService(userDetailsService);
 		authProvider.setPasswordEncoder(passwordEncoder());
+		authProvider.setUserCache(cacheAutenticacion);
 		return authProvider;
 	}
 
@@ -55,13 +63,36 @@ public class SecurityConfig {
 	}
 
 	/**
-	 * Configura la cadena de filtros de seguridad para endpoints REST. Usa HTTP
-	 * Basic Authentication para los endpoints /api/**
+	 * Configura la cadena de filtros de seguridad para los endpoints de Actuator. El
+	 * estado de salud es público; las métricas (/actuator/prometheus) requieren HTTP
+	 * Basic, que los servidores Prometheus admiten en la configuración de scraping.
+	 */
+	@Bean
+	public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+		http.securityMatcher(EndpointRequest.toAnyEndpoint()).authenticationProvider(authenticationProvider())
+				.authorizeHttpRequests(authorize -> authorize.requestMatchers(EndpointRequest.to(HealthEndpoint.class))
+						.permitAll().anyRequest().authenticated())
+				.httpBasic(httpBasic -> {
+				})
+				.sessionManagement(session -> session.sessionCreationPolicy(
+						org.springframework.security.config.http.SessionCreationPolicy.STATELESS))
+				.csrf(csrf -> csrf.disable());
+
+		return http.build();
+	}
+
+	/**
+	 * Configura la cadena de filtros de seguridad para endpoints REST. Los endpoints
+	 * /api/** aceptan un token JWT (Authorization: Bearer) emitido por
+	 * /api/public/auth/token, que se verifica sin acceder a la base de datos. HTTP
+	 * Basic se mantiene por compatibilidad, pero verifica BCrypt en cada petición.
 	 */
 	@Bean
 	public SecurityFilterChain apiFilterChain(HttpSecurity http) throws Exception {
 		http.securityMatcher("/api/**").authenticationProvider(authenticationProvider()).authorizeHttpRequests(
 				authorize -> authorize.requestMatchers("/api/public/**").permitAll().anyRequest().authenticated())
+				.oauth2ResourceServer(oauth2 -> oauth2
+						.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter)))
 				.httpBasic(httpBasic -> {
 				})
 				.sessionManagement(session -> session.sessionCreationPolicy(
@@ -0,0 +1,42 @@
+package com.neita.sistemacitas.config.consultas;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+/**
+ * Añade a las respuestas de la API el número de sentencias SQL (X-Query-Count) y el tiempo de JDBC
+ * en milisegundos (X-Query-Time) de la petición hasta ese momento. Las cabeceras se escriben justo
+ * antes del cuerpo, cuando el controlador ya ha terminado. No se activa en el perfil prod.
+ */
+@RestControllerAdvice
+@Profile("!prod")
+public class CabecerasConsultasAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String CABECERA_CONSULTAS = "X-Query-Count";
+    private static final String CABECERA_TIEMPO = "X-Query-Time";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        ContadorConsultas contador = ContadorConsultas.actual();
+        if (contador != null) {
+            response.getHeaders().set(CABECERA_CONSULTAS, Integer.toString(contador.getConsultas()));
+            response.getHeaders().set(CABECERA_TIEMPO, String.format(Locale.ROOT, "%.3f", contador.getMilisegundos()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,48 @@
+package com.neita.sistemacitas.config.consultas;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Lleva el contador de consultas de la petición al hilo que ejecuta las respuestas asíncronas
+ * (StreamingResponseBody de las exportaciones NDJSON), de modo que las sentencias con las que se
+ * escribe el cuerpo cuentan en el presupuesto del endpoint. Los hilos escritores de la agenda en
+ * vivo (SSE) no ejecutan SQL: la agenda inicial se lee en el hilo de la petición.
+ */
+@Configuration
+public class ConsultasAsincronasConfig implements WebMvcConfigurer {
+
+    private static final String ATRIBUTO_CONTADOR = ContadorConsultas.class.getName();
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                ContadorConsultas contador = ContadorConsultas.actual();
+                if (contador != null) {
+                    request.setAttribute(ATRIBUTO_CONTADOR, contador, RequestAttributes.SCOPE_REQUEST);
+                }
+            }
+
+            @Override
+            public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+                Object contador = request.getAttribute(ATRIBUTO_CONTADOR, RequestAttributes.SCOPE_REQUEST);
+                if (contador != null) {
+                    ContadorConsultas.asociar((ContadorConsultas) contador);
+                }
+            }
+
+            @Override
+            public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object resultado) {
+                ContadorConsultas.finalizar();
+            }
+        });
+    }
+}
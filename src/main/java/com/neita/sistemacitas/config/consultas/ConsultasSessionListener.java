@@ -0,0 +1,33 @@
+package com.neita.sistemacitas.config.consultas;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Mide cada sentencia y cada lote JDBC que ejecuta una sesión de Hibernate y lo suma al
+ * contador de la petición en curso. Hibernate crea una instancia por sesión
+ * (hibernate.session.events.auto), por lo que no se comparte entre hilos.
+ */
+public class ConsultasSessionListener implements SessionEventListener {
+
+    private transient long inicio;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicio = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        ContadorConsultas.registrar(System.nanoTime() - inicio);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicio = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        ContadorConsultas.registrar(System.nanoTime() - inicio);
+    }
+}
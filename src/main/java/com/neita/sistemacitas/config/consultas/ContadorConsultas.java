@@ -0,0 +1,60 @@
+package com.neita.sistemacitas.config.consultas;
+
+/**
+ * Sentencias SQL ejecutadas y tiempo de JDBC acumulado durante la petición HTTP en curso.
+ * PresupuestoConsultasFilter lo abre y lo cierra en el hilo de la petición, y
+ * ConsultasSessionListener suma cada sentencia que Hibernate ejecuta en ese mismo hilo.
+ * En las respuestas asíncronas ConsultasAsincronasConfig lo asocia también al hilo que escribe
+ * el cuerpo; los dos hilos nunca lo usan a la vez.
+ */
+final class ContadorConsultas {
+
+    private static final ThreadLocal<ContadorConsultas> ACTUAL = new ThreadLocal<>();
+
+    private int consultas;
+    private long nanos;
+
+    private ContadorConsultas() {
+    }
+
+    static ContadorConsultas iniciar() {
+        ContadorConsultas contador = new ContadorConsultas();
+        ACTUAL.set(contador);
+        return contador;
+    }
+
+    /**
+     * Asocia al hilo actual el contador de una petición iniciada en otro hilo.
+     */
+    static void asociar(ContadorConsultas contador) {
+        ACTUAL.set(contador);
+    }
+
+    static void finalizar() {
+        ACTUAL.remove();
+    }
+
+    /**
+     * Obtiene el contador de la petición en curso, o null fuera de una petición HTTP
+     * (tareas programadas, eventos asíncronos, arranque).
+     */
+    static ContadorConsultas actual() {
+        return ACTUAL.get();
+    }
+
+    static void registrar(long duracionNanos) {
+        ContadorConsultas contador = ACTUAL.get();
+        if (contador != null) {
+            contador.consultas++;
+            contador.nanos += duracionNanos;
+        }
+    }
+
+    int getConsultas() {
+        return consultas;
+    }
+
+    double getMilisegundos() {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,110 @@
+package com.neita.sistemacitas.config.consultas;
+
+import com.neita.sistemacitas.exception.PresupuestoConsultasExcedidoException;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cuenta las sentencias SQL y el tiempo de JDBC de cada petición HTTP, incluida la autenticación,
+ * y avisa cuando un endpoint supera su presupuesto de consultas (normalmente por un acceso N+1).
+ * En modo estricto (app.consultas.estricto=true, pensado para las pruebas de integración) la
+ * petición que supera el presupuesto termina con PresupuestoConsultasExcedidoException.
+ * En las respuestas asíncronas (NDJSON) el presupuesto se comprueba cuando termina la respuesta,
+ * incluyendo las sentencias del cuerpo; como el cuerpo ya se ha enviado, solo se registra el aviso.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class PresupuestoConsultasFilter extends OncePerRequestFilter {
+
+    private final int presupuestoPorDefecto;
+    private final boolean estricto;
+    private final Map<String, Integer> presupuestos = new HashMap<>();
+
+    /**
+     * @param presupuestos presupuestos por endpoint con el formato "MÉTODO /patrón=máximo",
+     *                     por ejemplo "GET /api/citas/{id}=3"
+     */
+    public PresupuestoConsultasFilter(
+            @Value("${app.consultas.presupuesto-por-defecto:20}") int presupuestoPorDefecto,
+            @Value("${app.consultas.estricto:false}") boolean estricto,
+            @Value("${app.consultas.presupuestos:}") List<String> presupuestos) {
+        this.presupuestoPorDefecto = presupuestoPorDefecto;
+        this.estricto = estricto;
+        for (String presupuesto : presupuestos) {
+            int separador = presupuesto.lastIndexOf('=');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Presupuesto de consultas sin máximo: " + presupuesto);
+            }
+            this.presupuestos.put(presupuesto.substring(0, separador).trim(),
+                    Integer.parseInt(presupuesto.substring(separador + 1).trim()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContadorConsultas contador = ContadorConsultas.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContadorConsultas.finalizar();
+        }
+        if (isAsyncStarted(request)) {
+            // El cuerpo se escribe después en otro hilo (ConsultasAsincronasConfig) y sigue contando
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    comprobarPresupuesto(request, contador, false);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+            return;
+        }
+        comprobarPresupuesto(request, contador, estricto);
+    }
+
+    private void comprobarPresupuesto(HttpServletRequest request, ContadorConsultas contador, boolean fallar) {
+        // Patrón del endpoint (/api/citas/{id}) para que todas las peticiones a él compartan presupuesto
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (patron != null ? patron : request.getRequestURI());
+        int presupuesto = presupuestos.getOrDefault(endpoint, presupuestoPorDefecto);
+        if (contador.getConsultas() <= presupuesto) {
+            return;
+        }
+        String mensaje = String.format(Locale.ROOT, "%s ejecutó %d consultas SQL en %.1f ms (presupuesto: %d)",
+                endpoint, contador.getConsultas(), contador.getMilisegundos(), presupuesto);
+        if (fallar) {
+            throw new PresupuestoConsultasExcedidoException(mensaje);
+        }
+        log.warn("Presupuesto de consultas excedido: {}", mensaje);
+    }
+}
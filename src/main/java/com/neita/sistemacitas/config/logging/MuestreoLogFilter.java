@@ -0,0 +1,63 @@
+package com.neita.sistemacitas.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Filtro de Logback que conserva solo un porcentaje de los eventos de un logger (y sus descendientes)
+ * hasta un nivel dado. Se usa en el perfil prod para los logs por petición de los controladores:
+ * bajo carga basta una muestra para seguir el tráfico. Los eventos de nivel superior
+ * (por defecto WARN y ERROR) y los de otros loggers pasan siempre.
+ * <p>
+ * Configuración en logback-spring.xml: logger (nombre del logger o paquete), porcentaje (0-100)
+ * y nivelMaximo (INFO por defecto).
+ */
+public class MuestreoLogFilter extends Filter<ILoggingEvent> {
+
+    private String logger;
+    private int porcentaje = 100;
+    private Level nivelMaximo = Level.INFO;
+
+    @Override
+    public void start() {
+        if (logger == null || logger.isBlank()) {
+            addError("Falta el logger a muestrear en el filtro " + getName());
+            return;
+        }
+        if (porcentaje < 0 || porcentaje > 100) {
+            addError("El porcentaje de muestreo debe estar entre 0 y 100: " + porcentaje);
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent evento) {
+        if (!isStarted() || evento.getLevel().toInt() > nivelMaximo.toInt()
+                || !perteneceAlLogger(evento.getLoggerName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(100) < porcentaje ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean perteneceAlLogger(String nombre) {
+        return nombre.startsWith(logger)
+                && (nombre.length() == logger.length() || nombre.charAt(logger.length()) == '.');
+    }
+
+    public void setLogger(String logger) {
+        this.logger = logger;
+    }
+
+    public void setPorcentaje(int porcentaje) {
+        this.porcentaje = porcentaje;
+    }
+
+    public void setNivelMaximo(String nivelMaximo) {
+        this.nivelMaximo = Level.toLevel(nivelMaximo, Level.INFO);
+    }
+}
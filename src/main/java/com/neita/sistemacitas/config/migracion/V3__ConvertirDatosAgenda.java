@@ -0,0 +1,109 @@
+package com.neita.sistemacitas.config.migracion;
+
+import com.neita.sistemacitas.entity.Cita;
+import com.neita.sistemacitas.entity.FranjaReservada;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Migración de datos de la versión 3: completa las columnas creadas en V2 para los datos existentes.
+ * Convierte la duración en texto de los servicios a minutos, calcula el fin de las citas y reserva
+ * las franjas de las citas futuras no canceladas. Es una migración Java porque la duración
+ * en texto libre no se puede interpretar de forma fiable en SQL.
+ * Se ejecuta en MySQL y en H2 (perfil perf), por lo que solo usa SQL que ambos aceptan.
+ */
+@Component
+@Slf4j
+public class V3__ConvertirDatosAgenda extends BaseJavaMigration {
+
+    // Reconoce cantidades como "30 minutos", "1 hora", "1h 15min" o "45"
+    private static final Pattern PATRON_DURACION = Pattern.compile("(\\d+)\\s*(h|hr|hrs|hora|horas|m|min|mins|minuto|minutos)?");
+    private static final int DURACION_POR_DEFECTO_MINUTOS = 30;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        boolean secuenciasNativas = "H2".equals(context.getConnection().getMetaData().getDatabaseProductName());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        List<Object[]> duraciones = jdbcTemplate.query(
+                "SELECT id, duracion FROM servicio",
+                (rs, fila) -> new Object[]{parsearDuracion(rs.getString("duracion")), rs.getLong("id")});
+        jdbcTemplate.batchUpdate("UPDATE servicio SET duracion_minutos = ? WHERE id = ?", duraciones);
+
+        int citas = jdbcTemplate.update(
+                "UPDATE cita c SET fecha_hora_fin = TIMESTAMPADD(MINUTE, " +
+                "(SELECT s.duracion_minutos FROM servicio s WHERE s.id = c.servicio_id), c.fecha_hora) " +
+                "WHERE c.fecha_hora_fin IS NULL");
+
+        int franjas = reservarFranjasFuturas(jdbcTemplate);
+        long siguienteId = franjas + Cita.IDS_POR_BLOQUE + 1;
+        if (secuenciasNativas) {
+            jdbcTemplate.execute("ALTER SEQUENCE franja_reservada_seq RESTART WITH " + siguienteId);
+        } else {
+            jdbcTemplate.update("INSERT INTO franja_reservada_seq (next_val) VALUES (?)", siguienteId);
+        }
+
+        log.info("Migrados {} servicios, {} citas y {} franjas reservadas", duraciones.size(), citas, franjas);
+    }
+
+    /**
+     * Reserva las franjas de las citas futuras que ocupan la agenda. Si dos citas existentes ya se
+     * solapaban, la segunda conserva la cita pero no duplica la franja (INSERT IGNORE).
+     * @return el número de IDs de franja asignados
+     */
+    private int reservarFranjasFuturas(JdbcTemplate jdbcTemplate) {
+        List<Object[]> franjas = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT id, profesional_id, fecha_hora, fecha_hora_fin FROM cita " +
+                "WHERE fecha_hora_fin > NOW() AND estado <> 'CANCELADA'",
+                rs -> {
+                    LocalDateTime fin = rs.getObject("fecha_hora_fin", LocalDateTime.class);
+                    for (LocalDateTime franja = inicioDeFranja(rs.getObject("fecha_hora", LocalDateTime.class));
+                         franja.isBefore(fin);
+                         franja = franja.plusMinutes(FranjaReservada.MINUTOS_POR_FRANJA)) {
+                        franjas.add(new Object[]{
+                                (long) franjas.size() + 1, rs.getLong("profesional_id"), franja, rs.getLong("id")});
+                    }
+                });
+        jdbcTemplate.batchUpdate(
+                "INSERT IGNORE INTO franja_reservada (id, profesional_id, inicio, cita_id) VALUES (?, ?, ?, ?)",
+                franjas);
+        return franjas.size();
+    }
+
+    private static LocalDateTime inicioDeFranja(LocalDateTime fechaHora) {
+        LocalDateTime truncada = fechaHora.truncatedTo(ChronoUnit.MINUTES);
+        return truncada.minusMinutes(truncada.getMinute() % FranjaReservada.MINUTOS_POR_FRANJA);
+    }
+
+    /**
+     * Interpreta una duración escrita como texto libre y la expresa en minutos.
+     * Si el texto no contiene ninguna cantidad reconocible se asume la duración por defecto.
+     */
+    static int parsearDuracion(String duracion) {
+        if (duracion == null) {
+            return DURACION_POR_DEFECTO_MINUTOS;
+        }
+        Matcher matcher = PATRON_DURACION.matcher(duracion.toLowerCase(Locale.ROOT));
+        int minutos = 0;
+        while (matcher.find()) {
+            int valor = Integer.parseInt(matcher.group(1));
+            String unidad = matcher.group(2);
+            minutos += unidad != null && unidad.startsWith("h") ? valor * 60 : valor;
+        }
+        return minutos > 0 ? minutos : DURACION_POR_DEFECTO_MINUTOS;
+    }
+}
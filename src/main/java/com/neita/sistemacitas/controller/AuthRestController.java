@@ -0,0 +1,70 @@
+package com.neita.sistemacitas.controller;
+
+import com.neita.sistemacitas.dto.ApiResponse;
+import com.neita.sistemacitas.dto.CredencialesDTO;
+import com.neita.sistemacitas.dto.RefrescoTokenDTO;
+import com.neita.sistemacitas.dto.TokenDTO;
+import com.neita.sistemacitas.service.TokenService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para obtener, refrescar y revocar los tokens de acceso a la API.
+ * Las credenciales se verifican (BCrypt) solo al pedir el token; el resto de peticiones
+ * envían el token en la cabecera Authorization: Bearer.
+ */
+@RestController
+@RequestMapping("/api/public/auth")
+@RequiredArgsConstructor
+@Slf4j
+public class AuthRestController {
+
+    private final AuthenticationManager authenticationManager;
+    private final TokenService tokenService;
+
+    /**
+     * Intercambia email y contraseña por un par de tokens.
+     */
+    @PostMapping("/token")
+    public ResponseEntity<ApiResponse<TokenDTO>> obtenerToken(@Valid @RequestBody CredencialesDTO credenciales) {
+        log.info("POST /api/public/auth/token - Solicitud de token para {}", credenciales.getEmail());
+        Authentication autenticacion = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(credenciales.getEmail(), credenciales.getPassword()));
+        TokenDTO token = tokenService.emitir((UserDetails) autenticacion.getPrincipal());
+        return ResponseEntity.ok(ApiResponse.success("Token emitido exitosamente", token));
+    }
+
+    /**
+     * Cambia un token de refresco por un nuevo par de tokens.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<TokenDTO>> refrescarToken(@Valid @RequestBody RefrescoTokenDTO refresco) {
+        log.info("POST /api/public/auth/refresh - Refrescando token");
+        TokenDTO token = tokenService.refrescar(refresco.getRefreshToken());
+        return ResponseEntity.ok(ApiResponse.success("Token refrescado exitosamente", token));
+    }
+
+    /**
+     * Revoca un token de refresco y, si la petición lleva token de acceso, también ese token.
+     */
+    @PostMapping("/revocar")
+    public ResponseEntity<ApiResponse<Void>> revocarToken(
+            @Valid @RequestBody RefrescoTokenDTO refresco,
+            @AuthenticationPrincipal Jwt acceso) {
+        log.info("POST /api/public/auth/revocar - Revocando tokens");
+        tokenService.revocar(refresco.getRefreshToken(), acceso);
+        return ResponseEntity.ok(ApiResponse.success("Tokens revocados exitosamente"));
+    }
+}
@@ -1,6 +1,7 @@
 package com.neita.sistemacitas.controller;
 
 import com.neita.sistemacitas.dto.CitaDTO;
+import com.neita.sistemacitas.entity.EstadoCita;
 import com.neita.sistemacitas.service.CitaService;
 import com.neita.sistemacitas.service.ProfesionalService;
 import com.neita.sistemacitas.service.ServicioService;
@@ -147,7 +148,7 @@ public class CitaController {
      */
     @PostMapping("/cambiar-estado/{id}")
     public String cambiarEstado(@PathVariable Long id,
-                                @RequestParam String estado,
+                                @RequestParam EstadoCita estado,
                                 RedirectAttributes redirectAttributes) {
         log.info("Cambiando estado de cita ID: {} a {}", id, estado);
         try {
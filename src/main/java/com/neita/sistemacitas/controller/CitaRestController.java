@@ -1,16 +1,25 @@
 package com.neita.sistemacitas.controller;
 
 import com.neita.sistemacitas.dto.ApiResponse;
+import com.neita.sistemacitas.dto.CambioEstadoLoteDTO;
 import com.neita.sistemacitas.dto.CitaDTO;
+import com.neita.sistemacitas.dto.PaginaCursor;
+import com.neita.sistemacitas.dto.ResultadoLoteDTO;
+import com.neita.sistemacitas.entity.EstadoCita;
+import com.neita.sistemacitas.service.AgendaEnVivoService;
 import com.neita.sistemacitas.service.CitaService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -24,16 +33,32 @@ import java.util.List;
 @Slf4j
 public class CitaRestController {
 
+    private static final String LIMITE_POR_DEFECTO = "50";
+
     private final CitaService citaService;
+    private final EscritorNdjson escritorNdjson;
+    private final AgendaEnVivoService agendaEnVivoService;
 
     /**
-     * Obtiene todas las citas.
+     * Obtiene una página de citas ordenadas por fecha.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CitaDTO>>> obtenerTodas() {
-        log.info("GET /api/citas - Obteniendo todas las citas");
-        List<CitaDTO> citas = citaService.obtenerTodas();
-        return ResponseEntity.ok(ApiResponse.success("Citas obtenidas exitosamente", citas));
+    public ResponseEntity<ApiResponse<List<CitaDTO>>> obtenerTodas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = LIMITE_POR_DEFECTO) int limit) {
+        log.info("GET /api/citas - Obteniendo página de citas (limit={})", limit);
+        PaginaCursor<CitaDTO> pagina = citaService.obtenerPaginaTodas(cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success("Citas obtenidas exitosamente",
+                pagina.getElementos(), pagina.getSiguiente()));
+    }
+
+    /**
+     * Transmite todas las citas ordenadas por fecha, una por línea (Accept: application/x-ndjson).
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> transmitirTodas() {
+        log.info("GET /api/citas - Transmitiendo todas las citas en NDJSON");
+        return escritorNdjson.respuesta(citaService::recorrerTodas);
     }
 
     /**
@@ -66,6 +91,19 @@ public class CitaRestController {
         return ResponseEntity.ok(ApiResponse.success("Citas del profesional obtenidas exitosamente", citas));
     }
 
+    /**
+     * Transmite por Server-Sent Events la agenda de un profesional para un día (por defecto, hoy):
+     * un evento "agenda" con las citas del día y después un evento "cita" por cada cambio.
+     */
+    @GetMapping(value = "/profesional/{profesionalId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter transmitirAgenda(
+            @PathVariable Long profesionalId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        LocalDate dia = fecha != null ? fecha : LocalDate.now();
+        log.info("GET /api/citas/profesional/{}/stream - Suscribiendo a la agenda del {}", profesionalId, dia);
+        return agendaEnVivoService.suscribir(profesionalId, dia);
+    }
+
     /**
      * Obtiene todas las citas de un servicio.
      */
@@ -77,45 +115,58 @@ public class CitaRestController {
     }
 
     /**
-     * Obtiene citas por estado.
+     * Obtiene una página de citas por estado.
      */
     @GetMapping("/estado/{estado}")
-    public ResponseEntity<ApiResponse<List<CitaDTO>>> obtenerPorEstado(@PathVariable String estado) {
+    public ResponseEntity<ApiResponse<List<CitaDTO>>> obtenerPorEstado(
+            @PathVariable EstadoCita estado,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = LIMITE_POR_DEFECTO) int limit) {
         log.info("GET /api/citas/estado/{} - Obteniendo citas por estado", estado);
-        List<CitaDTO> citas = citaService.obtenerPorEstado(estado);
-        return ResponseEntity.ok(ApiResponse.success("Citas obtenidas exitosamente", citas));
+        PaginaCursor<CitaDTO> pagina = citaService.obtenerPaginaPorEstado(estado, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success("Citas obtenidas exitosamente",
+                pagina.getElementos(), pagina.getSiguiente()));
     }
 
     /**
-     * Obtiene las próximas citas (futuras).
+     * Obtiene una página de las próximas citas (futuras).
      */
     @GetMapping("/proximas")
-    public ResponseEntity<ApiResponse<List<CitaDTO>>> obtenerProximas() {
+    public ResponseEntity<ApiResponse<List<CitaDTO>>> obtenerProximas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = LIMITE_POR_DEFECTO) int limit) {
         log.info("GET /api/citas/proximas - Obteniendo próximas citas");
-        List<CitaDTO> citas = citaService.obtenerProximas();
-        return ResponseEntity.ok(ApiResponse.success("Próximas citas obtenidas exitosamente", citas));
+        PaginaCursor<CitaDTO> pagina = citaService.obtenerPaginaProximas(cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success("Próximas citas obtenidas exitosamente",
+                pagina.getElementos(), pagina.getSiguiente()));
     }
 
     /**
-     * Obtiene citas pasadas.
+     * Obtiene una página de citas pasadas, de la más reciente a la más antigua.
      */
     @GetMapping("/pasadas")
-    public ResponseEntity<ApiResponse<List<CitaDTO>>> obtenerPasadas() {
+    public ResponseEntity<ApiResponse<List<CitaDTO>>> obtenerPasadas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = LIMITE_POR_DEFECTO) int limit) {
         log.info("GET /api/citas/pasadas - Obteniendo citas pasadas");
-        List<CitaDTO> citas = citaService.obtenerPasadas();
-        return ResponseEntity.ok(ApiResponse.success("Citas pasadas obtenidas exitosamente", citas));
+        PaginaCursor<CitaDTO> pagina = citaService.obtenerPaginaPasadas(cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success("Citas pasadas obtenidas exitosamente",
+                pagina.getElementos(), pagina.getSiguiente()));
     }
 
     /**
-     * Obtiene citas en un rango de fechas.
+     * Obtiene una página de citas en un rango de fechas.
      */
     @GetMapping("/rango")
     public ResponseEntity<ApiResponse<List<CitaDTO>>> obtenerPorRangoFechas(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = LIMITE_POR_DEFECTO) int limit) {
         log.info("GET /api/citas/rango - Obteniendo citas entre {} y {}", inicio, fin);
-        List<CitaDTO> citas = citaService.obtenerPorRangoFechas(inicio, fin);
-        return ResponseEntity.ok(ApiResponse.success("Citas obtenidas exitosamente", citas));
+        PaginaCursor<CitaDTO> pagina = citaService.obtenerPaginaPorRangoFechas(inicio, fin, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success("Citas obtenidas exitosamente",
+                pagina.getElementos(), pagina.getSiguiente()));
     }
 
     /**
@@ -129,6 +180,22 @@ public class CitaRestController {
                 .body(ApiResponse.success("Cita creada exitosamente", nuevaCita));
     }
 
+    /**
+     * Crea un lote de citas. Cada elemento se valida por separado; la respuesta indica
+     * el resultado de cada uno (201 si todas se crearon, 207 si alguna falló).
+     * Una cita cuyo horario reserva otra petición mientras se procesa el lote se marca como fallida;
+     * solo si el reintento del lote vuelve a chocar se responde 409 sin crear ninguna cita.
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<ApiResponse<List<ResultadoLoteDTO>>> crearLote(@RequestBody List<CitaDTO> citasDTO) {
+        log.info("POST /api/citas/lote - Creando lote de {} citas", citasDTO.size());
+        List<ResultadoLoteDTO> resultados = citaService.crearLote(citasDTO);
+        long creadas = resultados.stream().filter(ResultadoLoteDTO::isCreada).count();
+        HttpStatus estado = creadas == resultados.size() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(estado).body(ApiResponse.success(
+                String.format("Lote procesado: %d de %d citas creadas", creadas, resultados.size()), resultados));
+    }
+
     /**
      * Actualiza una cita existente.
      */
@@ -147,12 +214,25 @@ public class CitaRestController {
     @PatchMapping("/{id}/estado")
     public ResponseEntity<ApiResponse<CitaDTO>> cambiarEstado(
             @PathVariable Long id,
-            @RequestParam String estado) {
+            @RequestParam EstadoCita estado) {
         log.info("PATCH /api/citas/{}/estado - Cambiando estado a {}", id, estado);
         CitaDTO citaActualizada = citaService.cambiarEstado(id, estado);
         return ResponseEntity.ok(ApiResponse.success("Estado de cita actualizado exitosamente", citaActualizada));
     }
 
+    /**
+     * Cambia el estado de varias citas en una sola operación, por ejemplo completar las citas de un día.
+     * Las citas cuyo estado actual no admite la transición se omiten.
+     */
+    @PatchMapping("/estado")
+    public ResponseEntity<ApiResponse<Integer>> cambiarEstadoLote(@Valid @RequestBody CambioEstadoLoteDTO cambio) {
+        log.info("PATCH /api/citas/estado - Cambiando {} citas a {}", cambio.getIds().size(), cambio.getEstado());
+        int actualizadas = citaService.cambiarEstadoLote(cambio.getIds(), cambio.getEstado());
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("Estado actualizado en %d de %d citas", actualizadas, cambio.getIds().size()),
+                actualizadas));
+    }
+
     /**
      * Elimina una cita.
      */
@@ -0,0 +1,41 @@
+package com.neita.sistemacitas.controller;
+
+import com.neita.sistemacitas.dto.ApiResponse;
+import com.neita.sistemacitas.dto.DisponibilidadDTO;
+import com.neita.sistemacitas.service.DisponibilidadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controlador REST para consultar la disponibilidad de los profesionales.
+ */
+@RestController
+@RequestMapping("/api/disponibilidad")
+@RequiredArgsConstructor
+@Slf4j
+public class DisponibilidadRestController {
+
+    private final DisponibilidadService disponibilidadService;
+
+    /**
+     * Obtiene las horas libres de los profesionales activos para un servicio en un rango de días.
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<DisponibilidadDTO>>> buscar(
+            @RequestParam Long servicioId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        log.info("GET /api/disponibilidad - Servicio {} entre {} y {}", servicioId, desde, hasta);
+        List<DisponibilidadDTO> disponibilidad = disponibilidadService.buscar(servicioId, desde, hasta);
+        return ResponseEntity.ok(ApiResponse.success("Disponibilidad obtenida exitosamente", disponibilidad));
+    }
+}
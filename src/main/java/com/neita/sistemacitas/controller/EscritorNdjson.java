@@ -0,0 +1,55 @@
+package com.neita.sistemacitas.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Construye respuestas en formato NDJSON (un objeto JSON por línea).
+ * Cada elemento se serializa en cuanto la fuente lo entrega, de modo que la memoria usada
+ * no depende del número de filas devueltas.
+ */
+@Component
+@RequiredArgsConstructor
+public class EscritorNdjson {
+
+    private static final int ELEMENTOS_POR_FLUSH = 100;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Crea una respuesta que escribe los elementos que la fuente entregue al consumidor recibido.
+     * @param fuente método que recorre los elementos, normalmente un método de servicio transaccional
+     */
+    public <T> ResponseEntity<StreamingResponseBody> respuesta(Consumer<Consumer<T>> fuente) {
+        StreamingResponseBody cuerpo = salida -> {
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+                generador.setRootValueSeparator(null);
+                int[] escritos = {0};
+                fuente.accept(elemento -> {
+                    try {
+                        writer.writeValue(generador, elemento);
+                        generador.writeRaw('\n');
+                        if (++escritos[0] % ELEMENTOS_POR_FLUSH == 0) {
+                            generador.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(cuerpo);
+    }
+}
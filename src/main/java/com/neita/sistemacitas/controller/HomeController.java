@@ -1,9 +1,6 @@
 package com.neita.sistemacitas.controller;
 
-import com.neita.sistemacitas.repository.CitaRepository;
-import com.neita.sistemacitas.repository.ProfesionalRepository;
-import com.neita.sistemacitas.repository.ServicioRepository;
-import com.neita.sistemacitas.repository.UsuarioRepository;
+import com.neita.sistemacitas.service.EstadisticasService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
@@ -18,10 +15,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 @Slf4j
 public class HomeController {
 
-    private final CitaRepository citaRepository;
-    private final ServicioRepository servicioRepository;
-    private final ProfesionalRepository profesionalRepository;
-    private final UsuarioRepository usuarioRepository;
+    private final EstadisticasService estadisticasService;
 
     /**
      * Página de inicio con estadísticas generales.
@@ -32,10 +26,10 @@ public class HomeController {
         
         model.addAttribute("title", "Inicio");
         model.addAttribute("activeMenu", "home");
-        model.addAttribute("totalCitas", citaRepository.count());
-        model.addAttribute("totalServicios", servicioRepository.countServiciosActivos());
-        model.addAttribute("totalProfesionales", profesionalRepository.countProfesionalesActivos());
-        model.addAttribute("totalUsuarios", usuarioRepository.countUsuariosActivos());
+        model.addAttribute("totalCitas", estadisticasService.getTotalCitas());
+        model.addAttribute("totalServicios", estadisticasService.getServiciosActivos());
+        model.addAttribute("totalProfesionales", estadisticasService.getProfesionalesActivos());
+        model.addAttribute("totalUsuarios", estadisticasService.getUsuariosActivos());
         
         return "index";
     }
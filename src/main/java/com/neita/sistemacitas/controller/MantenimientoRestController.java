@@ -0,0 +1,85 @@
+package com.neita.sistemacitas.controller;
+
+import com.neita.sistemacitas.dto.ApiResponse;
+import com.neita.sistemacitas.dto.EstadisticasCacheDTO;
+import com.neita.sistemacitas.dto.EstadoExpiracionDTO;
+import com.neita.sistemacitas.dto.EstadoHilosVirtualesDTO;
+import com.neita.sistemacitas.service.AgendaEnVivoService;
+import com.neita.sistemacitas.service.EstadisticasCacheService;
+import com.neita.sistemacitas.service.ExpiracionCitaTarea;
+import com.neita.sistemacitas.service.MonitorHilosVirtualesService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST con información de las tareas de mantenimiento.
+ */
+@RestController
+@RequestMapping("/api/mantenimiento")
+@RequiredArgsConstructor
+@Slf4j
+public class MantenimientoRestController {
+
+    private final ExpiracionCitaTarea expiracionCitaTarea;
+    private final AgendaEnVivoService agendaEnVivoService;
+    private final EstadisticasCacheService estadisticasCacheService;
+    private final MonitorHilosVirtualesService monitorHilosVirtualesService;
+
+    /**
+     * Obtiene el progreso y los tiempos de la tarea de expiración de citas.
+     */
+    @GetMapping("/expiracion")
+    public ResponseEntity<ApiResponse<EstadoExpiracionDTO>> obtenerEstadoExpiracion() {
+        log.info("GET /api/mantenimiento/expiracion - Obteniendo estado de la expiración de citas");
+        return ResponseEntity.ok(ApiResponse.success("Estado de la expiración obtenido exitosamente",
+                expiracionCitaTarea.obtenerEstado()));
+    }
+
+    /**
+     * Obtiene el número de suscripciones abiertas a la agenda en vivo y de suscriptores expulsados por lentos.
+     */
+    @GetMapping("/agenda-en-vivo")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> obtenerEstadoAgendaEnVivo() {
+        log.info("GET /api/mantenimiento/agenda-en-vivo - Obteniendo estado de las suscripciones");
+        return ResponseEntity.ok(ApiResponse.success("Estado de la agenda en vivo obtenido exitosamente", Map.of(
+                "suscriptores", (long) agendaEnVivoService.contarSuscriptores(),
+                "expulsados", agendaEnVivoService.contarExpulsados())));
+    }
+
+    /**
+     * Obtiene los aciertos, fallos y desalojos de las cachés de catálogo.
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<ApiResponse<List<EstadisticasCacheDTO>>> obtenerEstadisticasCache() {
+        log.info("GET /api/mantenimiento/cache - Obteniendo estadísticas de las cachés");
+        return ResponseEntity.ok(ApiResponse.success("Estadísticas de las cachés obtenidas exitosamente",
+                estadisticasCacheService.obtenerCatalogo()));
+    }
+
+    /**
+     * Obtiene los aciertos, fallos y escrituras de las regiones de la caché de segundo nivel de Hibernate.
+     */
+    @GetMapping("/cache-segundo-nivel")
+    public ResponseEntity<ApiResponse<List<EstadisticasCacheDTO>>> obtenerEstadisticasSegundoNivel() {
+        log.info("GET /api/mantenimiento/cache-segundo-nivel - Obteniendo estadísticas de la caché de segundo nivel");
+        return ResponseEntity.ok(ApiResponse.success("Estadísticas de la caché de segundo nivel obtenidas exitosamente",
+                estadisticasCacheService.obtenerSegundoNivel()));
+    }
+
+    /**
+     * Indica si las peticiones se atienden con hilos virtuales y los últimos hilos fijados a su portador.
+     */
+    @GetMapping("/hilos-virtuales")
+    public ResponseEntity<ApiResponse<EstadoHilosVirtualesDTO>> obtenerEstadoHilosVirtuales() {
+        log.info("GET /api/mantenimiento/hilos-virtuales - Obteniendo estado de los hilos virtuales");
+        return ResponseEntity.ok(ApiResponse.success("Estado de los hilos virtuales obtenido exitosamente",
+                monitorHilosVirtualesService.obtenerEstado()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.neita.sistemacitas.controller;
+
+import com.neita.sistemacitas.dto.ApiResponse;
+import com.neita.sistemacitas.dto.ReporteDTO;
+import com.neita.sistemacitas.service.ResumenDiarioService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controlador REST con los reportes de citas e ingresos.
+ * Todos los reportes se calculan sobre los resúmenes diarios, no sobre la tabla cita.
+ */
+@RestController
+@RequestMapping("/api/reportes")
+@RequiredArgsConstructor
+@Slf4j
+public class ReporteRestController {
+
+    private final ResumenDiarioService resumenDiarioService;
+
+    /**
+     * Obtiene los totales por día, opcionalmente de un profesional o de un servicio.
+     */
+    @GetMapping("/diario")
+    public ResponseEntity<ApiResponse<List<ReporteDTO>>> obtenerPorDia(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) Long profesionalId,
+            @RequestParam(required = false) Long servicioId) {
+        log.info("GET /api/reportes/diario - Entre {} y {}", desde, hasta);
+        List<ReporteDTO> reporte = resumenDiarioService.obtenerPorDia(desde, hasta, profesionalId, servicioId);
+        return ResponseEntity.ok(ApiResponse.success("Reporte diario obtenido exitosamente", reporte));
+    }
+
+    /**
+     * Obtiene los totales por mes, opcionalmente de un profesional o de un servicio.
+     */
+    @GetMapping("/mensual")
+    public ResponseEntity<ApiResponse<List<ReporteDTO>>> obtenerPorMes(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) Long profesionalId,
+            @RequestParam(required = false) Long servicioId) {
+        log.info("GET /api/reportes/mensual - Entre {} y {}", desde, hasta);
+        List<ReporteDTO> reporte = resumenDiarioService.obtenerPorMes(desde, hasta, profesionalId, servicioId);
+        return ResponseEntity.ok(ApiResponse.success("Reporte mensual obtenido exitosamente", reporte));
+    }
+
+    /**
+     * Obtiene los totales de cada profesional.
+     */
+    @GetMapping("/profesionales")
+    public ResponseEntity<ApiResponse<List<ReporteDTO>>> obtenerPorProfesional(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        log.info("GET /api/reportes/profesionales - Entre {} y {}", desde, hasta);
+        List<ReporteDTO> reporte = resumenDiarioService.obtenerPorProfesional(desde, hasta);
+        return ResponseEntity.ok(ApiResponse.success("Reporte por profesional obtenido exitosamente", reporte));
+    }
+
+    /**
+     * Obtiene los totales de cada servicio.
+     */
+    @GetMapping("/servicios")
+    public ResponseEntity<ApiResponse<List<ReporteDTO>>> obtenerPorServicio(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        log.info("GET /api/reportes/servicios - Entre {} y {}", desde, hasta);
+        List<ReporteDTO> reporte = resumenDiarioService.obtenerPorServicio(desde, hasta);
+        return ResponseEntity.ok(ApiResponse.success("Reporte por servicio obtenido exitosamente", reporte));
+    }
+}
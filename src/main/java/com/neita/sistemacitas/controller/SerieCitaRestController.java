@@ -0,0 +1,76 @@
+package com.neita.sistemacitas.controller;
+
+import com.neita.sistemacitas.dto.ApiResponse;
+import com.neita.sistemacitas.dto.CitaDTO;
+import com.neita.sistemacitas.dto.SerieCitaDTO;
+import com.neita.sistemacitas.service.SerieCitaService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Controlador REST para gestionar series de citas recurrentes.
+ * Las operaciones sobre el resto de una serie afectan a las citas desde la fecha indicada
+ * (por defecto, desde el momento actual).
+ */
+@RestController
+@RequestMapping("/api/series")
+@RequiredArgsConstructor
+@Slf4j
+public class SerieCitaRestController {
+
+    private final SerieCitaService serieCitaService;
+
+    /**
+     * Obtiene las citas generadas por una serie.
+     */
+    @GetMapping("/{id}/citas")
+    public ResponseEntity<ApiResponse<List<CitaDTO>>> obtenerCitas(@PathVariable Long id) {
+        log.info("GET /api/series/{}/citas - Obteniendo citas de la serie", id);
+        List<CitaDTO> citas = serieCitaService.obtenerCitas(id);
+        return ResponseEntity.ok(ApiResponse.success("Citas de la serie obtenidas exitosamente", citas));
+    }
+
+    /**
+     * Crea una serie de citas y genera todas sus ocurrencias.
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<SerieCitaDTO>> crear(@Valid @RequestBody SerieCitaDTO serieDTO) {
+        log.info("POST /api/series - Creando nueva serie de citas");
+        SerieCitaDTO nuevaSerie = serieCitaService.crear(serieDTO);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Serie creada exitosamente", nuevaSerie));
+    }
+
+    /**
+     * Actualiza las notas del resto de la serie.
+     */
+    @PatchMapping("/{id}/notas")
+    public ResponseEntity<ApiResponse<Integer>> actualizarNotas(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam String notas) {
+        log.info("PATCH /api/series/{}/notas - Actualizando notas de la serie", id);
+        int actualizadas = serieCitaService.actualizarNotasDesde(id, desde != null ? desde : LocalDateTime.now(), notas);
+        return ResponseEntity.ok(ApiResponse.success("Notas de la serie actualizadas exitosamente", actualizadas));
+    }
+
+    /**
+     * Cancela el resto de la serie.
+     */
+    @PatchMapping("/{id}/cancelar")
+    public ResponseEntity<ApiResponse<Integer>> cancelar(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde) {
+        log.info("PATCH /api/series/{}/cancelar - Cancelando la serie", id);
+        int canceladas = serieCitaService.cancelarDesde(id, desde != null ? desde : LocalDateTime.now());
+        return ResponseEntity.ok(ApiResponse.success("Serie cancelada exitosamente", canceladas));
+    }
+}
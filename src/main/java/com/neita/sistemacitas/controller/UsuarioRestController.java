@@ -7,8 +7,10 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -23,6 +25,7 @@ import java.util.List;
 public class UsuarioRestController {
 
     private final UsuarioService usuarioService;
+    private final EscritorNdjson escritorNdjson;
 
     /**
      * Obtiene todos los usuarios.
@@ -34,6 +37,15 @@ public class UsuarioRestController {
         return ResponseEntity.ok(ApiResponse.success("Usuarios obtenidos exitosamente", usuarios));
     }
 
+    /**
+     * Transmite todos los usuarios, uno por línea (Accept: application/x-ndjson).
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> transmitirTodos() {
+        log.info("GET /api/usuarios - Transmitiendo todos los usuarios en NDJSON");
+        return escritorNdjson.respuesta(usuarioService::recorrerTodos);
+    }
+
     /**
      * Obtiene un usuario por su ID.
      */
@@ -0,0 +1,23 @@
+package com.neita.sistemacitas.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.neita.sistemacitas.event.CitaEvento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cambio de una cita enviado a los suscriptores de la agenda en vivo.
+ * La cita lleva su situación actual y se aplica reemplazando por ID; si ya no corresponde al profesional
+ * o al día de la suscripción, o el tipo es ELIMINADA, el cliente debe quitarla de su agenda.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AgendaEventoDTO {
+
+    private CitaEvento.Tipo tipo;
+    private Long citaId;
+    private CitaDTO cita;
+}
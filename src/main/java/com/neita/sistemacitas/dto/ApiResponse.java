@@ -1,5 +1,6 @@
 package com.neita.sistemacitas.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -20,6 +21,13 @@ public class ApiResponse<T> {
     private T data;
     private LocalDateTime timestamp;
 
+    /**
+     * Cursor opaco para solicitar la siguiente página en los listados paginados.
+     * Es nulo cuando no hay más resultados o la respuesta no está paginada.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String next;
+
     /**
      * Constructor para respuesta exitosa con datos.
      */
@@ -46,6 +54,15 @@ public class ApiResponse<T> {
         return new ApiResponse<>(true, message, data);
     }
 
+    /**
+     * Método estático para crear respuesta exitosa paginada con cursor.
+     */
+    public static <T> ApiResponse<T> success(String message, T data, String next) {
+        ApiResponse<T> response = new ApiResponse<>(true, message, data);
+        response.setNext(next);
+        return response;
+    }
+
     /**
      * Método estático para crear respuesta exitosa sin datos.
      */
@@ -0,0 +1,27 @@
+package com.neita.sistemacitas.dto;
+
+import com.neita.sistemacitas.entity.EstadoCita;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con los IDs de varias citas y el estado al que se deben cambiar.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioEstadoLoteDTO {
+
+    @NotEmpty(message = "Debe indicar al menos una cita")
+    @Size(max = 1000, message = "No se pueden cambiar más de 1000 citas a la vez")
+    private List<Long> ids;
+
+    @NotNull(message = "El estado es obligatorio")
+    private EstadoCita estado;
+}
@@ -1,10 +1,9 @@
 package com.neita.sistemacitas.dto;
 
+import com.neita.sistemacitas.entity.EstadoCita;
 import jakarta.validation.constraints.Future;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -16,7 +15,6 @@ import java.time.LocalDateTime;
  */
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class CitaDTO {
 
     private Long id;
@@ -25,9 +23,10 @@ public class CitaDTO {
     @Future(message = "La fecha y hora deben ser futuras")
     private LocalDateTime fechaHora;
 
-    @NotBlank(message = "El estado es obligatorio")
-    @Size(max = 50, message = "El estado no puede exceder 50 caracteres")
-    private String estado;
+    private LocalDateTime fechaHoraFin;
+
+    @NotNull(message = "El estado es obligatorio")
+    private EstadoCita estado;
 
     @Size(max = 1000, message = "Las notas no pueden exceder 1000 caracteres")
     private String notas;
@@ -46,6 +45,9 @@ public class CitaDTO {
 
     private Double servicioPrecio;
 
+    // Precio fijado al reservar la cita; puede diferir del precio actual del servicio
+    private Double precio;
+
     @NotNull(message = "El ID del profesional es obligatorio")
     private Long profesionalId;
 
@@ -53,5 +55,29 @@ public class CitaDTO {
 
     private String profesionalEspecialidad;
 
-
+    /**
+     * Constructor usado por las proyecciones CitaRepository.SELECT_CITA_DTO y
+     * CitaHistoricaRepository.SELECT_CITA_HISTORICA_DTO. Se declara explícitamente para que
+     * reordenar o añadir campos no cambie la firma que esperan esas consultas.
+     */
+    public CitaDTO(Long id, LocalDateTime fechaHora, LocalDateTime fechaHoraFin, EstadoCita estado, String notas,
+                   LocalDateTime fechaCreacion, Long usuarioId, String usuarioNombre, Long servicioId,
+                   String servicioNombre, Double servicioPrecio, Double precio, Long profesionalId,
+                   String profesionalNombre, String profesionalEspecialidad) {
+        this.id = id;
+        this.fechaHora = fechaHora;
+        this.fechaHoraFin = fechaHoraFin;
+        this.estado = estado;
+        this.notas = notas;
+        this.fechaCreacion = fechaCreacion;
+        this.usuarioId = usuarioId;
+        this.usuarioNombre = usuarioNombre;
+        this.servicioId = servicioId;
+        this.servicioNombre = servicioNombre;
+        this.servicioPrecio = servicioPrecio;
+        this.precio = precio;
+        this.profesionalId = profesionalId;
+        this.profesionalNombre = profesionalNombre;
+        this.profesionalEspecialidad = profesionalEspecialidad;
+    }
 }
@@ -0,0 +1,23 @@
+package com.neita.sistemacitas.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las credenciales que se intercambian por un token de acceso.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CredencialesDTO {
+
+    @NotBlank(message = "El email es obligatorio")
+    @Email(message = "El email debe ser válido")
+    private String email;
+
+    @NotBlank(message = "La contraseña es obligatoria")
+    private String password;
+}
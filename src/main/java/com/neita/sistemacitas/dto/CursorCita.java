@@ -0,0 +1,51 @@
+package com.neita.sistemacitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición dentro de un listado de citas ordenado por (fechaHora, id).
+ * Se serializa como un texto opaco que el cliente devuelve para pedir la siguiente página.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorCita {
+
+    private static final String SEPARADOR = "|";
+
+    private final LocalDateTime fechaHora;
+    private final Long id;
+
+    /**
+     * Codifica el cursor en Base64 apto para URL.
+     */
+    public String codificar() {
+        String valor = fechaHora + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     * @throws IllegalArgumentException si el cursor no tiene el formato esperado
+     */
+    public static CursorCita decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            return new CursorCita(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.parseLong(valor.substring(separador + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.neita.sistemacitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * DTO con las horas de inicio disponibles de un profesional en un día.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisponibilidadDTO {
+
+    private Long profesionalId;
+
+    private String profesionalNombre;
+
+    private String profesionalEspecialidad;
+
+    private LocalDate fecha;
+
+    private List<LocalTime> horasInicio;
+}
@@ -0,0 +1,25 @@
+package com.neita.sistemacitas.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las estadísticas de una caché o región de caché.
+ * Los valores que el proveedor de la caché no informa se omiten.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EstadisticasCacheDTO {
+
+    private String nombre;
+    private Long entradas;
+    private long aciertos;
+    private long fallos;
+    private double tasaAciertos;
+    private Long escrituras;
+    private Long desalojos;
+}
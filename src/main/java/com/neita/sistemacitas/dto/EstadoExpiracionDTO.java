@@ -0,0 +1,29 @@
+package com.neita.sistemacitas.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progreso y tiempos de la tarea de expiración de citas pendientes vencidas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EstadoExpiracionDTO {
+
+    private boolean enEjecucion;
+    private LocalDateTime ultimoInicio;
+    private LocalDateTime ultimoFin;
+    private Long ultimaDuracionMs;
+    private int lotesUltimaEjecucion;
+    private int citasUltimaEjecucion;
+    private Long maximoLoteMs;
+    private long ejecuciones;
+    private long citasExpiradasTotal;
+    private String ultimoError;
+}
@@ -0,0 +1,21 @@
+package com.neita.sistemacitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Modo de ejecución de las peticiones y bloqueos detectados de hilos virtuales fijados a su hilo portador.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoHilosVirtualesDTO {
+
+    private boolean hilosVirtuales;
+    private boolean deteccionActiva;
+    private long bloqueosDetectados;
+    private List<String> ultimosBloqueos;
+}
@@ -0,0 +1,20 @@
+package com.neita.sistemacitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados obtenida mediante paginación por cursor (keyset).
+ * El campo siguiente es nulo cuando no hay más elementos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursor<T> {
+
+    private List<T> elementos;
+    private String siguiente;
+}
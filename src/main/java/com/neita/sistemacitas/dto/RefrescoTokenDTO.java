@@ -0,0 +1,18 @@
+package com.neita.sistemacitas.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el token de refresco que se quiere usar o revocar.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefrescoTokenDTO {
+
+    @NotBlank(message = "El token de refresco es obligatorio")
+    private String refreshToken;
+}
@@ -0,0 +1,47 @@
+package com.neita.sistemacitas.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO con los totales de citas de un reporte.
+ * Según la agrupación se rellena la fecha (por día), el año y el mes (por mes)
+ * o el ID y el nombre del profesional o del servicio.
+ * Los constructores sin todos los argumentos los usan las consultas de ResumenDiarioRepository.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReporteDTO {
+
+    private LocalDate fecha;
+    private Integer anio;
+    private Integer mes;
+    private Long id;
+    private String nombre;
+    private Long citas;
+    private Long completadas;
+    private Long canceladas;
+    private Double ingresos;
+    private Long minutosReservados;
+
+    public ReporteDTO(LocalDate fecha, Long citas, Long completadas, Long canceladas,
+                      Double ingresos, Long minutosReservados) {
+        this(fecha, null, null, null, null, citas, completadas, canceladas, ingresos, minutosReservados);
+    }
+
+    public ReporteDTO(Integer anio, Integer mes, Long citas, Long completadas, Long canceladas,
+                      Double ingresos, Long minutosReservados) {
+        this(null, anio, mes, null, null, citas, completadas, canceladas, ingresos, minutosReservados);
+    }
+
+    public ReporteDTO(Long id, String nombre, Long citas, Long completadas, Long canceladas,
+                      Double ingresos, Long minutosReservados) {
+        this(null, null, null, id, nombre, citas, completadas, canceladas, ingresos, minutosReservados);
+    }
+}
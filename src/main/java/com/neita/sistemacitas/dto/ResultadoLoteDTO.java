@@ -0,0 +1,30 @@
+package com.neita.sistemacitas.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de un elemento de un lote de citas.
+ * El índice corresponde a la posición del elemento en la lista recibida.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoLoteDTO {
+
+    private int indice;
+    private boolean creada;
+    private CitaDTO cita;
+    private String error;
+
+    public static ResultadoLoteDTO exitoso(int indice, CitaDTO cita) {
+        return new ResultadoLoteDTO(indice, true, cita, null);
+    }
+
+    public static ResultadoLoteDTO fallido(int indice, String error) {
+        return new ResultadoLoteDTO(indice, false, null, error);
+    }
+}
@@ -0,0 +1,53 @@
+package com.neita.sistemacitas.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO para transferir datos de SerieCita entre capas.
+ * totalCitas solo se informa en las respuestas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SerieCitaDTO {
+
+    private Long id;
+
+    @NotNull(message = "La fecha y hora de la primera cita son obligatorias")
+    @Future(message = "La fecha y hora deben ser futuras")
+    private LocalDateTime fechaHoraInicio;
+
+    @NotNull(message = "El intervalo en semanas es obligatorio")
+    @Min(value = 1, message = "El intervalo debe ser de al menos una semana")
+    @Max(value = 52, message = "El intervalo no puede superar 52 semanas")
+    private Integer intervaloSemanas;
+
+    @NotNull(message = "La fecha límite de la serie es obligatoria")
+    private LocalDate hasta;
+
+    @Size(max = 1000, message = "Las notas no pueden exceder 1000 caracteres")
+    private String notas;
+
+    private Boolean activa;
+
+    @NotNull(message = "El ID del usuario es obligatorio")
+    private Long usuarioId;
+
+    @NotNull(message = "El ID del servicio es obligatorio")
+    private Long servicioId;
+
+    @NotNull(message = "El ID del profesional es obligatorio")
+    private Long profesionalId;
+
+    private Integer totalCitas;
+}
@@ -1,5 +1,6 @@
 package com.neita.sistemacitas.dto;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -26,9 +27,10 @@ public class ServicioDTO {
     @Size(max = 1000, message = "La descripción no puede exceder 1000 caracteres")
     private String descripcion;
 
-    @NotBlank(message = "La duración es obligatoria")
-    @Size(max = 255, message = "La duración no puede exceder 255 caracteres")
-    private String duracion;
+    @NotNull(message = "La duración es obligatoria")
+    @Positive(message = "La duración debe ser mayor a cero")
+    @Max(value = 600, message = "La duración no puede exceder 600 minutos")
+    private Integer duracionMinutos;
 
     @NotNull(message = "El precio es obligatorio")
     @Positive(message = "El precio debe ser mayor a cero")
@@ -0,0 +1,20 @@
+package com.neita.sistemacitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el par de tokens emitido al autenticarse o al refrescar.
+ * El token de acceso se envía en la cabecera Authorization: Bearer; expiraEn está en segundos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenDTO {
+
+    private String accessToken;
+    private String refreshToken;
+    private String tipo;
+    private long expiraEn;
+}
@@ -42,5 +42,18 @@ public class UsuarioDTO {
 
     private Boolean activo;
 
+    /**
+     * Constructor sin contraseña, usado por las consultas de proyección de UsuarioRepository.
+     */
+    public UsuarioDTO(Long id, String nombre, String email, String telefono,
+                      LocalDateTime fechaRegistro, String rol, Boolean activo) {
+        this.id = id;
+        this.nombre = nombre;
+        this.email = email;
+        this.telefono = telefono;
+        this.fechaRegistro = fechaRegistro;
+        this.rol = rol;
+        this.activo = activo;
+    }
 
 }
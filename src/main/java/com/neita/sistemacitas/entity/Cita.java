@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
@@ -18,19 +20,36 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Cita {
 
+    /**
+     * Tamaño del bloque de IDs que Hibernate reserva en cada lectura de la secuencia.
+     */
+    public static final int IDS_POR_BLOQUE = 50;
+
+    // Secuencia con bloques de IDs (pooled): a diferencia de IDENTITY permite agrupar los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cita_seq")
+    @SequenceGenerator(name = "cita_seq", sequenceName = "cita_seq", allocationSize = IDS_POR_BLOQUE)
     private Long id;
 
     @Column(name = "fecha_hora", nullable = false)
     private LocalDateTime fechaHora;
 
+    // Fin de la cita según la duración del servicio; delimita las franjas que reserva
+    @Column(name = "fecha_hora_fin")
+    private LocalDateTime fechaHoraFin;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false, length = 50)
-    private String estado = "PENDIENTE";
+    private EstadoCita estado = EstadoCita.PENDIENTE;
 
     @Column(columnDefinition = "TEXT")
     private String notas;
 
+    // Precio del servicio al reservar la cita; los ingresos de los reportes no cambian si después cambia el del servicio
+    @Column(nullable = false)
+    private Double precio;
+
     @Column(name = "fecha_creacion", nullable = false)
     private LocalDateTime fechaCreacion;
 
@@ -49,6 +68,11 @@ public class Cita {
     @JoinColumn(name = "profesional_id", nullable = false)
     private Profesional profesional;
 
+    // Serie recurrente que generó la cita; nula en las citas individuales
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "serie_id")
+    private SerieCita serie;
+
     /**
      * Método que se ejecuta antes de persistir la entidad.
      * Establece la fecha de creación automáticamente.
@@ -58,8 +82,8 @@ public class Cita {
         if (fechaCreacion == null) {
             fechaCreacion = LocalDateTime.now();
         }
-        if (estado == null || estado.isEmpty()) {
-            estado = "PENDIENTE";
+        if (estado == null) {
+            estado = EstadoCita.PENDIENTE;
         }
     }
 }
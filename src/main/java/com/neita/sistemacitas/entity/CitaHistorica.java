@@ -0,0 +1,69 @@
+package com.neita.sistemacitas.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad de solo lectura que representa una cita archivada en cita_historico.
+ * Las citas finalizadas antiguas se mueven a esta tabla para mantener pequeña la tabla cita
+ * y sus índices; conservan el mismo ID que tenían en cita.
+ */
+@Entity
+@Immutable
+@Table(name = "cita_historico")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CitaHistorica {
+
+    @Id
+    private Long id;
+
+    @Column(name = "fecha_hora", nullable = false)
+    private LocalDateTime fechaHora;
+
+    @Column(name = "fecha_hora_fin")
+    private LocalDateTime fechaHoraFin;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 50)
+    private EstadoCita estado;
+
+    @Column(columnDefinition = "TEXT")
+    private String notas;
+
+    @Column(nullable = false)
+    private Double precio;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_archivo", nullable = false)
+    private LocalDateTime fechaArchivo;
+
+    @Column(name = "serie_id")
+    private Long serieId;
+
+    // Relación muchos a uno con Usuario
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    // Relación muchos a uno con Servicio
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "servicio_id", nullable = false)
+    private Servicio servicio;
+
+    // Relación muchos a uno con Profesional
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "profesional_id", nullable = false)
+    private Profesional profesional;
+}
@@ -0,0 +1,47 @@
+package com.neita.sistemacitas.entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Estados posibles de una cita y las transiciones permitidas entre ellos.
+ * Cada estado declara desde qué estados se puede llegar a él; CitaService aplica la transición
+ * con un único UPDATE condicionado a que el estado actual sea uno de esos predecesores.
+ */
+public enum EstadoCita {
+
+    PENDIENTE,
+    CONFIRMADA,
+    COMPLETADA,
+    CANCELADA,
+    EXPIRADA;
+
+    /**
+     * Estados desde los que se puede pasar a este estado.
+     * PENDIENTE es solo estado inicial: una cita cancelada no se reactiva, se crea de nuevo.
+     * EXPIRADA la asigna la tarea programada a las citas pendientes cuya fecha ya pasó.
+     */
+    public Set<EstadoCita> getPredecesores() {
+        return switch (this) {
+            case PENDIENTE -> EnumSet.noneOf(EstadoCita.class);
+            case CONFIRMADA -> EnumSet.of(PENDIENTE);
+            case COMPLETADA, CANCELADA -> EnumSet.of(PENDIENTE, CONFIRMADA);
+            case EXPIRADA -> EnumSet.of(PENDIENTE);
+        };
+    }
+
+    /**
+     * Indica si se puede pasar del estado dado a este estado.
+     */
+    public boolean admiteTransicionDesde(EstadoCita actual) {
+        return getPredecesores().contains(actual);
+    }
+
+    /**
+     * Indica si una cita en este estado ocupa franjas en la agenda del profesional.
+     * Las citas expiradas conservan sus franjas: están en el pasado y liberarlas no aporta nada.
+     */
+    public boolean ocupaAgenda() {
+        return this != CANCELADA;
+    }
+}
@@ -0,0 +1,48 @@
+package com.neita.sistemacitas.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa una franja de agenda ocupada por una cita.
+ * La restricción única (profesional_id, inicio) impide que dos citas reserven
+ * la misma franja de un profesional, incluso bajo concurrencia.
+ */
+@Entity
+@Table(name = "franja_reservada",
+        uniqueConstraints = @UniqueConstraint(name = "uk_franja_profesional_inicio",
+                columnNames = {"profesional_id", "inicio"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FranjaReservada {
+
+    /**
+     * Duración de cada franja de agenda en minutos.
+     */
+    public static final int MINUTOS_POR_FRANJA = 15;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "franja_reservada_seq")
+    @SequenceGenerator(name = "franja_reservada_seq", sequenceName = "franja_reservada_seq",
+            allocationSize = Cita.IDS_POR_BLOQUE)
+    private Long id;
+
+    @Column(name = "profesional_id", nullable = false)
+    private Long profesionalId;
+
+    @Column(nullable = false)
+    private LocalDateTime inicio;
+
+    // Relación muchos a uno con Cita; la base de datos elimina las franjas junto con la cita
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cita_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Cita cita;
+}
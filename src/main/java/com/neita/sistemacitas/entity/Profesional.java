@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -12,8 +14,11 @@ import java.util.List;
 /**
  * Entidad que representa un profesional en el sistema.
  * Cada profesional está asociado a un usuario y puede gestionar múltiples citas.
+ * Se guarda en la caché de segundo nivel (región "profesional").
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "profesional")
 @Table(name = "profesional")
 @Data
 @NoArgsConstructor
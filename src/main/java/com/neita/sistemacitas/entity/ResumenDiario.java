@@ -0,0 +1,62 @@
+package com.neita.sistemacitas.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Entidad que representa el resumen de citas de un día para un profesional y un servicio.
+ * Las filas se acumulan de forma incremental con cada cambio de cita y se reconstruyen cada noche,
+ * de modo que los reportes no tienen que recorrer la tabla cita.
+ */
+@Entity
+@Table(name = "resumen_diario")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenDiario {
+
+    @EmbeddedId
+    private Clave id;
+
+    // Todas las citas del día, en cualquier estado
+    @Column(nullable = false)
+    private Integer citas;
+
+    @Column(nullable = false)
+    private Integer completadas;
+
+    @Column(nullable = false)
+    private Integer canceladas;
+
+    // Suma del precio reservado de las citas completadas
+    @Column(nullable = false)
+    private Double ingresos;
+
+    // Minutos de agenda ocupados por las citas no canceladas
+    @Column(name = "minutos_reservados", nullable = false)
+    private Integer minutosReservados;
+
+    /**
+     * Clave del resumen: un día, un profesional y un servicio.
+     */
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+
+        @Column(nullable = false)
+        private LocalDate fecha;
+
+        @Column(name = "profesional_id", nullable = false)
+        private Long profesionalId;
+
+        @Column(name = "servicio_id", nullable = false)
+        private Long servicioId;
+    }
+}
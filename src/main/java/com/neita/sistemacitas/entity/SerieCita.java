@@ -0,0 +1,70 @@
+package com.neita.sistemacitas.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa una serie de citas recurrentes, por ejemplo "cada dos viernes a las 5 p. m.".
+ * La regla de recurrencia es semanal: la primera cita en fechaHoraInicio y una cada intervaloSemanas
+ * semanas hasta la fecha límite (inclusive). Las citas generadas referencian la serie.
+ */
+@Entity
+@Table(name = "serie_cita")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SerieCita {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "fecha_hora_inicio", nullable = false)
+    private LocalDateTime fechaHoraInicio;
+
+    @Column(name = "intervalo_semanas", nullable = false)
+    private Integer intervaloSemanas;
+
+    @Column(nullable = false)
+    private LocalDate hasta;
+
+    @Column(columnDefinition = "TEXT")
+    private String notas;
+
+    @Column(nullable = false)
+    private Boolean activa = true;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    // Relación muchos a uno con Usuario
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    // Relación muchos a uno con Servicio
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "servicio_id", nullable = false)
+    private Servicio servicio;
+
+    // Relación muchos a uno con Profesional
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "profesional_id", nullable = false)
+    private Profesional profesional;
+
+    /**
+     * Método que se ejecuta antes de persistir la entidad.
+     * Establece la fecha de creación automáticamente.
+     */
+    @PrePersist
+    protected void onCreate() {
+        if (fechaCreacion == null) {
+            fechaCreacion = LocalDateTime.now();
+        }
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,8 +13,11 @@ import java.util.List;
 /**
  * Entidad que representa un servicio ofrecido por la barbería.
  * Un servicio puede estar asociado a múltiples citas.
+ * Se guarda en la caché de segundo nivel (región "servicio").
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "servicio")
 @Table(name = "servicio")
 @Data
 @NoArgsConstructor
@@ -29,8 +34,8 @@ public class Servicio {
     @Column(columnDefinition = "TEXT")
     private String descripcion;
 
-    @Column(nullable = false, length = 255)
-    private String duracion;
+    @Column(name = "duracion_minutos", nullable = false)
+    private Integer duracionMinutos;
 
     @Column(nullable = false)
     private Double precio;
@@ -0,0 +1,28 @@
+package com.neita.sistemacitas.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa un token JWT revocado antes de expirar (cierre de sesión o refresco).
+ * La fila se conserva hasta la expiración del token, en UTC.
+ */
+@Entity
+@Table(name = "token_revocado")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocado {
+
+    // ID del token (claim jti)
+    @Id
+    @Column(length = 64)
+    private String jti;
+
+    @Column(nullable = false)
+    private LocalDateTime expiracion;
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -12,8 +14,11 @@ import java.util.List;
 /**
  * Entidad que representa un usuario en el sistema.
  * Un usuario puede tener múltiples citas y puede estar vinculado como profesional.
+ * Se guarda en la caché de segundo nivel (región "usuario").
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuario")
 @Table(name = "usuario")
 @Data
 @NoArgsConstructor
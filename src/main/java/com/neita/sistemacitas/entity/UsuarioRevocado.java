@@ -0,0 +1,27 @@
+package com.neita.sistemacitas.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa la revocación de todos los tokens de un usuario (baja, cambio de
+ * contraseña o de email): se rechazan los tokens emitidos antes de revocadoHasta, en UTC.
+ */
+@Entity
+@Table(name = "usuario_revocado")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsuarioRevocado {
+
+    @Id
+    @Column(length = 255)
+    private String email;
+
+    @Column(name = "revocado_hasta", nullable = false)
+    private LocalDateTime revocadoHasta;
+}
@@ -0,0 +1,67 @@
+package com.neita.sistemacitas.event;
+
+import com.neita.sistemacitas.entity.Cita;
+import com.neita.sistemacitas.entity.EstadoCita;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de aplicación publicado por CitaService cuando una cita se crea, modifica o elimina.
+ * Contiene la situación de la cita antes y después del cambio para que los consumidores
+ * puedan mantener sus estructuras de forma incremental.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CitaEvento {
+
+    /**
+     * Tipo de cambio aplicado a la cita.
+     */
+    public enum Tipo {
+        CREADA,
+        ACTUALIZADA,
+        ELIMINADA
+    }
+
+    private final Tipo tipo;
+    private final Long citaId;
+
+    /**
+     * Situación previa de la cita; nula cuando la cita se crea.
+     */
+    private final Instantanea anterior;
+
+    /**
+     * Situación resultante de la cita; nula cuando la cita se elimina.
+     */
+    private final Instantanea actual;
+
+    /**
+     * Datos de agenda de una cita en un momento dado.
+     */
+    @Value
+    public static class Instantanea {
+        Long profesionalId;
+        Long servicioId;
+        LocalDateTime inicio;
+        LocalDateTime fin;
+        EstadoCita estado;
+        Double precio;
+
+        /**
+         * Toma los datos de agenda de una cita.
+         */
+        public static Instantanea de(Cita cita) {
+            return new Instantanea(
+                    cita.getProfesional().getId(),
+                    cita.getServicio().getId(),
+                    cita.getFechaHora(),
+                    cita.getFechaHoraFin(),
+                    cita.getEstado(),
+                    cita.getPrecio());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.neita.sistemacitas.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Evento de aplicación publicado por los servicios de catálogo cuando cambia el número de
+ * servicios, profesionales o usuarios activos, o el número total de citas.
+ * Lleva la variación a aplicar; cuando no se conoce (por ejemplo, en eliminaciones en cascada)
+ * indica que el contador debe volver a contarse en la base de datos.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ContadorEvento {
+
+    /**
+     * Contadores mostrados en la página de inicio.
+     */
+    public enum Contador {
+        CITAS,
+        SERVICIOS_ACTIVOS,
+        PROFESIONALES_ACTIVOS,
+        USUARIOS_ACTIVOS
+    }
+
+    private final Contador contador;
+    private final long delta;
+    private final boolean recontar;
+
+    public static ContadorEvento incremento(Contador contador) {
+        return new ContadorEvento(contador, 1, false);
+    }
+
+    public static ContadorEvento decremento(Contador contador) {
+        return new ContadorEvento(contador, -1, false);
+    }
+
+    public static ContadorEvento recuento(Contador contador) {
+        return new ContadorEvento(contador, 0, true);
+    }
+}
@@ -4,11 +4,15 @@ import com.neita.sistemacitas.dto.ErrorDetails;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -58,6 +62,98 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Maneja excepciones de horario no disponible (franja ya reservada).
+     */
+    @ExceptionHandler(HorarioNoDisponibleException.class)
+    public ResponseEntity<ErrorDetails> handleHorarioNoDisponibleException(
+            HorarioNoDisponibleException ex, WebRequest request) {
+        
+        log.warn("Horario no disponible: {}", ex.getMessage());
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                "Horario no disponible",
+                ex.getMessage()
+        );
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Maneja excepciones de transición de estado no permitida.
+     */
+    @ExceptionHandler(TransicionEstadoInvalidaException.class)
+    public ResponseEntity<ErrorDetails> handleTransicionEstadoInvalidaException(
+            TransicionEstadoInvalidaException ex, WebRequest request) {
+        
+        log.warn("Transición de estado no permitida: {}", ex.getMessage());
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                "Transición de estado no permitida",
+                ex.getMessage()
+        );
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Maneja credenciales incorrectas al solicitar un token.
+     */
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<ErrorDetails> handleAuthenticationException(
+            AuthenticationException ex, WebRequest request) {
+        
+        log.warn("Autenticación fallida: {}", ex.getMessage());
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                "Credenciales inválidas",
+                "El email o la contraseña no son correctos"
+        );
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.UNAUTHORIZED);
+    }
+
+    /**
+     * Maneja tokens de refresco no válidos, expirados o revocados.
+     */
+    @ExceptionHandler(TokenInvalidoException.class)
+    public ResponseEntity<ErrorDetails> handleTokenInvalidoException(
+            TokenInvalidoException ex, WebRequest request) {
+        
+        log.warn("Token no válido: {}", ex.getMessage());
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                "Token no válido",
+                ex.getMessage()
+        );
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.UNAUTHORIZED);
+    }
+
+    /**
+     * Maneja las peticiones que no obtuvieron una conexión del pool a tiempo. Con hilos virtuales
+     * el pool de conexiones es el que limita la concurrencia: se responde 503 en lugar de encolar
+     * peticiones sin límite.
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorDetails> handleCannotCreateTransactionException(
+            CannotCreateTransactionException ex, WebRequest request) {
+        
+        log.warn("Sin conexión disponible a la base de datos: {}", ex.getMessage());
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                "Servicio saturado",
+                "El sistema está atendiendo demasiadas peticiones. Por favor, inténtelo de nuevo en unos segundos."
+        );
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Maneja excepciones de validación de argumentos.
      */
@@ -102,6 +198,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Maneja parámetros o cuerpos de petición que no se pueden convertir al tipo esperado,
+     * por ejemplo un estado de cita desconocido.
+     */
+    @ExceptionHandler({MethodArgumentTypeMismatchException.class, HttpMessageNotReadableException.class})
+    public ResponseEntity<ErrorDetails> handleConversionException(
+            Exception ex, WebRequest request) {
+        
+        log.error("Petición mal formada: {}", ex.getMessage());
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                "Petición mal formada",
+                "Algún valor de la petición no tiene el formato esperado"
+        );
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Maneja todas las demás excepciones no capturadas.
      */
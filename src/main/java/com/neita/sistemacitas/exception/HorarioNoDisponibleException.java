@@ -0,0 +1,15 @@
+package com.neita.sistemacitas.exception;
+
+/**
+ * Excepción lanzada cuando el profesional ya tiene reservada alguna franja del horario solicitado.
+ */
+public class HorarioNoDisponibleException extends RuntimeException {
+
+    public HorarioNoDisponibleException(String mensaje) {
+        super(mensaje);
+    }
+
+    public HorarioNoDisponibleException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
@@ -0,0 +1,12 @@
+package com.neita.sistemacitas.exception;
+
+/**
+ * Excepción lanzada en modo estricto cuando una petición ejecuta más consultas SQL que su presupuesto.
+ * Se usa en las pruebas de integración para que una regresión N+1 haga fallar la prueba.
+ */
+public class PresupuestoConsultasExcedidoException extends RuntimeException {
+
+    public PresupuestoConsultasExcedidoException(String mensaje) {
+        super(mensaje);
+    }
+}
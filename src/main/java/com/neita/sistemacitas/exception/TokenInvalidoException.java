@@ -0,0 +1,11 @@
+package com.neita.sistemacitas.exception;
+
+/**
+ * Excepción lanzada cuando un token de refresco no es válido, ha expirado o fue revocado.
+ */
+public class TokenInvalidoException extends RuntimeException {
+
+    public TokenInvalidoException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,11 @@
+package com.neita.sistemacitas.exception;
+
+/**
+ * Excepción lanzada cuando se intenta cambiar una cita a un estado que no admite su estado actual.
+ */
+public class TransicionEstadoInvalidaException extends RuntimeException {
+
+    public TransicionEstadoInvalidaException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,120 @@
+package com.neita.sistemacitas.repository;
+
+import com.neita.sistemacitas.dto.CitaDTO;
+import com.neita.sistemacitas.entity.CitaHistorica;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para la entidad CitaHistorica.
+ * Las consultas devuelven CitaDTO con la misma proyección que CitaRepository para poder
+ * combinar citas activas y archivadas en un mismo listado.
+ */
+@Repository
+public interface CitaHistoricaRepository extends JpaRepository<CitaHistorica, Long> {
+
+    /**
+     * Proyección común de CitaHistorica a CitaDTO, con los argumentos en el orden del constructor de proyección de CitaDTO.
+     */
+    String SELECT_CITA_HISTORICA_DTO = "SELECT new com.neita.sistemacitas.dto.CitaDTO(" +
+            "h.id, h.fechaHora, h.fechaHoraFin, h.estado, h.notas, h.fechaCreacion, " +
+            "u.id, u.nombre, s.id, s.nombre, s.precio, h.precio, p.id, pu.nombre, p.especialidad) " +
+            "FROM CitaHistorica h JOIN h.usuario u JOIN h.servicio s JOIN h.profesional p JOIN p.usuario pu ";
+
+    /**
+     * Busca una cita archivada por su ID.
+     * @param id el ID de la cita
+     * @return un Optional con la cita si existe
+     */
+    @Query(SELECT_CITA_HISTORICA_DTO + "WHERE h.id = :id")
+    Optional<CitaDTO> findDTOById(@Param("id") Long id);
+
+    /**
+     * Busca las citas archivadas de un usuario ordenadas por fecha descendente.
+     * @param usuarioId el ID del usuario
+     * @return lista de citas archivadas del usuario
+     */
+    @Query(SELECT_CITA_HISTORICA_DTO + "WHERE u.id = :usuarioId ORDER BY h.fechaHora DESC, h.id DESC")
+    List<CitaDTO> findByUsuarioIdOrderByFechaHoraDesc(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Busca la página siguiente de citas archivadas anteriores al cursor en orden descendente (fechaHora, id).
+     * @param fechaHora fecha y hora de la última cita entregada
+     * @param id ID de la última cita entregada
+     * @param limite número máximo de filas a devolver
+     * @return lista de citas archivadas anteriores al cursor
+     */
+    @Query(SELECT_CITA_HISTORICA_DTO +
+            "WHERE h.fechaHora < :fechaHora OR (h.fechaHora = :fechaHora AND h.id < :id) " +
+            "ORDER BY h.fechaHora DESC, h.id DESC")
+    List<CitaDTO> findPaginaPasadas(
+            @Param("fechaHora") LocalDateTime fechaHora,
+            @Param("id") Long id,
+            Limit limite
+    );
+
+    /**
+     * Obtiene la fecha de la cita archivada más reciente, que marca la frontera del archivo.
+     * @return la fecha máxima, o null si el archivo está vacío
+     */
+    @Query("SELECT MAX(h.fechaHora) FROM CitaHistorica h")
+    LocalDateTime findFechaMaxima();
+
+    /**
+     * Copia varias citas de la tabla cita al archivo en una sola sentencia.
+     * Declara la tabla que modifica para que Hibernate no vacíe la caché de segundo nivel completa.
+     * @param ids los IDs de las citas
+     * @return el número de citas copiadas
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cita_historico"))
+    @Query(nativeQuery = true, value = "INSERT INTO cita_historico " +
+            "(id, fecha_hora, fecha_hora_fin, estado, notas, precio, fecha_creacion, usuario_id, servicio_id, " +
+            "profesional_id, serie_id, fecha_archivo) " +
+            "SELECT id, fecha_hora, fecha_hora_fin, estado, notas, precio, fecha_creacion, usuario_id, servicio_id, " +
+            "profesional_id, serie_id, NOW(6) FROM cita WHERE id IN (:ids)")
+    int copiarDesdeCita(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Elimina las citas archivadas de un usuario que se borra permanentemente.
+     * El archivo no declara claves foráneas, por lo que el borrado no le llega en cascada.
+     * @param usuarioId el ID del usuario
+     * @return el número de citas eliminadas
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cita_historico"))
+    @Query(nativeQuery = true, value = "DELETE FROM cita_historico WHERE usuario_id = :usuarioId")
+    int deleteByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Elimina las citas archivadas de un servicio que se borra permanentemente.
+     * @param servicioId el ID del servicio
+     * @return el número de citas eliminadas
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cita_historico"))
+    @Query(nativeQuery = true, value = "DELETE FROM cita_historico WHERE servicio_id = :servicioId")
+    int deleteByServicioId(@Param("servicioId") Long servicioId);
+
+    /**
+     * Elimina las citas archivadas de un profesional que se borra permanentemente.
+     * @param profesionalId el ID del profesional
+     * @return el número de citas eliminadas
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cita_historico"))
+    @Query(nativeQuery = true, value = "DELETE FROM cita_historico WHERE profesional_id = :profesionalId")
+    int deleteByProfesionalId(@Param("profesionalId") Long profesionalId);
+}
@@ -1,48 +1,115 @@
- package com.neita.sistemacitas.repository;
+package com.neita.sistemacitas.repository;
 
+import com.neita.sistemacitas.dto.CitaDTO;
 import com.neita.sistemacitas.entity.Cita;
+import com.neita.sistemacitas.entity.EstadoCita;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad Cita.
  * Proporciona métodos para acceder y manipular datos de citas en la base de datos.
+ * Los métodos de búsqueda construyen el CitaDTO directamente en un único SELECT con
+ * las asociaciones unidas, evitando cargar perezosamente usuario, servicio y profesional por cada fila.
  */
 @Repository
 public interface CitaRepository extends JpaRepository<Cita, Long> {
 
+    /**
+     * Proyección común de Cita a CitaDTO. El orden de los argumentos sigue el del
+     * constructor de proyección de CitaDTO.
+     */
+    String SELECT_CITA_DTO = "SELECT new com.neita.sistemacitas.dto.CitaDTO(" +
+            "c.id, c.fechaHora, c.fechaHoraFin, c.estado, c.notas, c.fechaCreacion, " +
+            "u.id, u.nombre, s.id, s.nombre, s.precio, c.precio, p.id, pu.nombre, p.especialidad) " +
+            "FROM Cita c JOIN c.usuario u JOIN c.servicio s JOIN c.profesional p JOIN p.usuario pu ";
+
+    /**
+     * Proyección común de Cita a AgendaCita.
+     */
+    String SELECT_AGENDA_CITA = "SELECT c.id AS id, c.profesional.id AS profesionalId, c.servicio.id AS servicioId, " +
+            "c.fechaHora AS inicio, c.fechaHoraFin AS fin, c.estado AS estado, c.precio AS precio FROM Cita c ";
+
+    /**
+     * Busca una cita por su ID.
+     * @param id el ID de la cita
+     * @return un Optional con la cita si existe
+     */
+    @Query(SELECT_CITA_DTO + "WHERE c.id = :id")
+    Optional<CitaDTO> findDTOById(@Param("id") Long id);
+
+    /**
+     * Busca varias citas por sus IDs con una sola consulta.
+     * @param ids los IDs de las citas
+     * @return lista de las citas encontradas, en cualquier orden
+     */
+    @Query(SELECT_CITA_DTO + "WHERE c.id IN :ids")
+    List<CitaDTO> findDTOByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Busca todas las citas ordenadas por fecha.
+     * @return lista de todas las citas
+     */
+    @Query(SELECT_CITA_DTO + "ORDER BY c.fechaHora ASC, c.id ASC")
+    List<CitaDTO> findAllDTO();
+
+    /**
+     * Recorre todas las citas ordenadas por fecha sin materializar la lista completa.
+     * Las filas se leen del cursor JDBC en bloques; el Stream debe cerrarse y consumirse
+     * dentro de una transacción.
+     * @return stream de todas las citas
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_CITA_DTO + "ORDER BY c.fechaHora ASC, c.id ASC")
+    Stream<CitaDTO> streamAllDTO();
+
     /**
      * Busca todas las citas de un usuario específico.
      * @param usuarioId el ID del usuario
      * @return lista de citas del usuario
      */
-    List<Cita> findByUsuarioId(Long usuarioId);
+    @Query(SELECT_CITA_DTO + "WHERE u.id = :usuarioId")
+    List<CitaDTO> findByUsuarioId(@Param("usuarioId") Long usuarioId);
 
     /**
      * Busca todas las citas de un profesional específico.
      * @param profesionalId el ID del profesional
      * @return lista de citas del profesional
      */
-    List<Cita> findByProfesionalId(Long profesionalId);
+    @Query(SELECT_CITA_DTO + "WHERE p.id = :profesionalId")
+    List<CitaDTO> findByProfesionalId(@Param("profesionalId") Long profesionalId);
 
     /**
      * Busca todas las citas de un servicio específico.
      * @param servicioId el ID del servicio
      * @return lista de citas del servicio
      */
-    List<Cita> findByServicioId(Long servicioId);
+    @Query(SELECT_CITA_DTO + "WHERE s.id = :servicioId")
+    List<CitaDTO> findByServicioId(@Param("servicioId") Long servicioId);
 
     /**
      * Busca citas por estado.
      * @param estado el estado de la cita
      * @return lista de citas con ese estado
      */
-    List<Cita> findByEstado(String estado);
+    @Query(SELECT_CITA_DTO + "WHERE c.estado = :estado")
+    List<CitaDTO> findByEstado(@Param("estado") EstadoCita estado);
 
     /**
      * Busca citas entre dos fechas.
@@ -50,7 +117,23 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
      * @param fin fecha y hora de fin
      * @return lista de citas en ese rango de fechas
      */
-    List<Cita> findByFechaHoraBetween(LocalDateTime inicio, LocalDateTime fin);
+    @Query(SELECT_CITA_DTO + "WHERE c.fechaHora BETWEEN :inicio AND :fin")
+    List<CitaDTO> findByFechaHoraBetween(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+
+    /**
+     * Busca las citas de un profesional que empiezan en un intervalo, ordenadas por hora.
+     * @param profesionalId el ID del profesional
+     * @param inicio fecha y hora de inicio (inclusiva)
+     * @param fin fecha y hora de fin (exclusiva)
+     * @return lista de citas del profesional en el intervalo
+     */
+    @Query(SELECT_CITA_DTO + "WHERE p.id = :profesionalId AND c.fechaHora >= :inicio AND c.fechaHora < :fin " +
+            "ORDER BY c.fechaHora ASC, c.id ASC")
+    List<CitaDTO> findAgendaDelProfesional(
+            @Param("profesionalId") Long profesionalId,
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fin") LocalDateTime fin
+    );
 
     /**
      * Busca citas de un profesional en un rango de fechas.
@@ -59,26 +142,170 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
      * @param fin fecha y hora de fin
      * @return lista de citas del profesional en ese rango
      */
-    @Query("SELECT c FROM Cita c WHERE c.profesional.id = :profesionalId AND c.fechaHora BETWEEN :inicio AND :fin")
-    List<Cita> findCitasByProfesionalAndFechaHora(
+    @Query(SELECT_CITA_DTO + "WHERE p.id = :profesionalId AND c.fechaHora BETWEEN :inicio AND :fin")
+    List<CitaDTO> findCitasByProfesionalAndFechaHora(
             @Param("profesionalId") Long profesionalId,
             @Param("inicio") LocalDateTime inicio,
             @Param("fin") LocalDateTime fin
     );
 
+    /**
+     * Busca las citas generadas por una serie ordenadas por fecha.
+     * @param serieId el ID de la serie
+     * @return lista de citas de la serie
+     */
+    @Query(SELECT_CITA_DTO + "WHERE c.serie.id = :serieId ORDER BY c.fechaHora ASC, c.id ASC")
+    List<CitaDTO> findBySerieId(@Param("serieId") Long serieId);
+
+    /**
+     * Busca los datos de agenda de las citas de una serie desde una fecha que están en alguno de los estados dados.
+     * @param serieId el ID de la serie
+     * @param desde fecha y hora inicial (inclusive)
+     * @param estados los estados a incluir
+     * @return lista con los datos de agenda de las citas
+     */
+    @Query(SELECT_AGENDA_CITA +
+            "WHERE c.serie.id = :serieId AND c.fechaHora >= :desde AND c.estado IN :estados")
+    List<AgendaCita> findAgendaDeSerie(
+            @Param("serieId") Long serieId,
+            @Param("desde") LocalDateTime desde,
+            @Param("estados") Collection<EstadoCita> estados
+    );
+
+    /**
+     * Busca y bloquea (SELECT ... FOR UPDATE) los datos de agenda de varias citas que están en alguno
+     * de los estados dados. Hasta el final de la transacción ninguna otra puede cambiar su estado,
+     * por lo que un UPDATE posterior con los mismos estados afecta exactamente a estas filas.
+     * @param ids los IDs de las citas
+     * @param estados los estados a incluir
+     * @return lista con los datos de agenda de las citas
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(SELECT_AGENDA_CITA + "WHERE c.id IN :ids AND c.estado IN :estados")
+    List<AgendaCita> findAgendaByIdIn(
+            @Param("ids") Collection<Long> ids,
+            @Param("estados") Collection<EstadoCita> estados
+    );
+
+    /**
+     * Busca y bloquea los datos de agenda de las citas en un estado con fecha anterior a un límite, de la
+     * más antigua a la más reciente. Se resuelve sobre el índice (estado, fecha_hora).
+     * Las filas que otra transacción tiene bloqueadas se saltan (FOR UPDATE SKIP LOCKED, tiempo de
+     * espera -2): se procesarán en la siguiente ejecución en lugar de esperar por ellas.
+     * @param estado el estado de las citas
+     * @param limite fecha y hora límite (exclusiva)
+     * @param tamano número máximo de filas a devolver
+     * @return lista con los datos de agenda de las citas
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query(SELECT_AGENDA_CITA + "WHERE c.estado = :estado AND c.fechaHora < :limite ORDER BY c.fechaHora ASC")
+    List<AgendaCita> findAgendaVencidas(
+            @Param("estado") EstadoCita estado,
+            @Param("limite") LocalDateTime limite,
+            Limit tamano
+    );
+
+    /**
+     * Busca los IDs de las citas en alguno de los estados dados con fecha anterior a un límite,
+     * de la más antigua a la más reciente.
+     * @param estados los estados a incluir
+     * @param limite fecha y hora límite (exclusiva)
+     * @param tamano número máximo de IDs a devolver
+     * @return lista de IDs de citas
+     */
+    @Query("SELECT c.id FROM Cita c WHERE c.estado IN :estados AND c.fechaHora < :limite " +
+            "ORDER BY c.fechaHora ASC, c.id ASC")
+    List<Long> findIdsAnteriores(
+            @Param("estados") Collection<EstadoCita> estados,
+            @Param("limite") LocalDateTime limite,
+            Limit tamano
+    );
+
+    /**
+     * Elimina varias citas en una sola sentencia. Sus franjas se eliminan en cascada en la base de datos.
+     * @param ids los IDs de las citas
+     * @return el número de citas eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM Cita c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cambia el estado de una cita solo si su estado actual es uno de los predecesores permitidos.
+     * @param id el ID de la cita
+     * @param nuevoEstado el estado destino
+     * @param predecesores los estados desde los que se admite la transición
+     * @return 1 si la cita cambió de estado, 0 si no existe o su estado no lo permite
+     */
+    @Modifying
+    @Query("UPDATE Cita c SET c.estado = :nuevoEstado WHERE c.id = :id AND c.estado IN :predecesores")
+    int actualizarEstado(
+            @Param("id") Long id,
+            @Param("nuevoEstado") EstadoCita nuevoEstado,
+            @Param("predecesores") Collection<EstadoCita> predecesores
+    );
+
+    /**
+     * Cambia en una sola sentencia el estado de varias citas cuyo estado actual lo permite.
+     * @param ids los IDs de las citas
+     * @param nuevoEstado el estado destino
+     * @param predecesores los estados desde los que se admite la transición
+     * @return el número de citas que cambiaron de estado
+     */
+    @Modifying
+    @Query("UPDATE Cita c SET c.estado = :nuevoEstado WHERE c.id IN :ids AND c.estado IN :predecesores")
+    int actualizarEstadoLote(
+            @Param("ids") Collection<Long> ids,
+            @Param("nuevoEstado") EstadoCita nuevoEstado,
+            @Param("predecesores") Collection<EstadoCita> predecesores
+    );
+
+    /**
+     * Cambia en una sola sentencia el estado de las citas de una serie desde una fecha.
+     * @param serieId el ID de la serie
+     * @param desde fecha y hora inicial (inclusive)
+     * @param nuevoEstado el estado destino
+     * @param predecesores los estados desde los que se admite la transición
+     * @return el número de citas que cambiaron de estado
+     */
+    @Modifying
+    @Query("UPDATE Cita c SET c.estado = :nuevoEstado " +
+            "WHERE c.serie.id = :serieId AND c.fechaHora >= :desde AND c.estado IN :predecesores")
+    int actualizarEstadoSerieDesde(
+            @Param("serieId") Long serieId,
+            @Param("desde") LocalDateTime desde,
+            @Param("nuevoEstado") EstadoCita nuevoEstado,
+            @Param("predecesores") Collection<EstadoCita> predecesores
+    );
+
+    /**
+     * Actualiza en una sola sentencia las notas de las citas de una serie desde una fecha.
+     * @param serieId el ID de la serie
+     * @param desde fecha y hora inicial (inclusive)
+     * @param notas las nuevas notas
+     * @return el número de citas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE Cita c SET c.notas = :notas WHERE c.serie.id = :serieId AND c.fechaHora >= :desde")
+    int actualizarNotasSerieDesde(@Param("serieId") Long serieId, @Param("desde") LocalDateTime desde,
+                                  @Param("notas") String notas);
+
     /**
      * Busca citas de un usuario ordenadas por fecha descendente.
      * @param usuarioId el ID del usuario
      * @return lista de citas del usuario ordenadas
      */
-    List<Cita> findByUsuarioIdOrderByFechaHoraDesc(Long usuarioId);
+    @Query(SELECT_CITA_DTO + "WHERE u.id = :usuarioId ORDER BY c.fechaHora DESC")
+    List<CitaDTO> findByUsuarioIdOrderByFechaHoraDesc(@Param("usuarioId") Long usuarioId);
 
     /**
      * Busca citas de un profesional ordenadas por fecha ascendente.
      * @param profesionalId el ID del profesional
      * @return lista de citas del profesional ordenadas
      */
-    List<Cita> findByProfesionalIdOrderByFechaHoraAsc(Long profesionalId);
+    @Query(SELECT_CITA_DTO + "WHERE p.id = :profesionalId ORDER BY c.fechaHora ASC")
+    List<CitaDTO> findByProfesionalIdOrderByFechaHoraAsc(@Param("profesionalId") Long profesionalId);
 
     /**
      * Cuenta el número total de citas en el sistema.
@@ -92,21 +319,87 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
      * @param estado el estado de la cita
      * @return el número de citas con ese estado
      */
-    long countByEstado(String estado);
+    long countByEstado(EstadoCita estado);
 
     /**
      * Busca las próximas citas (futuras) ordenadas por fecha.
      * @param ahora la fecha y hora actual
      * @return lista de citas futuras
      */
-    @Query("SELECT c FROM Cita c WHERE c.fechaHora >= :ahora ORDER BY c.fechaHora ASC")
-    List<Cita> findProximasCitas(@Param("ahora") LocalDateTime ahora);
+    @Query(SELECT_CITA_DTO + "WHERE c.fechaHora >= :ahora ORDER BY c.fechaHora ASC")
+    List<CitaDTO> findProximasCitas(@Param("ahora") LocalDateTime ahora);
 
     /**
      * Busca citas pasadas ordenadas por fecha descendente.
      * @param ahora la fecha y hora actual
      * @return lista de citas pasadas
      */
-    @Query("SELECT c FROM Cita c WHERE c.fechaHora < :ahora ORDER BY c.fechaHora DESC")
-    List<Cita> findCitasPasadas(@Param("ahora") LocalDateTime ahora);
+    @Query(SELECT_CITA_DTO + "WHERE c.fechaHora < :ahora ORDER BY c.fechaHora DESC")
+    List<CitaDTO> findCitasPasadas(@Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Busca la página siguiente de citas en orden ascendente (fechaHora, id) a partir de un cursor,
+     * acotada por una fecha final. Usa búsqueda por clave (keyset) en lugar de OFFSET.
+     * @param fechaHora fecha y hora de la última cita entregada
+     * @param id ID de la última cita entregada
+     * @param fin fecha y hora máxima (inclusive)
+     * @param limite número máximo de filas a devolver
+     * @return lista de citas posteriores al cursor
+     */
+    @Query(SELECT_CITA_DTO +
+            "WHERE (c.fechaHora > :fechaHora OR (c.fechaHora = :fechaHora AND c.id > :id)) " +
+            "AND c.fechaHora <= :fin ORDER BY c.fechaHora ASC, c.id ASC")
+    List<CitaDTO> findPaginaEnRango(
+            @Param("fechaHora") LocalDateTime fechaHora,
+            @Param("id") Long id,
+            @Param("fin") LocalDateTime fin,
+            Limit limite
+    );
+
+    /**
+     * Busca la página siguiente de citas con un estado en orden ascendente (fechaHora, id).
+     * @param estado el estado de la cita
+     * @param fechaHora fecha y hora de la última cita entregada
+     * @param id ID de la última cita entregada
+     * @param limite número máximo de filas a devolver
+     * @return lista de citas posteriores al cursor con ese estado
+     */
+    @Query(SELECT_CITA_DTO + "WHERE c.estado = :estado " +
+            "AND (c.fechaHora > :fechaHora OR (c.fechaHora = :fechaHora AND c.id > :id)) " +
+            "ORDER BY c.fechaHora ASC, c.id ASC")
+    List<CitaDTO> findPaginaPorEstado(
+            @Param("estado") EstadoCita estado,
+            @Param("fechaHora") LocalDateTime fechaHora,
+            @Param("id") Long id,
+            Limit limite
+    );
+
+    /**
+     * Busca la página siguiente de citas anteriores al cursor en orden descendente (fechaHora, id).
+     * @param fechaHora fecha y hora de la última cita entregada (o la fecha actual en la primera página)
+     * @param id ID de la última cita entregada
+     * @param limite número máximo de filas a devolver
+     * @return lista de citas anteriores al cursor
+     */
+    @Query(SELECT_CITA_DTO +
+            "WHERE c.fechaHora < :fechaHora OR (c.fechaHora = :fechaHora AND c.id < :id) " +
+            "ORDER BY c.fechaHora DESC, c.id DESC")
+    List<CitaDTO> findPaginaPasadas(
+            @Param("fechaHora") LocalDateTime fechaHora,
+            @Param("id") Long id,
+            Limit limite
+    );
+
+    /**
+     * Proyección con los datos de agenda de una cita.
+     */
+    interface AgendaCita {
+        Long getId();
+        Long getProfesionalId();
+        Long getServicioId();
+        LocalDateTime getInicio();
+        LocalDateTime getFin();
+        EstadoCita getEstado();
+        Double getPrecio();
+    }
 }
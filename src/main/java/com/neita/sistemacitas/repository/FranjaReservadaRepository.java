@@ -0,0 +1,62 @@
+package com.neita.sistemacitas.repository;
+
+import com.neita.sistemacitas.entity.FranjaReservada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad FranjaReservada.
+ * Proporciona métodos para reservar y liberar franjas de agenda de los profesionales.
+ */
+@Repository
+public interface FranjaReservadaRepository extends JpaRepository<FranjaReservada, Long> {
+
+    /**
+     * Elimina todas las franjas reservadas por una cita en una sola sentencia.
+     * @param citaId el ID de la cita
+     * @return el número de franjas liberadas
+     */
+    @Modifying
+    @Query("DELETE FROM FranjaReservada f WHERE f.cita.id = :citaId")
+    int deleteByCitaId(@Param("citaId") Long citaId);
+
+    /**
+     * Elimina en una sola sentencia las franjas reservadas por varias citas.
+     * @param citaIds los IDs de las citas
+     * @return el número de franjas liberadas
+     */
+    @Modifying
+    @Query("DELETE FROM FranjaReservada f WHERE f.cita.id IN :citaIds")
+    int deleteByCitaIdIn(@Param("citaIds") Collection<Long> citaIds);
+
+    /**
+     * Busca las franjas ocupadas de varios profesionales en un rango de fechas.
+     * Usa el índice único (profesional_id, inicio) y solo lee las columnas necesarias.
+     * @param profesionalIds los IDs de los profesionales
+     * @param desde fecha y hora inicial (inclusive)
+     * @param hasta fecha y hora final (exclusiva)
+     * @return lista de franjas ocupadas
+     */
+    @Query("SELECT f.profesionalId AS profesionalId, f.inicio AS inicio FROM FranjaReservada f " +
+            "WHERE f.profesionalId IN :profesionalIds AND f.inicio >= :desde AND f.inicio < :hasta")
+    List<FranjaOcupada> findFranjasOcupadas(
+            @Param("profesionalIds") Collection<Long> profesionalIds,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta
+    );
+
+    /**
+     * Proyección con los datos mínimos de una franja ocupada.
+     */
+    interface FranjaOcupada {
+        Long getProfesionalId();
+        LocalDateTime getInicio();
+    }
+}
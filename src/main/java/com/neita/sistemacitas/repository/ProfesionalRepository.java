@@ -3,8 +3,10 @@ package com.neita.sistemacitas.repository;
 import com.neita.sistemacitas.entity.Profesional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,11 +18,20 @@ import java.util.Optional;
 public interface ProfesionalRepository extends JpaRepository<Profesional, Long> {
 
     /**
-     * Busca todos los profesionales activos.
+     * Busca todos los profesionales activos junto con su usuario asociado.
      * @return lista de profesionales activos
      */
+    @Query("SELECT p FROM Profesional p JOIN FETCH p.usuario WHERE p.activo = true")
     List<Profesional> findByActivoTrue();
 
+    /**
+     * Busca varios profesionales por ID junto con su usuario asociado en una sola consulta.
+     * @param ids los IDs de los profesionales
+     * @return lista de los profesionales encontrados
+     */
+    @Query("SELECT p FROM Profesional p JOIN FETCH p.usuario WHERE p.id IN :ids")
+    List<Profesional> findAllConUsuarioByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Busca profesionales por especialidad.
      * @param especialidad la especialidad a buscar
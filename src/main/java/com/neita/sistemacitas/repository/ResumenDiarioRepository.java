@@ -0,0 +1,152 @@
+package com.neita.sistemacitas.repository;
+
+import com.neita.sistemacitas.dto.ReporteDTO;
+import com.neita.sistemacitas.entity.ResumenDiario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad ResumenDiario.
+ * Los reportes agregan solo filas de resumen, por lo que su coste depende del número de días
+ * del rango y no del número de citas. Las sentencias nativas declaran la tabla que modifican
+ * para que Hibernate no vacíe la caché de segundo nivel completa.
+ */
+@Repository
+public interface ResumenDiarioRepository extends JpaRepository<ResumenDiario, ResumenDiario.Clave> {
+
+    /**
+     * Totales agregados de los resúmenes; se completa con la agrupación de cada consulta.
+     */
+    String SUMAS = "SUM(r.citas), SUM(r.completadas), SUM(r.canceladas), SUM(r.ingresos), SUM(r.minutosReservados)) ";
+
+    /**
+     * Suma una variación a los contadores de un resumen, creándolo si no existe.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario"))
+    @Query(nativeQuery = true, value = "INSERT INTO resumen_diario " +
+            "(fecha, profesional_id, servicio_id, citas, completadas, canceladas, ingresos, minutos_reservados) " +
+            "VALUES (:fecha, :profesionalId, :servicioId, :citas, :completadas, :canceladas, :ingresos, :minutos) " +
+            "ON DUPLICATE KEY UPDATE citas = citas + VALUES(citas), " +
+            "completadas = completadas + VALUES(completadas), canceladas = canceladas + VALUES(canceladas), " +
+            "ingresos = ingresos + VALUES(ingresos), minutos_reservados = minutos_reservados + VALUES(minutos_reservados)")
+    void acumular(
+            @Param("fecha") LocalDate fecha,
+            @Param("profesionalId") Long profesionalId,
+            @Param("servicioId") Long servicioId,
+            @Param("citas") int citas,
+            @Param("completadas") int completadas,
+            @Param("canceladas") int canceladas,
+            @Param("ingresos") double ingresos,
+            @Param("minutos") int minutos
+    );
+
+    /**
+     * Elimina los resúmenes de un rango de fechas [desde, hasta) para reconstruirlos.
+     * @return el número de filas eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM ResumenDiario r WHERE r.id.fecha >= :desde AND r.id.fecha < :hasta")
+    int deleteEntre(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Vuelve a calcular los resúmenes desde una fecha a partir de las citas activas y archivadas.
+     * Los ingresos suman el precio guardado en cada cita, no el precio actual del servicio.
+     * @return el número de filas creadas
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario"))
+    @Query(nativeQuery = true, value = "INSERT INTO resumen_diario " +
+            "(fecha, profesional_id, servicio_id, citas, completadas, canceladas, ingresos, minutos_reservados) " +
+            "SELECT DATE(c.fecha_hora), c.profesional_id, c.servicio_id, COUNT(*), " +
+            "SUM(CASE WHEN c.estado = 'COMPLETADA' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.estado = 'CANCELADA' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.estado = 'COMPLETADA' THEN c.precio ELSE 0 END), " +
+            "COALESCE(SUM(CASE WHEN c.estado <> 'CANCELADA' " +
+            "THEN TIMESTAMPDIFF(MINUTE, c.fecha_hora, c.fecha_hora_fin) ELSE 0 END), 0) " +
+            "FROM (SELECT fecha_hora, fecha_hora_fin, estado, precio, profesional_id, servicio_id FROM cita " +
+            "WHERE fecha_hora >= :desde " +
+            "UNION ALL SELECT fecha_hora, fecha_hora_fin, estado, precio, profesional_id, servicio_id FROM cita_historico " +
+            "WHERE fecha_hora >= :desde) c " +
+            "GROUP BY DATE(c.fecha_hora), c.profesional_id, c.servicio_id")
+    int reconstruirDesde(@Param("desde") LocalDate desde);
+
+    /**
+     * Vuelve a calcular los resúmenes de un rango de fechas [desde, hasta) a partir de las citas
+     * activas y archivadas, con el precio guardado en cada cita.
+     * @return el número de filas creadas
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario"))
+    @Query(nativeQuery = true, value = "INSERT INTO resumen_diario " +
+            "(fecha, profesional_id, servicio_id, citas, completadas, canceladas, ingresos, minutos_reservados) " +
+            "SELECT DATE(c.fecha_hora), c.profesional_id, c.servicio_id, COUNT(*), " +
+            "SUM(CASE WHEN c.estado = 'COMPLETADA' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.estado = 'CANCELADA' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.estado = 'COMPLETADA' THEN c.precio ELSE 0 END), " +
+            "COALESCE(SUM(CASE WHEN c.estado <> 'CANCELADA' " +
+            "THEN TIMESTAMPDIFF(MINUTE, c.fecha_hora, c.fecha_hora_fin) ELSE 0 END), 0) " +
+            "FROM (SELECT fecha_hora, fecha_hora_fin, estado, precio, profesional_id, servicio_id FROM cita " +
+            "WHERE fecha_hora >= :desde AND fecha_hora < :hasta " +
+            "UNION ALL SELECT fecha_hora, fecha_hora_fin, estado, precio, profesional_id, servicio_id FROM cita_historico " +
+            "WHERE fecha_hora >= :desde AND fecha_hora < :hasta) c " +
+            "GROUP BY DATE(c.fecha_hora), c.profesional_id, c.servicio_id")
+    int reconstruirEntre(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Totales por día en un rango de fechas, opcionalmente filtrados por profesional y servicio.
+     */
+    @Query("SELECT new com.neita.sistemacitas.dto.ReporteDTO(r.id.fecha, " + SUMAS +
+            "FROM ResumenDiario r WHERE r.id.fecha BETWEEN :desde AND :hasta " +
+            "AND (:profesionalId IS NULL OR r.id.profesionalId = :profesionalId) " +
+            "AND (:servicioId IS NULL OR r.id.servicioId = :servicioId) " +
+            "GROUP BY r.id.fecha ORDER BY r.id.fecha")
+    List<ReporteDTO> findTotalesPorDia(
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta,
+            @Param("profesionalId") Long profesionalId,
+            @Param("servicioId") Long servicioId
+    );
+
+    /**
+     * Totales por mes en un rango de fechas, opcionalmente filtrados por profesional y servicio.
+     */
+    @Query("SELECT new com.neita.sistemacitas.dto.ReporteDTO(YEAR(r.id.fecha), MONTH(r.id.fecha), " + SUMAS +
+            "FROM ResumenDiario r WHERE r.id.fecha BETWEEN :desde AND :hasta " +
+            "AND (:profesionalId IS NULL OR r.id.profesionalId = :profesionalId) " +
+            "AND (:servicioId IS NULL OR r.id.servicioId = :servicioId) " +
+            "GROUP BY YEAR(r.id.fecha), MONTH(r.id.fecha) ORDER BY YEAR(r.id.fecha), MONTH(r.id.fecha)")
+    List<ReporteDTO> findTotalesPorMes(
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta,
+            @Param("profesionalId") Long profesionalId,
+            @Param("servicioId") Long servicioId
+    );
+
+    /**
+     * Totales por profesional en un rango de fechas.
+     */
+    @Query("SELECT new com.neita.sistemacitas.dto.ReporteDTO(p.id, u.nombre, " + SUMAS +
+            "FROM ResumenDiario r JOIN Profesional p ON p.id = r.id.profesionalId JOIN p.usuario u " +
+            "WHERE r.id.fecha BETWEEN :desde AND :hasta " +
+            "GROUP BY p.id, u.nombre ORDER BY SUM(r.ingresos) DESC")
+    List<ReporteDTO> findTotalesPorProfesional(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Totales por servicio en un rango de fechas.
+     */
+    @Query("SELECT new com.neita.sistemacitas.dto.ReporteDTO(s.id, s.nombre, " + SUMAS +
+            "FROM ResumenDiario r JOIN Servicio s ON s.id = r.id.servicioId " +
+            "WHERE r.id.fecha BETWEEN :desde AND :hasta " +
+            "GROUP BY s.id, s.nombre ORDER BY SUM(r.ingresos) DESC")
+    List<ReporteDTO> findTotalesPorServicio(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+}
@@ -0,0 +1,13 @@
+package com.neita.sistemacitas.repository;
+
+import com.neita.sistemacitas.entity.SerieCita;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio para la entidad SerieCita.
+ * Proporciona métodos para acceder y manipular datos de series de citas en la base de datos.
+ */
+@Repository
+public interface SerieCitaRepository extends JpaRepository<SerieCita, Long> {
+}
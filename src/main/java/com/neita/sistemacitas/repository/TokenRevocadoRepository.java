@@ -0,0 +1,45 @@
+package com.neita.sistemacitas.repository;
+
+import com.neita.sistemacitas.entity.TokenRevocado;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad TokenRevocado.
+ */
+@Repository
+public interface TokenRevocadoRepository extends JpaRepository<TokenRevocado, String> {
+
+    /**
+     * Busca los tokens revocados que aún no han expirado.
+     */
+    List<TokenRevocado> findByExpiracionAfter(LocalDateTime instante);
+
+    /**
+     * Inserta un token revocado sin actualizar una fila existente: si el jti ya está guardado,
+     * la clave primaria duplicada hace fallar la inserción.
+     * Declara la tabla que modifica para que Hibernate no vacíe la caché de segundo nivel completa.
+     * @return el número de filas insertadas
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "token_revocado"))
+    @Query(nativeQuery = true, value = "INSERT INTO token_revocado (jti, expiracion) VALUES (:jti, :expiracion)")
+    int insertar(@Param("jti") String jti, @Param("expiracion") LocalDateTime expiracion);
+
+    /**
+     * Elimina los tokens revocados que ya expiraron.
+     * @return el número de filas eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM TokenRevocado t WHERE t.expiracion < :instante")
+    int deleteExpiradosAntesDe(@Param("instante") LocalDateTime instante);
+}
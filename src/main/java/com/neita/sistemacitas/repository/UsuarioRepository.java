@@ -1,12 +1,19 @@
 package com.neita.sistemacitas.repository;
 
+import com.neita.sistemacitas.dto.UsuarioDTO;
 import com.neita.sistemacitas.entity.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad Usuario.
@@ -22,6 +29,16 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
      */
     Optional<Usuario> findByEmail(String email);
 
+    /**
+     * Busca los datos necesarios para autenticar a un usuario por su email.
+     * No carga la entidad Usuario para evitar la consulta adicional de su profesional asociado.
+     * @param email el email del usuario
+     * @return un Optional con las credenciales del usuario si existe
+     */
+    @Query("SELECT u.email AS email, u.password AS password, u.rol AS rol, u.activo AS activo " +
+            "FROM Usuario u WHERE u.email = :email")
+    Optional<CredencialesUsuario> findCredencialesByEmail(@Param("email") String email);
+
     /**
      * Verifica si existe un usuario con el email especificado.
      * @param email el email a verificar
@@ -49,10 +66,48 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
      */
     List<Usuario> findByRol(String rol);
 
+    /**
+     * Recorre todos los usuarios como DTO sin materializar la lista completa ni cargar
+     * el profesional asociado. El Stream debe cerrarse y consumirse dentro de una transacción.
+     * @return stream de todos los usuarios
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.neita.sistemacitas.dto.UsuarioDTO(" +
+            "u.id, u.nombre, u.email, u.telefono, u.fechaRegistro, u.rol, u.activo) " +
+            "FROM Usuario u ORDER BY u.id ASC")
+    Stream<UsuarioDTO> streamAllDTO();
+
+    /**
+     * Busca el nombre de varios usuarios por ID en una sola consulta.
+     * No carga la entidad Usuario para evitar la consulta adicional de su profesional asociado.
+     * @param ids los IDs de los usuarios
+     * @return lista con el ID y el nombre de los usuarios encontrados
+     */
+    @Query("SELECT u.id AS id, u.nombre AS nombre FROM Usuario u WHERE u.id IN :ids")
+    List<NombreUsuario> findNombresByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Cuenta el número de usuarios activos en el sistema.
      * @return el número de usuarios activos
      */
     @Query("SELECT COUNT(u) FROM Usuario u WHERE u.activo = true")
     long countUsuariosActivos();
+
+    /**
+     * Proyección con el ID y el nombre de un usuario.
+     */
+    interface NombreUsuario {
+        Long getId();
+        String getNombre();
+    }
+
+    /**
+     * Proyección con los datos de autenticación de un usuario.
+     */
+    interface CredencialesUsuario {
+        String getEmail();
+        String getPassword();
+        String getRol();
+        Boolean getActivo();
+    }
 }
@@ -0,0 +1,31 @@
+package com.neita.sistemacitas.repository;
+
+import com.neita.sistemacitas.entity.UsuarioRevocado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad UsuarioRevocado.
+ */
+@Repository
+public interface UsuarioRevocadoRepository extends JpaRepository<UsuarioRevocado, String> {
+
+    /**
+     * Busca las revocaciones de usuario posteriores a un instante.
+     */
+    List<UsuarioRevocado> findByRevocadoHastaAfter(LocalDateTime instante);
+
+    /**
+     * Elimina las revocaciones de usuario anteriores a un instante.
+     * @return el número de filas eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM UsuarioRevocado u WHERE u.revocadoHasta < :instante")
+    int deleteAnterioresA(@Param("instante") LocalDateTime instante);
+}
@@ -0,0 +1,277 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.dto.AgendaEventoDTO;
+import com.neita.sistemacitas.dto.CitaDTO;
+import com.neita.sistemacitas.event.CitaEvento;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio que envía por Server-Sent Events la agenda del día de un profesional y sus cambios.
+ * Al suscribirse se envía la agenda completa una vez; después solo se envían las citas que cambian,
+ * a partir de los CitaEvento de cada transacción, que se envían tras el commit. Las citas cambiadas en
+ * una transacción se leen con una sola consulta.
+ * Cada suscriptor tiene una cola acotada y un hilo virtual que es el único que escribe en su conexión,
+ * de modo que un cliente lento nunca bloquea al que publica el evento: si su cola se llena, se expulsa.
+ * Un error al publicar nunca llega a quien confirmó la transacción, cuyo cambio ya está guardado: si no se
+ * pueden leer los cambios, se cierran las suscripciones afectadas para que el cliente se reconecte.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AgendaEnVivoService {
+
+    private final CitaService citaService;
+
+    @Value("${app.agenda-en-vivo.capacidad-cola:64}")
+    private int capacidadCola;
+
+    @Value("${app.agenda-en-vivo.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<Long, Set<Suscriptor>> suscriptores = new ConcurrentHashMap<>();
+    private final AtomicLong expulsados = new AtomicLong();
+
+    /**
+     * Abre una suscripción a la agenda de un profesional para un día.
+     * La suscripción se registra antes de leer la agenda para no perder cambios confirmados mientras
+     * tanto; como los cambios se aplican por ID, recibir uno que ya estaba en la agenda no tiene efecto.
+     */
+    public SseEmitter suscribir(Long profesionalId, LocalDate fecha) {
+        Suscriptor suscriptor = new Suscriptor(profesionalId, fecha, new SseEmitter(timeoutMs),
+                new LinkedBlockingDeque<>(capacidadCola));
+        suscriptores.computeIfAbsent(profesionalId, id -> ConcurrentHashMap.newKeySet()).add(suscriptor);
+
+        List<CitaDTO> agenda;
+        try {
+            agenda = citaService.obtenerAgendaDelDia(profesionalId, fecha);
+        } catch (RuntimeException e) {
+            retirar(suscriptor);
+            throw e;
+        }
+        // La agenda completa se envía antes que cualquier cambio ya encolado
+        if (!suscriptor.cola.offerFirst(SseEmitter.event().name("agenda").data(agenda, MediaType.APPLICATION_JSON))) {
+            retirar(suscriptor);
+            throw new IllegalStateException("La agenda cambió demasiadas veces durante la suscripción");
+        }
+
+        suscriptor.emitter.onCompletion(() -> retirar(suscriptor));
+        suscriptor.emitter.onTimeout(() -> retirar(suscriptor));
+        suscriptor.emitter.onError(error -> retirar(suscriptor));
+        suscriptor.escritor = Thread.ofVirtual()
+                .name("agenda-sse-" + profesionalId)
+                .start(() -> escribir(suscriptor));
+
+        log.debug("Nueva suscripción a la agenda del profesional {} para el {}", profesionalId, fecha);
+        return suscriptor.emitter;
+    }
+
+    /**
+     * Acumula el cambio de una cita en los pendientes de la transacción en curso; tras el commit se
+     * encolan para los suscriptores del profesional y el día afectados.
+     * Se ejecuta de forma síncrona, dentro de la transacción que publica el evento.
+     */
+    @EventListener
+    public void alCambiarCita(CitaEvento evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publicar(List.of(evento));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<CitaEvento> pendientes = (List<CitaEvento>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            List<CitaEvento> nuevos = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publicar(nuevos);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AgendaEnVivoService.this);
+                }
+            });
+            pendientes = nuevos;
+        }
+        pendientes.add(evento);
+    }
+
+    /**
+     * Envía un comentario periódico para detectar las conexiones cerradas por el cliente.
+     */
+    @Scheduled(fixedDelayString = "${app.agenda-en-vivo.latido-ms:30000}")
+    public void enviarLatido() {
+        suscriptores.values().forEach(conjunto -> conjunto.forEach(
+                suscriptor -> encolar(suscriptor, SseEmitter.event().comment("latido"))));
+    }
+
+    public int contarSuscriptores() {
+        return suscriptores.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public long contarExpulsados() {
+        return expulsados.get();
+    }
+
+    private static boolean afecta(Suscriptor suscriptor, CitaEvento.Instantanea cita) {
+        return cita.getProfesionalId().equals(suscriptor.profesionalId)
+                && cita.getInicio().toLocalDate().equals(suscriptor.fecha);
+    }
+
+    /**
+     * Encola los cambios de una transacción sin propagar errores. Se ejecuta tras el commit, en el hilo
+     * de quien lo confirmó, al que Spring devolvería cualquier excepción aunque el cambio ya esté guardado.
+     */
+    private void publicar(List<CitaEvento> eventos) {
+        try {
+            encolarCambios(eventos);
+        } catch (RuntimeException e) {
+            log.error("No se pudieron publicar {} cambios en la agenda en vivo", eventos.size(), e);
+        }
+    }
+
+    /**
+     * Encola los cambios de una transacción. Si la cita cambia de profesional o de día, se avisa tanto
+     * a la agenda anterior como a la nueva. Las citas que siguen existiendo se leen con una sola consulta.
+     */
+    private void encolarCambios(List<CitaEvento> eventos) {
+        List<Cambio> cambios = new ArrayList<>();
+        Set<Long> citaIds = new HashSet<>();
+        for (CitaEvento evento : eventos) {
+            Set<Suscriptor> afectados = new LinkedHashSet<>();
+            for (CitaEvento.Instantanea cita : Arrays.asList(evento.getAnterior(), evento.getActual())) {
+                if (cita != null) {
+                    suscriptores.getOrDefault(cita.getProfesionalId(), Set.of()).stream()
+                            .filter(suscriptor -> afecta(suscriptor, cita))
+                            .forEach(afectados::add);
+                }
+            }
+            if (!afectados.isEmpty()) {
+                cambios.add(new Cambio(evento, afectados));
+                if (evento.getActual() != null) {
+                    citaIds.add(evento.getCitaId());
+                }
+            }
+        }
+        if (cambios.isEmpty()) {
+            return;
+        }
+
+        // Una cita que ya no existe se envía sin datos, igual que una eliminada
+        Map<Long, CitaDTO> citas;
+        try {
+            citas = citaIds.isEmpty() ? Map.of() : citaService.obtenerPorIds(citaIds).stream()
+                    .collect(Collectors.toMap(CitaDTO::getId, Function.identity()));
+        } catch (RuntimeException e) {
+            // Sin estos cambios las agendas quedarían desfasadas: se cierran para que el cliente las recargue
+            Set<Suscriptor> afectados = new HashSet<>();
+            cambios.forEach(cambio -> afectados.addAll(cambio.afectados()));
+            log.error("No se pudieron leer {} citas cambiadas; se cierran {} suscripciones a la agenda",
+                    citaIds.size(), afectados.size(), e);
+            afectados.forEach(this::retirar);
+            return;
+        }
+        for (Cambio cambio : cambios) {
+            CitaEvento evento = cambio.evento();
+            AgendaEventoDTO dto = new AgendaEventoDTO(evento.getTipo(), evento.getCitaId(),
+                    evento.getActual() != null ? citas.get(evento.getCitaId()) : null);
+            for (Suscriptor suscriptor : cambio.afectados()) {
+                encolar(suscriptor, SseEmitter.event().name("cita").data(dto, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    /**
+     * Encola un evento sin bloquear; si la cola del suscriptor está llena, se expulsa.
+     */
+    private void encolar(Suscriptor suscriptor, SseEmitter.SseEventBuilder evento) {
+        if (!suscriptor.cola.offer(evento)) {
+            log.warn("Suscriptor lento de la agenda del profesional {} expulsado", suscriptor.profesionalId);
+            expulsados.incrementAndGet();
+            retirar(suscriptor);
+        }
+    }
+
+    private void retirar(Suscriptor suscriptor) {
+        suscriptores.computeIfPresent(suscriptor.profesionalId, (id, conjunto) -> {
+            conjunto.remove(suscriptor);
+            return conjunto.isEmpty() ? null : conjunto;
+        });
+        suscriptor.cerrado = true;
+        Thread escritor = suscriptor.escritor;
+        if (escritor != null) {
+            escritor.interrupt();
+        }
+    }
+
+    /**
+     * Bucle del hilo virtual de un suscriptor: envía los eventos de su cola hasta que se retira.
+     */
+    private void escribir(Suscriptor suscriptor) {
+        try {
+            while (!suscriptor.cerrado) {
+                suscriptor.emitter.send(suscriptor.cola.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Conexión de la agenda del profesional {} cerrada: {}", suscriptor.profesionalId, e.getMessage());
+        } finally {
+            retirar(suscriptor);
+            suscriptor.emitter.complete();
+        }
+    }
+
+    /**
+     * Cambio de una cita pendiente de enviar a los suscriptores afectados.
+     */
+    private record Cambio(CitaEvento evento, Set<Suscriptor> afectados) {
+    }
+
+    /**
+     * Conexión abierta a la agenda de un profesional en un día.
+     */
+    private static class Suscriptor {
+        private final Long profesionalId;
+        private final LocalDate fecha;
+        private final SseEmitter emitter;
+        private final BlockingDeque<SseEmitter.SseEventBuilder> cola;
+        private volatile Thread escritor;
+        private volatile boolean cerrado;
+
+        private Suscriptor(Long profesionalId, LocalDate fecha, SseEmitter emitter,
+                           BlockingDeque<SseEmitter.SseEventBuilder> cola) {
+            this.profesionalId = profesionalId;
+            this.fecha = fecha;
+            this.emitter = emitter;
+            this.cola = cola;
+        }
+    }
+}
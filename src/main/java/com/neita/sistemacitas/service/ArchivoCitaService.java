@@ -0,0 +1,87 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.entity.EstadoCita;
+import com.neita.sistemacitas.repository.CitaHistoricaRepository;
+import com.neita.sistemacitas.repository.CitaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Servicio que mueve las citas finalizadas antiguas de cita a cita_historico.
+ * Cada lote se procesa en su propia transacción corta: una lectura de IDs sobre el índice (fecha_hora, id),
+ * un INSERT ... SELECT y un DELETE por esos IDs. Las franjas de las citas archivadas se eliminan en cascada.
+ * Mantiene en memoria la frontera del archivo (la fecha de la cita archivada más reciente) para que
+ * las consultas solo lean cita_historico cuando llegan a fechas que pueden estar archivadas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ArchivoCitaService {
+
+    /**
+     * Estados que ya no admiten transiciones y, por tanto, pueden archivarse.
+     */
+    public static final Set<EstadoCita> ESTADOS_ARCHIVABLES =
+            EnumSet.of(EstadoCita.COMPLETADA, EstadoCita.CANCELADA, EstadoCita.EXPIRADA);
+
+    private final CitaRepository citaRepository;
+    private final CitaHistoricaRepository citaHistoricaRepository;
+
+    // Vacía hasta la primera consulta; Optional.empty() cuando el archivo no tiene citas
+    private final AtomicReference<Optional<LocalDateTime>> frontera = new AtomicReference<>();
+
+    /**
+     * Archiva un lote de citas finalizadas con fecha anterior al límite.
+     * @return el número de citas archivadas; 0 cuando ya no quedan citas por archivar
+     */
+    @Transactional
+    public int archivarLote(LocalDateTime limite, int tamano) {
+        List<Long> ids = citaRepository.findIdsAnteriores(ESTADOS_ARCHIVABLES, limite, Limit.of(tamano));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        int copiadas = citaHistoricaRepository.copiarDesdeCita(ids);
+        int eliminadas = citaRepository.deleteByIdIn(ids);
+        if (copiadas != eliminadas) {
+            throw new IllegalStateException("Se copiaron " + copiadas + " citas al archivo pero se eliminaron "
+                    + eliminadas + "; se revierte el lote");
+        }
+        log.debug("Archivadas {} citas anteriores a {}", eliminadas, limite);
+        return eliminadas;
+    }
+
+    /**
+     * Obtiene la fecha de la cita archivada más reciente.
+     * Las citas con fecha posterior a la frontera están siempre en la tabla cita.
+     * @return la frontera, o null si el archivo está vacío
+     */
+    @Transactional(readOnly = true)
+    public LocalDateTime obtenerFrontera() {
+        Optional<LocalDateTime> actual = frontera.get();
+        if (actual == null) {
+            actual = Optional.ofNullable(citaHistoricaRepository.findFechaMaxima());
+            frontera.compareAndSet(null, actual);
+        }
+        return actual.orElse(null);
+    }
+
+    /**
+     * Vuelve a leer la frontera del archivo tras una ejecución del archivado.
+     */
+    @Transactional(readOnly = true)
+    public void actualizarFrontera() {
+        frontera.set(Optional.ofNullable(citaHistoricaRepository.findFechaMaxima()));
+        log.debug("Frontera del archivo de citas: {}", frontera.get().orElse(null));
+    }
+}
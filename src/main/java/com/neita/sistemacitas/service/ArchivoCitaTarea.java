@@ -0,0 +1,64 @@
+package com.neita.sistemacitas.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tarea programada que archiva las citas finalizadas más antiguas que la antigüedad configurada.
+ * Se ejecuta fuera del horario de atención y procesa lotes acotados hasta que no quedan citas por archivar.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ArchivoCitaTarea {
+
+    private final ArchivoCitaService archivoCitaService;
+
+    @Value("${app.archivo.tamano-lote:1000}")
+    private int tamanoLote;
+
+    @Value("${app.archivo.antiguedad-dias:180}")
+    private int antiguedadDias;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean();
+
+    /**
+     * Archiva las citas finalizadas cuya fecha es anterior a la antigüedad configurada.
+     */
+    @Scheduled(cron = "${app.archivo.cron:0 30 2 * * *}")
+    public void ejecutar() {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            log.debug("El archivado de citas ya está en ejecución");
+            return;
+        }
+        long inicio = System.nanoTime();
+        LocalDateTime limite = LocalDateTime.now().minusDays(antiguedadDias);
+        int lotes = 0;
+        long total = 0;
+
+        try {
+            int archivadas;
+            do {
+                archivadas = archivoCitaService.archivarLote(limite, tamanoLote);
+                total += archivadas;
+                lotes++;
+            } while (archivadas == tamanoLote);
+            log.info("Archivadas {} citas anteriores a {} en {} lotes ({} ms)",
+                    total, limite, lotes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        } catch (RuntimeException e) {
+            log.error("Error al archivar citas tras {} lotes: {}", lotes, e.getMessage(), e);
+        } finally {
+            if (total > 0) {
+                archivoCitaService.actualizarFrontera();
+            }
+            enEjecucion.set(false);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.config.CacheConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caché de los usuarios ya autenticados, usada por el proveedor de autenticación para no consultar
+ * la base de datos en cada login o petición con HTTP Basic. La contraseña se sigue comprobando con
+ * BCrypt contra el hash guardado; si no coincide, el proveedor vuelve a cargar el usuario.
+ * Se guardan y se devuelven copias: Spring Security borra la contraseña del usuario autenticado
+ * tras cada login, y sin copia la borraría también de la caché.
+ * UsuarioService invalida la entrada al modificar o eliminar el usuario.
+ */
+@Service
+@Slf4j
+public class CacheAutenticacionService implements UserCache {
+
+    private final Cache cache;
+
+    public CacheAutenticacionService(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CacheConfig.USUARIOS_AUTENTICADOS);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails usuario = cache.get(username, UserDetails.class);
+        return usuario == null ? null : User.withUserDetails(usuario).build();
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), User.withUserDetails(user).build());
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        log.debug("Invalidando usuario autenticado en caché: {}", username);
+        cache.evict(username);
+    }
+}
@@ -1,37 +1,83 @@
 package com.neita.sistemacitas.service;
 
 import com.neita.sistemacitas.dto.CitaDTO;
+import com.neita.sistemacitas.dto.CursorCita;
+import com.neita.sistemacitas.dto.PaginaCursor;
+import com.neita.sistemacitas.dto.ResultadoLoteDTO;
 import com.neita.sistemacitas.entity.Cita;
+import com.neita.sistemacitas.entity.EstadoCita;
 import com.neita.sistemacitas.entity.Profesional;
 import com.neita.sistemacitas.entity.Servicio;
 import com.neita.sistemacitas.entity.Usuario;
+import com.neita.sistemacitas.event.CitaEvento;
+import com.neita.sistemacitas.exception.HorarioNoDisponibleException;
 import com.neita.sistemacitas.exception.ResourceNotFoundException;
+import com.neita.sistemacitas.exception.TransicionEstadoInvalidaException;
+import com.neita.sistemacitas.repository.CitaHistoricaRepository;
 import com.neita.sistemacitas.repository.CitaRepository;
 import com.neita.sistemacitas.repository.ProfesionalRepository;
 import com.neita.sistemacitas.repository.ServicioRepository;
 import com.neita.sistemacitas.repository.UsuarioRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Servicio para gestionar operaciones relacionadas con citas.
  * Implementa la lógica de negocio y validaciones necesarias.
  */
 @Service
+@Timed("servicio.metodos")
 @RequiredArgsConstructor
 @Slf4j
 public class CitaService {
 
+    /**
+     * Límite máximo de elementos por página en los listados paginados.
+     */
+    public static final int LIMITE_MAXIMO = 500;
+
+    /**
+     * Número máximo de citas que se pueden crear en un lote.
+     */
+    public static final int TAMANO_MAXIMO_LOTE = 500;
+
+    // Cotas del tipo DATETIME de MySQL, usadas como cursor inicial en listados sin fecha
+    private static final LocalDateTime FECHA_MINIMA = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime FECHA_MAXIMA = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final CitaRepository citaRepository;
+    private final CitaHistoricaRepository citaHistoricaRepository;
+    private final ArchivoCitaService archivoCitaService;
     private final UsuarioRepository usuarioRepository;
     private final ServicioRepository servicioRepository;
     private final ProfesionalRepository profesionalRepository;
+    private final ReservaFranjaService reservaFranjaService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Obtiene todas las citas del sistema.
@@ -39,31 +85,54 @@ public class CitaService {
     @Transactional(readOnly = true)
     public List<CitaDTO> obtenerTodas() {
         log.debug("Obteniendo todas las citas");
-        return citaRepository.findAll().stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+        return citaRepository.findAllDTO();
     }
 
     /**
-     * Obtiene una cita por su ID.
+     * Recorre todas las citas del sistema entregándolas una a una al consumidor,
+     * sin mantener la lista completa en memoria.
+     */
+    @Transactional(readOnly = true)
+    public void recorrerTodas(Consumer<CitaDTO> consumidor) {
+        log.debug("Recorriendo todas las citas en modo streaming");
+        try (Stream<CitaDTO> citas = citaRepository.streamAllDTO()) {
+            citas.forEach(consumidor);
+        }
+    }
+
+    /**
+     * Obtiene una cita por su ID. Si no está en la tabla cita se busca en el archivo.
      */
     @Transactional(readOnly = true)
     public CitaDTO obtenerPorId(Long id) {
         log.debug("Obteniendo cita con ID: {}", id);
-        Cita cita = citaRepository.findById(id)
+        return citaRepository.findDTOById(id)
+                .or(() -> citaHistoricaRepository.findDTOById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Cita no encontrada con ID: " + id));
-        return convertirADTO(cita);
     }
 
     /**
-     * Obtiene todas las citas de un usuario.
+     * Obtiene varias citas por sus IDs con una sola consulta. No se busca en el archivo: solo
+     * incluye las citas que siguen en la tabla cita.
+     */
+    @Transactional(readOnly = true)
+    public List<CitaDTO> obtenerPorIds(Collection<Long> ids) {
+        return citaRepository.findDTOByIdIn(ids);
+    }
+
+    /**
+     * Obtiene todas las citas de un usuario, incluidas las archivadas, de la más reciente a la más antigua.
+     * El archivo solo se consulta si contiene citas.
      */
     @Transactional(readOnly = true)
     public List<CitaDTO> obtenerPorUsuario(Long usuarioId) {
         log.debug("Obteniendo citas del usuario con ID: {}", usuarioId);
-        return citaRepository.findByUsuarioIdOrderByFechaHoraDesc(usuarioId).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+        List<CitaDTO> citas = citaRepository.findByUsuarioIdOrderByFechaHoraDesc(usuarioId);
+        if (archivoCitaService.obtenerFrontera() == null) {
+            return citas;
+        }
+        return mezclarDescendente(citas, citaHistoricaRepository.findByUsuarioIdOrderByFechaHoraDesc(usuarioId),
+                Integer.MAX_VALUE);
     }
 
     /**
@@ -72,9 +141,20 @@ public class CitaService {
     @Transactional(readOnly = true)
     public List<CitaDTO> obtenerPorProfesional(Long profesionalId) {
         log.debug("Obteniendo citas del profesional con ID: {}", profesionalId);
-        return citaRepository.findByProfesionalIdOrderByFechaHoraAsc(profesionalId).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+        return citaRepository.findByProfesionalIdOrderByFechaHoraAsc(profesionalId);
+    }
+
+    /**
+     * Obtiene las citas de un profesional en un día, ordenadas por hora.
+     */
+    @Transactional(readOnly = true)
+    public List<CitaDTO> obtenerAgendaDelDia(Long profesionalId, LocalDate fecha) {
+        log.debug("Obteniendo agenda del profesional con ID: {} para el {}", profesionalId, fecha);
+        if (!profesionalRepository.existsById(profesionalId)) {
+            throw new ResourceNotFoundException("Profesional no encontrado con ID: " + profesionalId);
+        }
+        return citaRepository.findAgendaDelProfesional(
+                profesionalId, fecha.atStartOfDay(), fecha.plusDays(1).atStartOfDay());
     }
 
     /**
@@ -83,53 +163,68 @@ public class CitaService {
     @Transactional(readOnly = true)
     public List<CitaDTO> obtenerPorServicio(Long servicioId) {
         log.debug("Obteniendo citas del servicio con ID: {}", servicioId);
-        return citaRepository.findByServicioId(servicioId).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+        return citaRepository.findByServicioId(servicioId);
+    }
+
+    /**
+     * Obtiene una página de todas las citas ordenadas por fecha.
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<CitaDTO> obtenerPaginaTodas(String cursor, int limite) {
+        log.debug("Obteniendo página de citas desde cursor {}", cursor);
+        return obtenerPaginaEnRango(FECHA_MINIMA, FECHA_MAXIMA, cursor, limite);
     }
 
     /**
-     * Obtiene citas por estado.
+     * Obtiene una página de las próximas citas (futuras).
      */
     @Transactional(readOnly = true)
-    public List<CitaDTO> obtenerPorEstado(String estado) {
-        log.debug("Obteniendo citas con estado: {}", estado);
-        return citaRepository.findByEstado(estado).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaCursor<CitaDTO> obtenerPaginaProximas(String cursor, int limite) {
+        log.debug("Obteniendo página de próximas citas desde cursor {}", cursor);
+        return obtenerPaginaEnRango(LocalDateTime.now(), FECHA_MAXIMA, cursor, limite);
     }
 
     /**
-     * Obtiene las próximas citas (futuras).
+     * Obtiene una página de citas en un rango de fechas.
      */
     @Transactional(readOnly = true)
-    public List<CitaDTO> obtenerProximas() {
-        log.debug("Obteniendo próximas citas");
-        return citaRepository.findProximasCitas(LocalDateTime.now()).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaCursor<CitaDTO> obtenerPaginaPorRangoFechas(LocalDateTime inicio, LocalDateTime fin,
+                                                            String cursor, int limite) {
+        log.debug("Obteniendo página de citas entre {} y {} desde cursor {}", inicio, fin, cursor);
+        return obtenerPaginaEnRango(inicio, fin, cursor, limite);
     }
 
     /**
-     * Obtiene citas pasadas.
+     * Obtiene una página de citas por estado.
      */
     @Transactional(readOnly = true)
-    public List<CitaDTO> obtenerPasadas() {
-        log.debug("Obteniendo citas pasadas");
-        return citaRepository.findCitasPasadas(LocalDateTime.now()).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaCursor<CitaDTO> obtenerPaginaPorEstado(EstadoCita estado, String cursor, int limite) {
+        log.debug("Obteniendo página de citas con estado {} desde cursor {}", estado, cursor);
+        CursorCita posicion = resolverCursor(cursor, FECHA_MINIMA, 0L);
+        int tamano = validarLimite(limite);
+        return construirPagina(citaRepository.findPaginaPorEstado(
+                estado, posicion.getFechaHora(), posicion.getId(), Limit.of(tamano + 1)), tamano);
     }
 
     /**
-     * Obtiene citas en un rango de fechas.
+     * Obtiene una página de citas pasadas, de la más reciente a la más antigua.
+     * El archivo solo se consulta cuando la página llega a la frontera del archivo: si la última fila
+     * leída de cita es posterior a la frontera, ninguna cita archivada puede entrar en la página.
      */
     @Transactional(readOnly = true)
-    public List<CitaDTO> obtenerPorRangoFechas(LocalDateTime inicio, LocalDateTime fin) {
-        log.debug("Obteniendo citas entre {} y {}", inicio, fin);
-        return citaRepository.findByFechaHoraBetween(inicio, fin).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaCursor<CitaDTO> obtenerPaginaPasadas(String cursor, int limite) {
+        log.debug("Obteniendo página de citas pasadas desde cursor {}", cursor);
+        CursorCita posicion = resolverCursor(cursor, LocalDateTime.now(), 0L);
+        int tamano = validarLimite(limite);
+        List<CitaDTO> filas = citaRepository.findPaginaPasadas(
+                posicion.getFechaHora(), posicion.getId(), Limit.of(tamano + 1));
+
+        LocalDateTime frontera = archivoCitaService.obtenerFrontera();
+        if (frontera != null && (filas.size() <= tamano || !filas.get(tamano).getFechaHora().isAfter(frontera))) {
+            filas = mezclarDescendente(filas, citaHistoricaRepository.findPaginaPasadas(
+                    posicion.getFechaHora(), posicion.getId(), Limit.of(tamano + 1)), tamano + 1);
+        }
+        return construirPagina(filas, tamano);
     }
 
     /**
@@ -151,19 +246,156 @@ public class CitaService {
 
         Cita cita = new Cita();
         cita.setFechaHora(citaDTO.getFechaHora());
-        cita.setEstado(citaDTO.getEstado() != null ? citaDTO.getEstado() : "PENDIENTE");
+        cita.setFechaHoraFin(citaDTO.getFechaHora().plusMinutes(servicio.getDuracionMinutos()));
+        cita.setEstado(citaDTO.getEstado() != null ? citaDTO.getEstado() : EstadoCita.PENDIENTE);
         cita.setNotas(citaDTO.getNotas());
+        cita.setPrecio(servicio.getPrecio());
         cita.setFechaCreacion(LocalDateTime.now());
         cita.setUsuario(usuario);
         cita.setServicio(servicio);
         cita.setProfesional(profesional);
 
         Cita guardada = citaRepository.save(cita);
+        if (guardada.getEstado().ocupaAgenda()) {
+            reservaFranjaService.reservar(guardada);
+        }
+        eventPublisher.publishEvent(new CitaEvento(
+                CitaEvento.Tipo.CREADA, guardada.getId(), null, CitaEvento.Instantanea.de(guardada)));
         log.info("Cita creada exitosamente con ID: {}", guardada.getId());
         
         return convertirADTO(guardada);
     }
 
+    /**
+     * Crea un lote de citas y devuelve el resultado de cada elemento.
+     * Los usuarios, servicios y profesionales referenciados se cargan con una consulta por tipo,
+     * los conflictos de horario se comprueban con una sola consulta de franjas y las citas válidas
+     * se insertan juntas en lotes JDBC. Los elementos inválidos no impiden crear los demás.
+     * Si otra transacción reserva una franja entre la consulta de franjas y la inserción, el lote se
+     * reintenta una vez en una transacción nueva, cuya consulta ya ve esa franja y marca como fallida
+     * la cita que la pedía. Si el reintento también choca, se lanza HorarioNoDisponibleException y
+     * no se crea ninguna cita del lote.
+     */
+    public List<ResultadoLoteDTO> crearLote(List<CitaDTO> citasDTO) {
+        if (citasDTO == null || citasDTO.isEmpty()) {
+            throw new IllegalArgumentException("El lote debe contener al menos una cita");
+        }
+        if (citasDTO.size() > TAMANO_MAXIMO_LOTE) {
+            throw new IllegalArgumentException("El lote no puede superar " + TAMANO_MAXIMO_LOTE + " citas");
+        }
+        log.info("Creando lote de {} citas", citasDTO.size());
+
+        try {
+            return transactionTemplate.execute(estado -> procesarLote(citasDTO));
+        } catch (HorarioNoDisponibleException e) {
+            log.warn("Una reserva concurrente ocupó un horario del lote; se reintenta con las franjas actualizadas");
+            return transactionTemplate.execute(estado -> procesarLote(citasDTO));
+        }
+    }
+
+    /**
+     * Valida, construye y guarda las citas de un lote dentro de la transacción en curso.
+     */
+    private List<ResultadoLoteDTO> procesarLote(List<CitaDTO> citasDTO) {
+        ResultadoLoteDTO[] resultados = new ResultadoLoteDTO[citasDTO.size()];
+        List<Integer> validas = new ArrayList<>();
+        for (int i = 0; i < citasDTO.size(); i++) {
+            String error = validar(citasDTO.get(i));
+            if (error != null) {
+                resultados[i] = ResultadoLoteDTO.fallido(i, error);
+            } else {
+                validas.add(i);
+            }
+        }
+
+        if (validas.isEmpty()) {
+            return Arrays.asList(resultados);
+        }
+
+        // Una consulta por tipo de entidad referenciada
+        Map<Long, String> usuarios = usuarioRepository
+                .findNombresByIdIn(idsReferenciados(citasDTO, validas, CitaDTO::getUsuarioId)).stream()
+                .collect(Collectors.toMap(UsuarioRepository.NombreUsuario::getId, UsuarioRepository.NombreUsuario::getNombre));
+        Map<Long, Servicio> servicios = servicioRepository
+                .findAllById(idsReferenciados(citasDTO, validas, CitaDTO::getServicioId)).stream()
+                .collect(Collectors.toMap(Servicio::getId, Function.identity()));
+        Map<Long, Profesional> profesionales = profesionalRepository
+                .findAllConUsuarioByIdIn(idsReferenciados(citasDTO, validas, CitaDTO::getProfesionalId)).stream()
+                .collect(Collectors.toMap(Profesional::getId, Function.identity()));
+
+        // Construir las citas cuyas referencias existen
+        List<Integer> indices = new ArrayList<>();
+        List<Cita> citas = new ArrayList<>();
+        for (Integer i : validas) {
+            CitaDTO dto = citasDTO.get(i);
+            Servicio servicio = servicios.get(dto.getServicioId());
+            Profesional profesional = profesionales.get(dto.getProfesionalId());
+            if (!usuarios.containsKey(dto.getUsuarioId())) {
+                resultados[i] = ResultadoLoteDTO.fallido(i, "Usuario no encontrado con ID: " + dto.getUsuarioId());
+            } else if (servicio == null) {
+                resultados[i] = ResultadoLoteDTO.fallido(i, "Servicio no encontrado con ID: " + dto.getServicioId());
+            } else if (profesional == null) {
+                resultados[i] = ResultadoLoteDTO.fallido(i, "Profesional no encontrado con ID: " + dto.getProfesionalId());
+            } else {
+                Cita cita = new Cita();
+                cita.setFechaHora(dto.getFechaHora());
+                cita.setFechaHoraFin(dto.getFechaHora().plusMinutes(servicio.getDuracionMinutos()));
+                cita.setEstado(dto.getEstado());
+                cita.setNotas(dto.getNotas());
+                cita.setPrecio(servicio.getPrecio());
+                cita.setFechaCreacion(LocalDateTime.now());
+                cita.setUsuario(usuarioRepository.getReferenceById(dto.getUsuarioId()));
+                cita.setServicio(servicio);
+                cita.setProfesional(profesional);
+                indices.add(i);
+                citas.add(cita);
+            }
+        }
+
+        // Descartar las citas que chocan con la agenda existente o con otra cita anterior del mismo lote
+        List<Cita> aceptadas = new ArrayList<>();
+        List<Integer> indicesAceptados = new ArrayList<>();
+        if (!citas.isEmpty()) {
+            Map<Long, Set<LocalDateTime>> ocupadas = reservaFranjaService.cargarOcupadas(
+                    profesionales.keySet(),
+                    citas.stream().map(Cita::getFechaHora).min(LocalDateTime::compareTo).orElseThrow(),
+                    citas.stream().map(Cita::getFechaHoraFin).max(LocalDateTime::compareTo).orElseThrow());
+            for (int j = 0; j < citas.size(); j++) {
+                Cita cita = citas.get(j);
+                int i = indices.get(j);
+                if (cita.getEstado().ocupaAgenda()) {
+                    List<LocalDateTime> franjas = ReservaFranjaService.iniciosDeFranja(
+                            cita.getFechaHora(), cita.getFechaHoraFin());
+                    Set<LocalDateTime> ocupadasProfesional = ocupadas.computeIfAbsent(
+                            cita.getProfesional().getId(), id -> new HashSet<>());
+                    if (franjas.stream().anyMatch(ocupadasProfesional::contains)) {
+                        resultados[i] = ResultadoLoteDTO.fallido(i,
+                                "El profesional ya tiene una cita reservada en el horario " + cita.getFechaHora());
+                        continue;
+                    }
+                    ocupadasProfesional.addAll(franjas);
+                }
+                aceptadas.add(cita);
+                indicesAceptados.add(i);
+            }
+        }
+
+        citaRepository.saveAll(aceptadas);
+        reservaFranjaService.reservarTodas(aceptadas.stream().filter(c -> c.getEstado().ocupaAgenda()).toList());
+
+        for (int j = 0; j < aceptadas.size(); j++) {
+            Cita cita = aceptadas.get(j);
+            int i = indicesAceptados.get(j);
+            eventPublisher.publishEvent(new CitaEvento(
+                    CitaEvento.Tipo.CREADA, cita.getId(), null, CitaEvento.Instantanea.de(cita)));
+            String usuarioNombre = usuarios.get(citasDTO.get(i).getUsuarioId());
+            resultados[i] = ResultadoLoteDTO.exitoso(i, convertirADTO(cita, usuarioNombre));
+        }
+        log.info("Lote procesado: {} de {} citas creadas", aceptadas.size(), citasDTO.size());
+
+        return Arrays.asList(resultados);
+    }
+
     /**
      * Actualiza una cita existente.
      */
@@ -173,12 +405,14 @@ public class CitaService {
         
         Cita cita = citaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cita no encontrada con ID: " + id));
+        CitaEvento.Instantanea anterior = CitaEvento.Instantanea.de(cita);
 
-        // Actualizar servicio si cambió
+        // Actualizar servicio si cambió; la cita pasa a tener el precio actual del nuevo servicio
         if (!cita.getServicio().getId().equals(citaDTO.getServicioId())) {
             Servicio servicio = servicioRepository.findById(citaDTO.getServicioId())
                     .orElseThrow(() -> new ResourceNotFoundException("Servicio no encontrado con ID: " + citaDTO.getServicioId()));
             cita.setServicio(servicio);
+            cita.setPrecio(servicio.getPrecio());
         }
 
         // Actualizar profesional si cambió
@@ -188,11 +422,24 @@ public class CitaService {
             cita.setProfesional(profesional);
         }
 
+        if (cita.getEstado() != citaDTO.getEstado()) {
+            validarTransicion(id, cita.getEstado(), citaDTO.getEstado());
+        }
+
         cita.setFechaHora(citaDTO.getFechaHora());
+        cita.setFechaHoraFin(citaDTO.getFechaHora().plusMinutes(cita.getServicio().getDuracionMinutos()));
         cita.setEstado(citaDTO.getEstado());
         cita.setNotas(citaDTO.getNotas());
 
         Cita actualizada = citaRepository.save(cita);
+
+        // Liberar las franjas anteriores y reservar las del nuevo horario en la misma transacción
+        reservaFranjaService.liberar(actualizada.getId());
+        if (actualizada.getEstado().ocupaAgenda()) {
+            reservaFranjaService.reservar(actualizada);
+        }
+        eventPublisher.publishEvent(new CitaEvento(
+                CitaEvento.Tipo.ACTUALIZADA, actualizada.getId(), anterior, CitaEvento.Instantanea.de(actualizada)));
         log.info("Cita actualizada exitosamente con ID: {}", actualizada.getId());
         
         return convertirADTO(actualizada);
@@ -200,19 +447,76 @@ public class CitaService {
 
     /**
      * Cambia el estado de una cita.
+     * La transición se aplica con un único UPDATE condicionado a que el estado actual sea un
+     * predecesor permitido del nuevo estado; la lectura previa de la proyección solo se usa para
+     * la respuesta y el evento.
      */
     @Transactional
-    public CitaDTO cambiarEstado(Long id, String nuevoEstado) {
+    public CitaDTO cambiarEstado(Long id, EstadoCita nuevoEstado) {
         log.info("Cambiando estado de cita ID: {} a {}", id, nuevoEstado);
-        
-        Cita cita = citaRepository.findById(id)
+
+        CitaDTO cita = citaRepository.findDTOById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cita no encontrada con ID: " + id));
-        
+        if (cita.getEstado() == nuevoEstado) {
+            return cita;
+        }
+        validarTransicion(id, cita.getEstado(), nuevoEstado);
+
+        if (citaRepository.actualizarEstado(id, nuevoEstado, nuevoEstado.getPredecesores()) == 0) {
+            // Otra transacción cambió el estado entre la lectura y el UPDATE
+            throw new TransicionEstadoInvalidaException(
+                    "El estado de la cita ID: " + id + " cambió mientras se procesaba la solicitud");
+        }
+
+        // Una cancelación libera sus franjas
+        if (!nuevoEstado.ocupaAgenda()) {
+            reservaFranjaService.liberar(id);
+        }
+        CitaEvento.Instantanea anterior = new CitaEvento.Instantanea(cita.getProfesionalId(), cita.getServicioId(),
+                cita.getFechaHora(), cita.getFechaHoraFin(), cita.getEstado(), cita.getPrecio());
+        CitaEvento.Instantanea actual = new CitaEvento.Instantanea(cita.getProfesionalId(), cita.getServicioId(),
+                cita.getFechaHora(), cita.getFechaHoraFin(), nuevoEstado, cita.getPrecio());
+        eventPublisher.publishEvent(new CitaEvento(CitaEvento.Tipo.ACTUALIZADA, id, anterior, actual));
+
         cita.setEstado(nuevoEstado);
-        Cita actualizada = citaRepository.save(cita);
-        
         log.info("Estado de cita actualizado exitosamente");
-        return convertirADTO(actualizada);
+        return cita;
+    }
+
+    /**
+     * Cambia el estado de varias citas con un único UPDATE. Las citas que no existen o cuyo
+     * estado actual no admite la transición se omiten.
+     * @return el número de citas que cambiaron de estado
+     */
+    @Transactional
+    public int cambiarEstadoLote(List<Long> ids, EstadoCita nuevoEstado) {
+        log.info("Cambiando estado de {} citas a {}", ids.size(), nuevoEstado);
+        Set<EstadoCita> predecesores = nuevoEstado.getPredecesores();
+        if (predecesores.isEmpty()) {
+            throw new TransicionEstadoInvalidaException("Ninguna cita puede pasar al estado " + nuevoEstado);
+        }
+
+        // Las filas se bloquean al leerlas: el UPDATE cambia exactamente estas citas, y solo de ellas
+        // se publican eventos y se liberan franjas
+        List<CitaRepository.AgendaCita> afectadas = citaRepository.findAgendaByIdIn(ids, predecesores);
+        if (afectadas.isEmpty()) {
+            return 0;
+        }
+        List<Long> idsAfectados = afectadas.stream().map(CitaRepository.AgendaCita::getId).toList();
+        int actualizadas = citaRepository.actualizarEstadoLote(idsAfectados, nuevoEstado, predecesores);
+        if (!nuevoEstado.ocupaAgenda()) {
+            reservaFranjaService.liberarTodas(idsAfectados);
+        }
+
+        for (CitaRepository.AgendaCita cita : afectadas) {
+            CitaEvento.Instantanea anterior = new CitaEvento.Instantanea(
+                    cita.getProfesionalId(), cita.getServicioId(), cita.getInicio(), cita.getFin(), cita.getEstado(), cita.getPrecio());
+            CitaEvento.Instantanea actual = new CitaEvento.Instantanea(
+                    cita.getProfesionalId(), cita.getServicioId(), cita.getInicio(), cita.getFin(), nuevoEstado, cita.getPrecio());
+            eventPublisher.publishEvent(new CitaEvento(CitaEvento.Tipo.ACTUALIZADA, cita.getId(), anterior, actual));
+        }
+        log.info("Estado actualizado en {} de {} citas", actualizadas, ids.size());
+        return actualizadas;
     }
 
     /**
@@ -222,29 +526,137 @@ public class CitaService {
     public void eliminar(Long id) {
         log.warn("Eliminando cita con ID: {}", id);
         
-        if (!citaRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Cita no encontrada con ID: " + id);
-        }
+        Cita cita = citaRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Cita no encontrada con ID: " + id));
+        CitaEvento.Instantanea anterior = CitaEvento.Instantanea.de(cita);
         
-        citaRepository.deleteById(id);
+        reservaFranjaService.liberar(id);
+        citaRepository.delete(cita);
+        eventPublisher.publishEvent(new CitaEvento(CitaEvento.Tipo.ELIMINADA, id, anterior, null));
         log.info("Cita eliminada exitosamente con ID: {}", id);
     }
 
+    /**
+     * Verifica que la cita pueda pasar de su estado actual al nuevo estado.
+     */
+    private void validarTransicion(Long id, EstadoCita actual, EstadoCita nuevoEstado) {
+        if (!nuevoEstado.admiteTransicionDesde(actual)) {
+            throw new TransicionEstadoInvalidaException(
+                    "La cita ID: " + id + " no puede pasar de " + actual + " a " + nuevoEstado);
+        }
+    }
+
+    /**
+     * Valida un elemento de un lote con las mismas reglas que el endpoint individual.
+     * @return el mensaje de error, o null si la cita es válida
+     */
+    private String validar(CitaDTO citaDTO) {
+        if (citaDTO == null) {
+            return "La cita es obligatoria";
+        }
+        Set<ConstraintViolation<CitaDTO>> violaciones = validator.validate(citaDTO);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Reúne los IDs distintos que referencian las citas válidas de un lote.
+     */
+    private Set<Long> idsReferenciados(List<CitaDTO> citasDTO, List<Integer> indices, Function<CitaDTO, Long> id) {
+        return indices.stream().map(i -> id.apply(citasDTO.get(i))).collect(Collectors.toSet());
+    }
+
+    /**
+     * Obtiene una página de citas en orden ascendente entre el cursor (o el inicio) y la fecha final.
+     */
+    private PaginaCursor<CitaDTO> obtenerPaginaEnRango(LocalDateTime inicio, LocalDateTime fin,
+                                                      String cursor, int limite) {
+        CursorCita posicion = resolverCursor(cursor, inicio, 0L);
+        int tamano = validarLimite(limite);
+        return construirPagina(citaRepository.findPaginaEnRango(
+                posicion.getFechaHora(), posicion.getId(), fin, Limit.of(tamano + 1)), tamano);
+    }
+
+    /**
+     * Decodifica el cursor recibido o construye la posición inicial si no se proporcionó.
+     */
+    private CursorCita resolverCursor(String cursor, LocalDateTime fechaInicial, Long idInicial) {
+        if (cursor == null || cursor.isBlank()) {
+            return new CursorCita(fechaInicial, idInicial);
+        }
+        return CursorCita.decodificar(cursor);
+    }
+
+    /**
+     * Valida el tamaño de página solicitado y lo acota al máximo permitido.
+     */
+    private int validarLimite(int limite) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("El límite debe ser mayor a cero");
+        }
+        return Math.min(limite, LIMITE_MAXIMO);
+    }
+
+    /**
+     * Combina dos listas de citas en orden descendente (fechaHora, id) conservando como máximo el número indicado.
+     */
+    private List<CitaDTO> mezclarDescendente(List<CitaDTO> activas, List<CitaDTO> archivadas, int maximo) {
+        if (archivadas.isEmpty()) {
+            return activas;
+        }
+        return Stream.concat(activas.stream(), archivadas.stream())
+                .sorted(Comparator.comparing(CitaDTO::getFechaHora).thenComparing(CitaDTO::getId).reversed())
+                .limit(maximo)
+                .toList();
+    }
+
+    /**
+     * Construye la página a partir de las filas leídas. Se consulta una fila adicional
+     * para saber si existe una página siguiente sin ejecutar un COUNT.
+     */
+    private PaginaCursor<CitaDTO> construirPagina(List<CitaDTO> filas, int tamano) {
+        boolean hayMas = filas.size() > tamano;
+        List<CitaDTO> pagina = hayMas ? filas.subList(0, tamano) : filas;
+        String siguiente = null;
+        if (hayMas) {
+            CitaDTO ultima = pagina.get(pagina.size() - 1);
+            siguiente = new CursorCita(ultima.getFechaHora(), ultima.getId()).codificar();
+        }
+        return new PaginaCursor<>(pagina, siguiente);
+    }
+
     /**
      * Convierte una entidad Cita a DTO.
+     * Solo se usa con entidades cuyas asociaciones ya están cargadas (creación y actualización);
+     * las lecturas usan las proyecciones de CitaRepository.
      */
     private CitaDTO convertirADTO(Cita cita) {
+        return convertirADTO(cita, cita.getUsuario().getNombre());
+    }
+
+    /**
+     * Convierte una entidad Cita a DTO con el nombre del usuario ya conocido,
+     * sin inicializar la referencia perezosa al usuario.
+     */
+    private CitaDTO convertirADTO(Cita cita, String usuarioNombre) {
         CitaDTO dto = new CitaDTO();
         dto.setId(cita.getId());
         dto.setFechaHora(cita.getFechaHora());
+        dto.setFechaHoraFin(cita.getFechaHoraFin());
         dto.setEstado(cita.getEstado());
         dto.setNotas(cita.getNotas());
         dto.setFechaCreacion(cita.getFechaCreacion());
         dto.setUsuarioId(cita.getUsuario().getId());
-        dto.setUsuarioNombre(cita.getUsuario().getNombre());
+        dto.setUsuarioNombre(usuarioNombre);
         dto.setServicioId(cita.getServicio().getId());
         dto.setServicioNombre(cita.getServicio().getNombre());
         dto.setServicioPrecio(cita.getServicio().getPrecio());
+        dto.setPrecio(cita.getPrecio());
         dto.setProfesionalId(cita.getProfesional().getId());
         dto.setProfesionalNombre(cita.getProfesional().getUsuario().getNombre());
         dto.setProfesionalEspecialidad(cita.getProfesional().getEspecialidad());
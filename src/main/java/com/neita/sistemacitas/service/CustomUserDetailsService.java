@@ -1,7 +1,7 @@
 package com.neita.sistemacitas.service;
 
-import com.neita.sistemacitas.entity.Usuario;
 import com.neita.sistemacitas.repository.UsuarioRepository;
+import com.neita.sistemacitas.repository.UsuarioRepository.CredencialesUsuario;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.GrantedAuthority;
@@ -19,6 +19,8 @@ import java.util.Collections;
 /**
  * Servicio personalizado para cargar detalles de usuario en Spring Security.
  * Implementa la autenticación basada en email y contraseña.
+ * Lee solo el email, la contraseña, el rol y el estado del usuario; el proveedor de autenticación
+ * guarda el resultado en CacheAutenticacionService.
  */
 @Service
 @RequiredArgsConstructor
@@ -35,7 +37,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         log.debug("Intentando autenticar usuario con email: {}", email);
         
-        Usuario usuario = usuarioRepository.findByEmail(email)
+        CredencialesUsuario usuario = usuarioRepository.findCredencialesByEmail(email)
                 .orElseThrow(() -> {
                     log.warn("Usuario no encontrado con email: {}", email);
                     return new UsernameNotFoundException("Usuario no encontrado con email: " + email);
@@ -46,7 +48,7 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("Usuario inactivo");
         }
 
-        log.info("Usuario autenticado exitosamente: {}", email);
+        log.info("Usuario cargado para autenticación: {}", email);
         
         return User.builder()
                 .username(usuario.getEmail())
@@ -62,7 +64,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     /**
      * Obtiene las autoridades (roles) del usuario.
      */
-    private Collection<? extends GrantedAuthority> getAuthorities(Usuario usuario) {
+    private Collection<? extends GrantedAuthority> getAuthorities(CredencialesUsuario usuario) {
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + usuario.getRol()));
     }
 }
@@ -0,0 +1,270 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.dto.DisponibilidadDTO;
+import com.neita.sistemacitas.entity.FranjaReservada;
+import com.neita.sistemacitas.entity.Profesional;
+import com.neita.sistemacitas.entity.Servicio;
+import com.neita.sistemacitas.event.CitaEvento;
+import com.neita.sistemacitas.exception.ResourceNotFoundException;
+import com.neita.sistemacitas.repository.FranjaReservadaRepository;
+import com.neita.sistemacitas.repository.ProfesionalRepository;
+import com.neita.sistemacitas.repository.ServicioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Servicio de búsqueda de disponibilidad de los profesionales.
+ * Mantiene en memoria un mapa de ocupación por profesional y día: 96 bits (franjas de 15 minutos)
+ * repartidos en dos long. Una búsqueda se resuelve con operaciones AND y desplazamientos sobre
+ * esos bits en lugar de consultar la agenda de cada profesional.
+ * Los mapas se construyen bajo demanda desde franja_reservada y se actualizan de forma incremental
+ * con los CitaEvento publicados tras cada commit. Un mapa leído antes de un commit concurrente no
+ * se guarda: la versión se toma antes de la primera consulta de la transacción y se comprueba, bajo
+ * el mismo cerrojo con el que se aplican los eventos, al publicar los mapas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DisponibilidadService {
+
+    private static final int FRANJAS_POR_HORA = 60 / FranjaReservada.MINUTOS_POR_FRANJA;
+    private static final int MAXIMO_DIAS = 31;
+    private static final long[] SIN_OCUPACION = new long[2];
+
+    private final ProfesionalRepository profesionalRepository;
+    private final ServicioRepository servicioRepository;
+    private final FranjaReservadaRepository franjaReservadaRepository;
+
+    @Value("${app.agenda.hora-apertura:8}")
+    private int horaApertura;
+
+    @Value("${app.agenda.hora-cierre:20}")
+    private int horaCierre;
+
+    // Ocupación por profesional y día; los arreglos nunca se modifican una vez publicados
+    private final Map<ClaveDia, long[]> ocupacion = new ConcurrentHashMap<>();
+
+    // Se incrementa con cada evento para no guardar mapas leídos antes de un commit concurrente
+    private final AtomicLong version = new AtomicLong();
+
+    // Hace atómicos la aplicación de un evento y la publicación de los mapas cargados. No se usa
+    // synchronized porque las peticiones se ejecutan en hilos virtuales
+    private final ReentrantLock cerrojo = new ReentrantLock();
+
+    /**
+     * Busca las horas de inicio libres de todos los profesionales activos para un servicio
+     * entre dos fechas (ambas inclusive).
+     */
+    @Transactional(readOnly = true)
+    public List<DisponibilidadDTO> buscar(Long servicioId, LocalDate desde, LocalDate hasta) {
+        log.debug("Buscando disponibilidad del servicio ID: {} entre {} y {}", servicioId, desde, hasta);
+        if (hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("La fecha final no puede ser anterior a la fecha inicial");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAXIMO_DIAS) {
+            throw new IllegalArgumentException("El rango de búsqueda no puede superar " + MAXIMO_DIAS + " días");
+        }
+
+        // Antes de cualquier consulta: la instantánea de la transacción se fija con la primera lectura
+        long versionInicial = version.get();
+
+        Servicio servicio = servicioRepository.findById(servicioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Servicio no encontrado con ID: " + servicioId));
+        int franjasNecesarias = Math.ceilDiv(servicio.getDuracionMinutos(), FranjaReservada.MINUTOS_POR_FRANJA);
+
+        // Los días pasados no tienen horas libres; no se cargan ni se guardan en memoria
+        LocalDate hoy = LocalDate.now();
+        LocalDate inicio = desde.isBefore(hoy) ? hoy : desde;
+
+        List<Profesional> profesionales = profesionalRepository.findByActivoTrue();
+        Map<ClaveDia, long[]> construidos = cargarFaltantes(profesionales, inicio, hasta, versionInicial);
+
+        long[] horario = mascaraHorario();
+        LocalDateTime ahora = LocalDateTime.now();
+        List<DisponibilidadDTO> resultado = new ArrayList<>();
+
+        for (Profesional profesional : profesionales) {
+            for (LocalDate fecha = inicio; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+                ClaveDia clave = new ClaveDia(profesional.getId(), fecha);
+                long[] ocupado = ocupacion.get(clave);
+                if (ocupado == null) {
+                    ocupado = construidos.getOrDefault(clave, SIN_OCUPACION);
+                }
+                List<LocalTime> horas = horasLibres(
+                        ~ocupado[0] & horario[0], ~ocupado[1] & horario[1], franjasNecesarias, fecha, ahora);
+                if (!horas.isEmpty()) {
+                    resultado.add(new DisponibilidadDTO(
+                            profesional.getId(),
+                            profesional.getUsuario().getNombre(),
+                            profesional.getEspecialidad(),
+                            fecha,
+                            horas));
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Actualiza los mapas de ocupación ya cargados cuando se confirma un cambio en una cita.
+     */
+    @TransactionalEventListener
+    public void alCambiarCita(CitaEvento evento) {
+        cerrojo.lock();
+        try {
+            version.incrementAndGet();
+            if (evento.getAnterior() != null && ocupaAgenda(evento.getAnterior())) {
+                marcar(evento.getAnterior(), false);
+            }
+            if (evento.getActual() != null && ocupaAgenda(evento.getActual())) {
+                marcar(evento.getActual(), true);
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Construye con una sola consulta los mapas de los días que aún no están en memoria.
+     * Solo se guardan si ningún evento llegó desde versionInicial, leída antes de la primera consulta.
+     */
+    private Map<ClaveDia, long[]> cargarFaltantes(List<Profesional> profesionales, LocalDate desde, LocalDate hasta,
+                                                  long versionInicial) {
+        Map<ClaveDia, long[]> faltantes = new HashMap<>();
+        for (Profesional profesional : profesionales) {
+            for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+                ClaveDia clave = new ClaveDia(profesional.getId(), fecha);
+                if (!ocupacion.containsKey(clave)) {
+                    faltantes.put(clave, new long[2]);
+                }
+            }
+        }
+        if (faltantes.isEmpty()) {
+            return faltantes;
+        }
+
+        List<Long> profesionalIds = profesionales.stream().map(Profesional::getId).toList();
+        for (FranjaReservadaRepository.FranjaOcupada franja : franjaReservadaRepository.findFranjasOcupadas(
+                profesionalIds, desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay())) {
+            long[] bits = faltantes.get(new ClaveDia(franja.getProfesionalId(), franja.getInicio().toLocalDate()));
+            if (bits != null) {
+                activarBit(bits, indiceFranja(franja.getInicio()));
+            }
+        }
+
+        cerrojo.lock();
+        try {
+            if (version.get() == versionInicial) {
+                ocupacion.keySet().removeIf(clave -> clave.fecha().isBefore(LocalDate.now()));
+                faltantes.forEach(ocupacion::putIfAbsent);
+                log.debug("Cargados {} mapas de ocupación", faltantes.size());
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+        return faltantes;
+    }
+
+    /**
+     * Activa o libera en los mapas cargados las franjas que ocupa una cita.
+     */
+    private void marcar(CitaEvento.Instantanea cita, boolean ocupar) {
+        for (LocalDateTime franja = ReservaFranjaService.inicioDeFranja(cita.getInicio());
+             franja.isBefore(cita.getFin());
+             franja = franja.plusMinutes(FranjaReservada.MINUTOS_POR_FRANJA)) {
+            int indice = indiceFranja(franja);
+            ocupacion.computeIfPresent(new ClaveDia(cita.getProfesionalId(), franja.toLocalDate()), (clave, bits) -> {
+                long[] copia = bits.clone();
+                if (ocupar) {
+                    activarBit(copia, indice);
+                } else {
+                    copia[indice >>> 6] &= ~(1L << (indice & 63));
+                }
+                return copia;
+            });
+        }
+    }
+
+    /**
+     * Calcula las horas de inicio en las que hay el número de franjas consecutivas libres requerido.
+     * El bit i del resultado queda activo si los bits i..i+n-1 están libres: se combinan con AND
+     * los 128 bits libres desplazados 0..n-1 posiciones.
+     */
+    private List<LocalTime> horasLibres(long libreBajo, long libreAlto, int franjasNecesarias,
+                                        LocalDate fecha, LocalDateTime ahora) {
+        long bajo = libreBajo;
+        long alto = libreAlto;
+        for (int i = 1; i < franjasNecesarias; i++) {
+            if (i < 64) {
+                bajo &= (libreBajo >>> i) | (libreAlto << (64 - i));
+                alto &= libreAlto >>> i;
+            } else {
+                bajo &= libreAlto >>> (i - 64);
+                alto = 0;
+            }
+        }
+
+        List<LocalTime> horas = new ArrayList<>();
+        agregarHoras(horas, bajo, 0, fecha, ahora);
+        agregarHoras(horas, alto, 64, fecha, ahora);
+        return horas;
+    }
+
+    private void agregarHoras(List<LocalTime> horas, long bits, int desplazamiento,
+                              LocalDate fecha, LocalDateTime ahora) {
+        while (bits != 0) {
+            int indice = Long.numberOfTrailingZeros(bits) + desplazamiento;
+            LocalTime hora = LocalTime.of(indice / FRANJAS_POR_HORA,
+                    (indice % FRANJAS_POR_HORA) * FranjaReservada.MINUTOS_POR_FRANJA);
+            if (fecha.atTime(hora).isAfter(ahora)) {
+                horas.add(hora);
+            }
+            bits &= bits - 1;
+        }
+    }
+
+    /**
+     * Máscara con las franjas dentro del horario de atención.
+     */
+    private long[] mascaraHorario() {
+        long[] mascara = new long[2];
+        for (int indice = horaApertura * FRANJAS_POR_HORA; indice < horaCierre * FRANJAS_POR_HORA; indice++) {
+            activarBit(mascara, indice);
+        }
+        return mascara;
+    }
+
+    private static void activarBit(long[] bits, int indice) {
+        bits[indice >>> 6] |= 1L << (indice & 63);
+    }
+
+    private static int indiceFranja(LocalDateTime franja) {
+        return franja.getHour() * FRANJAS_POR_HORA + franja.getMinute() / FranjaReservada.MINUTOS_POR_FRANJA;
+    }
+
+    private static boolean ocupaAgenda(CitaEvento.Instantanea cita) {
+        return cita.getEstado().ocupaAgenda();
+    }
+
+    /**
+     * Clave del mapa de ocupación: un profesional en un día.
+     */
+    private record ClaveDia(Long profesionalId, LocalDate fecha) {
+    }
+}
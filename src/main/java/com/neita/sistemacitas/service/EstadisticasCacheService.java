@@ -0,0 +1,62 @@
+package com.neita.sistemacitas.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.neita.sistemacitas.config.CacheConfig;
+import com.neita.sistemacitas.dto.EstadisticasCacheDTO;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Servicio que reúne las estadísticas de las cachés de la aplicación.
+ */
+@Service
+@RequiredArgsConstructor
+public class EstadisticasCacheService {
+
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Obtiene las estadísticas de las cachés de catálogo (Caffeine).
+     */
+    public List<EstadisticasCacheDTO> obtenerCatalogo() {
+        List<EstadisticasCacheDTO> estadisticas = new ArrayList<>();
+        for (String nombre : CacheConfig.CACHES) {
+            Cache cache = cacheManager.getCache(nombre);
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                CacheStats stats = caffeine.stats();
+                estadisticas.add(new EstadisticasCacheDTO(nombre, caffeine.estimatedSize(),
+                        stats.hitCount(), stats.missCount(), stats.hitRate(), null, stats.evictionCount()));
+            }
+        }
+        return estadisticas;
+    }
+
+    /**
+     * Obtiene las estadísticas de las regiones de la caché de segundo nivel de Hibernate.
+     */
+    public List<EstadisticasCacheDTO> obtenerSegundoNivel() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<EstadisticasCacheDTO> estadisticas = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+            long consultas = stats.getHitCount() + stats.getMissCount();
+            long entradas = stats.getElementCountInMemory();
+            estadisticas.add(new EstadisticasCacheDTO(region,
+                    entradas < 0 ? null : entradas,
+                    stats.getHitCount(), stats.getMissCount(),
+                    consultas == 0 ? 1.0 : (double) stats.getHitCount() / consultas,
+                    stats.getPutCount(), null));
+        }
+        return estadisticas;
+    }
+}
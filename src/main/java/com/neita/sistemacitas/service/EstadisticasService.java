@@ -0,0 +1,144 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.event.CitaEvento;
+import com.neita.sistemacitas.event.ContadorEvento;
+import com.neita.sistemacitas.event.ContadorEvento.Contador;
+import com.neita.sistemacitas.repository.CitaHistoricaRepository;
+import com.neita.sistemacitas.repository.CitaRepository;
+import com.neita.sistemacitas.repository.ProfesionalRepository;
+import com.neita.sistemacitas.repository.ServicioRepository;
+import com.neita.sistemacitas.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Servicio con los contadores de la página de inicio.
+ * Los valores se cuentan una vez al arrancar y después se mantienen en memoria con los eventos
+ * publicados tras cada commit (CitaEvento y ContadorEvento). Una tarea programada los vuelve a
+ * contar en la base de datos para corregir cualquier cambio hecho fuera de los servicios.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EstadisticasService {
+
+    private final CitaRepository citaRepository;
+    private final CitaHistoricaRepository citaHistoricaRepository;
+    private final ServicioRepository servicioRepository;
+    private final ProfesionalRepository profesionalRepository;
+    private final UsuarioRepository usuarioRepository;
+
+    // Valor de cada contador junto con su versión, que se incrementa con cada evento para no
+    // guardar recuentos leídos antes de un commit concurrente
+    private final Map<Contador, AtomicReference<Estado>> estados = crearContadores();
+
+    private volatile boolean cargado;
+
+    /**
+     * Número total de citas, incluidas las archivadas.
+     */
+    public long getTotalCitas() {
+        return obtener(Contador.CITAS);
+    }
+
+    public long getServiciosActivos() {
+        return obtener(Contador.SERVICIOS_ACTIVOS);
+    }
+
+    public long getProfesionalesActivos() {
+        return obtener(Contador.PROFESIONALES_ACTIVOS);
+    }
+
+    public long getUsuariosActivos() {
+        return obtener(Contador.USUARIOS_ACTIVOS);
+    }
+
+    /**
+     * Cuenta todos los contadores en la base de datos al arrancar y de forma periódica.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.estadisticas.reconciliacion-cron:0 0 * * * *}")
+    public void reconciliar() {
+        for (Contador contador : Contador.values()) {
+            recontar(contador);
+        }
+        cargado = true;
+    }
+
+    /**
+     * Aplica la variación de un contador cuando se confirma un cambio en el catálogo.
+     */
+    @TransactionalEventListener
+    public void alCambiarContador(ContadorEvento evento) {
+        aplicar(evento.getContador(), evento.getDelta());
+        if (evento.isRecontar()) {
+            recontar(evento.getContador());
+        }
+    }
+
+    /**
+     * Actualiza el total de citas cuando se confirma la creación o eliminación de una cita.
+     */
+    @TransactionalEventListener
+    public void alCambiarCita(CitaEvento evento) {
+        long delta = switch (evento.getTipo()) {
+            case CREADA -> 1;
+            case ELIMINADA -> -1;
+            case ACTUALIZADA -> 0;
+        };
+        if (delta != 0) {
+            aplicar(Contador.CITAS, delta);
+        }
+    }
+
+    private long obtener(Contador contador) {
+        if (!cargado) {
+            reconciliar();
+        }
+        return estados.get(contador).get().valor();
+    }
+
+    private void aplicar(Contador contador, long delta) {
+        estados.get(contador).updateAndGet(estado -> new Estado(estado.version() + 1, estado.valor() + delta));
+    }
+
+    /**
+     * Cuenta un contador en la base de datos. El valor solo se guarda si ningún evento
+     * llegó mientras se leía; en otro caso se conserva el valor mantenido por los eventos.
+     * La comprobación y la escritura son un único compareAndSet sobre el par (versión, valor),
+     * de modo que un evento aplicado entre ambas no se pierde.
+     */
+    private void recontar(Contador contador) {
+        AtomicReference<Estado> estado = estados.get(contador);
+        Estado inicial = estado.get();
+        long real = switch (contador) {
+            case CITAS -> citaRepository.count() + citaHistoricaRepository.count();
+            case SERVICIOS_ACTIVOS -> servicioRepository.countServiciosActivos();
+            case PROFESIONALES_ACTIVOS -> profesionalRepository.countProfesionalesActivos();
+            case USUARIOS_ACTIVOS -> usuarioRepository.countUsuariosActivos();
+        };
+        if (estado.compareAndSet(inicial, new Estado(inicial.version(), real)) && cargado && inicial.valor() != real) {
+            log.warn("Contador {} corregido de {} a {}", contador, inicial.valor(), real);
+        }
+    }
+
+    private static Map<Contador, AtomicReference<Estado>> crearContadores() {
+        Map<Contador, AtomicReference<Estado>> contadores = new EnumMap<>(Contador.class);
+        for (Contador contador : Contador.values()) {
+            contadores.put(contador, new AtomicReference<>(new Estado(0, 0)));
+        }
+        return contadores;
+    }
+
+    private record Estado(long version, long valor) {
+    }
+}
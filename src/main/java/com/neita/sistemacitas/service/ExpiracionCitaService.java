@@ -0,0 +1,57 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.entity.EstadoCita;
+import com.neita.sistemacitas.event.CitaEvento;
+import com.neita.sistemacitas.repository.CitaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Servicio que pasa a EXPIRADA las citas pendientes cuya fecha ya pasó.
+ * Cada lote se procesa en su propia transacción corta: una lectura con bloqueo sobre el índice
+ * (estado, fecha_hora) y un único UPDATE por IDs, de modo que los bloqueos sobre cita se limitan
+ * a las filas del lote. Las citas que otra transacción está confirmando o cancelando se saltan.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpiracionCitaService {
+
+    private final CitaRepository citaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Expira un lote de citas pendientes con fecha anterior al límite.
+     * @return el número de citas expiradas; 0 cuando ya no quedan citas por expirar
+     */
+    @Transactional
+    public int expirarLote(LocalDateTime limite, int tamano) {
+        // Las filas quedan bloqueadas: el UPDATE cambia exactamente estas citas y solo de ellas se publican eventos
+        List<CitaRepository.AgendaCita> vencidas = citaRepository.findAgendaVencidas(
+                EstadoCita.PENDIENTE, limite, Limit.of(tamano));
+        if (vencidas.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = vencidas.stream().map(CitaRepository.AgendaCita::getId).toList();
+        int expiradas = citaRepository.actualizarEstadoLote(
+                ids, EstadoCita.EXPIRADA, EstadoCita.EXPIRADA.getPredecesores());
+
+        for (CitaRepository.AgendaCita cita : vencidas) {
+            CitaEvento.Instantanea anterior = new CitaEvento.Instantanea(
+                    cita.getProfesionalId(), cita.getServicioId(), cita.getInicio(), cita.getFin(), cita.getEstado(), cita.getPrecio());
+            CitaEvento.Instantanea actual = new CitaEvento.Instantanea(
+                    cita.getProfesionalId(), cita.getServicioId(), cita.getInicio(), cita.getFin(), EstadoCita.EXPIRADA, cita.getPrecio());
+            eventPublisher.publishEvent(new CitaEvento(CitaEvento.Tipo.ACTUALIZADA, cita.getId(), anterior, actual));
+        }
+        log.debug("Expiradas {} citas pendientes anteriores a {}", expiradas, limite);
+        return expiradas;
+    }
+}
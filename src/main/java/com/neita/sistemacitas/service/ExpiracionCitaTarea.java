@@ -0,0 +1,157 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.dto.EstadoExpiracionDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tarea programada que expira las citas pendientes vencidas en lotes acotados.
+ * Durante el horario de atención espera entre lotes para que las transacciones de la recepción
+ * no queden detrás de la tarea. Lleva el progreso y los tiempos de la última ejecución.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExpiracionCitaTarea {
+
+    private final ExpiracionCitaService expiracionCitaService;
+
+    @Value("${app.expiracion.tamano-lote:1000}")
+    private int tamanoLote;
+
+    @Value("${app.expiracion.margen-minutos:60}")
+    private int margenMinutos;
+
+    @Value("${app.expiracion.pausa-horario-atencion-ms:200}")
+    private long pausaHorarioAtencionMs;
+
+    @Value("${app.agenda.hora-apertura:8}")
+    private int horaApertura;
+
+    @Value("${app.agenda.hora-cierre:20}")
+    private int horaCierre;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean();
+
+    // Cerrojo de las métricas. No se usa synchronized porque la tarea puede ejecutarse en un hilo
+    // virtual, y un bloqueo dentro de un bloque synchronized lo dejaría fijado a su hilo portador
+    private final ReentrantLock metricas = new ReentrantLock();
+
+    // Métricas; se escriben solo desde la ejecución en curso y se leen bajo el cerrojo de métricas
+    private LocalDateTime ultimoInicio;
+    private LocalDateTime ultimoFin;
+    private Long ultimaDuracionMs;
+    private int lotesUltimaEjecucion;
+    private int citasUltimaEjecucion;
+    private Long maximoLoteMs;
+    private long ejecuciones;
+    private long citasExpiradasTotal;
+    private String ultimoError;
+
+    /**
+     * Expira las citas pendientes cuya fecha pasó hace más del margen configurado.
+     */
+    @Scheduled(cron = "${app.expiracion.cron:0 */15 * * * *}")
+    public void ejecutar() {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            log.debug("La expiración de citas ya está en ejecución");
+            return;
+        }
+        long inicio = System.nanoTime();
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(margenMinutos);
+        metricas.lock();
+        try {
+            ultimoInicio = LocalDateTime.now();
+            lotesUltimaEjecucion = 0;
+            citasUltimaEjecucion = 0;
+            maximoLoteMs = null;
+            ultimoError = null;
+        } finally {
+            metricas.unlock();
+        }
+
+        try {
+            int expiradas;
+            do {
+                long inicioLote = System.nanoTime();
+                expiradas = expiracionCitaService.expirarLote(limite, tamanoLote);
+                registrarLote(expiradas, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioLote));
+                if (expiradas > 0 && enHorarioAtencion()) {
+                    Thread.sleep(pausaHorarioAtencionMs);
+                }
+            } while (expiradas == tamanoLote);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Error al expirar citas pendientes", e);
+            metricas.lock();
+            try {
+                ultimoError = e.getMessage();
+            } finally {
+                metricas.unlock();
+            }
+        } finally {
+            metricas.lock();
+            try {
+                ultimoFin = LocalDateTime.now();
+                ultimaDuracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                ejecuciones++;
+            } finally {
+                metricas.unlock();
+            }
+            // Solo la ejecución en curso escribe estas métricas; se pueden leer sin el cerrojo
+            log.info("Expiración de citas: {} citas en {} lotes ({} ms)",
+                    citasUltimaEjecucion, lotesUltimaEjecucion, ultimaDuracionMs);
+            enEjecucion.set(false);
+        }
+    }
+
+    /**
+     * Obtiene el progreso y los tiempos de la última ejecución.
+     */
+    public EstadoExpiracionDTO obtenerEstado() {
+        metricas.lock();
+        try {
+            return new EstadoExpiracionDTO(
+                    enEjecucion.get(),
+                    ultimoInicio,
+                    ultimoFin,
+                    ultimaDuracionMs,
+                    lotesUltimaEjecucion,
+                    citasUltimaEjecucion,
+                    maximoLoteMs,
+                    ejecuciones,
+                    citasExpiradasTotal,
+                    ultimoError);
+        } finally {
+            metricas.unlock();
+        }
+    }
+
+    private void registrarLote(int expiradas, long duracionMs) {
+        metricas.lock();
+        try {
+            if (expiradas > 0) {
+                lotesUltimaEjecucion++;
+                citasUltimaEjecucion += expiradas;
+                citasExpiradasTotal += expiradas;
+            }
+            maximoLoteMs = maximoLoteMs == null ? duracionMs : Math.max(maximoLoteMs, duracionMs);
+        } finally {
+            metricas.unlock();
+        }
+    }
+
+    private boolean enHorarioAtencion() {
+        int hora = LocalDateTime.now().getHour();
+        return hora >= horaApertura && hora < horaCierre;
+    }
+}
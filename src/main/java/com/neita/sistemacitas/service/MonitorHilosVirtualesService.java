@@ -0,0 +1,122 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.dto.EstadoHilosVirtualesDTO;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Detecta los hilos virtuales que quedan fijados a su hilo portador mientras esperan (por ejemplo,
+ * una consulta JDBC dentro de un bloque synchronized). Un hilo fijado ocupa el portador durante toda
+ * la espera, de modo que unos pocos bastan para detener el resto de peticiones.
+ * Se suscribe al evento jdk.VirtualThreadPinned de Java Flight Recorder y registra la pila de cada bloqueo
+ * que supera el umbral configurado.
+ */
+@Service
+@Slf4j
+public class MonitorHilosVirtualesService {
+
+    private static final String EVENTO_FIJADO = "jdk.VirtualThreadPinned";
+    private static final int MAXIMO_BLOQUEOS_GUARDADOS = 20;
+    private static final int MAXIMO_MARCOS = 12;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean hilosVirtuales;
+
+    @Value("${app.hilos-virtuales.detectar-bloqueos:true}")
+    private boolean detectarBloqueos;
+
+    @Value("${app.hilos-virtuales.umbral-bloqueo-ms:20}")
+    private long umbralBloqueoMs;
+
+    private final AtomicLong bloqueosDetectados = new AtomicLong();
+    private final Deque<String> ultimosBloqueos = new ArrayDeque<>();
+    private final ReentrantLock cerrojo = new ReentrantLock();
+
+    private volatile RecordingStream grabacion;
+
+    /**
+     * Inicia la suscripción al evento de hilos fijados cuando la aplicación está lista.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!hilosVirtuales || !detectarBloqueos) {
+            return;
+        }
+        try {
+            grabacion = new RecordingStream();
+            grabacion.enable(EVENTO_FIJADO)
+                    .withThreshold(Duration.ofMillis(umbralBloqueoMs))
+                    .withStackTrace();
+            grabacion.onEvent(EVENTO_FIJADO, this::registrar);
+            grabacion.startAsync();
+            log.info("Detección de hilos virtuales fijados activa (umbral {} ms)", umbralBloqueoMs);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo iniciar la detección de hilos virtuales fijados: {}", e.getMessage());
+            grabacion = null;
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (grabacion != null) {
+            grabacion.close();
+        }
+    }
+
+    /**
+     * Obtiene el modo de ejecución y los últimos bloqueos detectados.
+     */
+    public EstadoHilosVirtualesDTO obtenerEstado() {
+        List<String> bloqueos;
+        cerrojo.lock();
+        try {
+            bloqueos = new ArrayList<>(ultimosBloqueos);
+        } finally {
+            cerrojo.unlock();
+        }
+        return new EstadoHilosVirtualesDTO(hilosVirtuales, grabacion != null, bloqueosDetectados.get(), bloqueos);
+    }
+
+    private void registrar(RecordedEvent evento) {
+        bloqueosDetectados.incrementAndGet();
+        String pila = evento.getStackTrace() == null ? "(sin pila)" : evento.getStackTrace().getFrames().stream()
+                .limit(MAXIMO_MARCOS)
+                .map(MonitorHilosVirtualesService::formatear)
+                .collect(Collectors.joining(" <- "));
+        String bloqueo = String.format("%d ms en %s: %s",
+                evento.getDuration().toMillis(),
+                evento.getThread() == null ? "?" : evento.getThread().getJavaName(),
+                pila);
+        log.warn("Hilo virtual fijado a su portador durante {}", bloqueo);
+
+        cerrojo.lock();
+        try {
+            if (ultimosBloqueos.size() == MAXIMO_BLOQUEOS_GUARDADOS) {
+                ultimosBloqueos.removeLast();
+            }
+            ultimosBloqueos.addFirst(bloqueo);
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private static String formatear(RecordedFrame marco) {
+        return marco.getMethod().getType().getName() + "." + marco.getMethod().getName() + ":" + marco.getLineNumber();
+    }
+}
@@ -1,14 +1,22 @@
 package com.neita.sistemacitas.service;
 
+import com.neita.sistemacitas.config.CacheConfig;
 import com.neita.sistemacitas.dto.ProfesionalDTO;
 import com.neita.sistemacitas.entity.Profesional;
 import com.neita.sistemacitas.entity.Usuario;
+import com.neita.sistemacitas.event.ContadorEvento;
+import com.neita.sistemacitas.event.ContadorEvento.Contador;
 import com.neita.sistemacitas.exception.ResourceNotFoundException;
 import com.neita.sistemacitas.exception.DuplicateResourceException;
+import com.neita.sistemacitas.repository.CitaHistoricaRepository;
 import com.neita.sistemacitas.repository.ProfesionalRepository;
 import com.neita.sistemacitas.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,7 +33,9 @@ import java.util.stream.Collectors;
 public class ProfesionalService {
 
     private final ProfesionalRepository profesionalRepository;
+    private final CitaHistoricaRepository citaHistoricaRepository;
     private final UsuarioRepository usuarioRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Obtiene todos los profesionales del sistema.
@@ -39,8 +49,9 @@ public class ProfesionalService {
     }
 
     /**
-     * Obtiene un profesional por su ID.
+     * Obtiene un profesional por su ID. El resultado se guarda en caché.
      */
+    @Cacheable(CacheConfig.PROFESIONAL_POR_ID)
     @Transactional(readOnly = true)
     public ProfesionalDTO obtenerPorId(Long id) {
         log.debug("Obteniendo profesional con ID: {}", id);
@@ -50,14 +61,15 @@ public class ProfesionalService {
     }
 
     /**
-     * Obtiene todos los profesionales activos.
+     * Obtiene todos los profesionales activos. El resultado se guarda en caché como lista inmutable.
      */
+    @Cacheable(CacheConfig.PROFESIONALES_ACTIVOS)
     @Transactional(readOnly = true)
     public List<ProfesionalDTO> obtenerActivos() {
         log.debug("Obteniendo profesionales activos");
         return profesionalRepository.findByActivoTrue().stream()
                 .map(this::convertirADTO)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     /**
@@ -85,6 +97,7 @@ public class ProfesionalService {
     /**
      * Crea un nuevo profesional.
      */
+    @CacheEvict(cacheNames = CacheConfig.PROFESIONALES_ACTIVOS, allEntries = true)
     @Transactional
     public ProfesionalDTO crear(ProfesionalDTO profesionalDTO) {
         log.info("Creando nuevo profesional para usuario ID: {}", profesionalDTO.getUsuarioId());
@@ -105,6 +118,7 @@ public class ProfesionalService {
         profesional.setUsuario(usuario);
 
         Profesional guardado = profesionalRepository.save(profesional);
+        eventPublisher.publishEvent(ContadorEvento.incremento(Contador.PROFESIONALES_ACTIVOS));
         log.info("Profesional creado exitosamente con ID: {}", guardado.getId());
         
         return convertirADTO(guardado);
@@ -113,6 +127,10 @@ public class ProfesionalService {
     /**
      * Actualiza un profesional existente.
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PROFESIONAL_POR_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PROFESIONALES_ACTIVOS, allEntries = true)
+    })
     @Transactional
     public ProfesionalDTO actualizar(Long id, ProfesionalDTO profesionalDTO) {
         log.info("Actualizando profesional con ID: {}", id);
@@ -132,6 +150,10 @@ public class ProfesionalService {
     /**
      * Elimina un profesional (eliminación lógica).
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PROFESIONAL_POR_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PROFESIONALES_ACTIVOS, allEntries = true)
+    })
     @Transactional
     public void eliminar(Long id) {
         log.info("Eliminando profesional con ID: {}", id);
@@ -139,6 +161,9 @@ public class ProfesionalService {
         Profesional profesional = profesionalRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Profesional no encontrado con ID: " + id));
         
+        if (Boolean.TRUE.equals(profesional.getActivo())) {
+            eventPublisher.publishEvent(ContadorEvento.decremento(Contador.PROFESIONALES_ACTIVOS));
+        }
         profesional.setActivo(false);
         profesionalRepository.save(profesional);
         
@@ -148,15 +173,27 @@ public class ProfesionalService {
     /**
      * Elimina permanentemente un profesional.
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PROFESIONAL_POR_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PROFESIONALES_ACTIVOS, allEntries = true)
+    })
     @Transactional
     public void eliminarPermanente(Long id) {
         log.warn("Eliminando permanentemente profesional con ID: {}", id);
         
-        if (!profesionalRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Profesional no encontrado con ID: " + id);
-        }
+        Profesional profesional = profesionalRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Profesional no encontrado con ID: " + id));
         
-        profesionalRepository.deleteById(id);
+        // El archivo no tiene claves foráneas: sus citas se eliminan aquí
+        citaHistoricaRepository.deleteByProfesionalId(id);
+
+        // Sin desvincularlo, la cascada de Usuario.profesional vuelve a persistir el profesional al hacer flush
+        profesional.getUsuario().setProfesional(null);
+        profesionalRepository.delete(profesional);
+
+        // El borrado elimina en cascada las citas del profesional y, en la base de datos, sus series
+        eventPublisher.publishEvent(ContadorEvento.recuento(Contador.PROFESIONALES_ACTIVOS));
+        eventPublisher.publishEvent(ContadorEvento.recuento(Contador.CITAS));
         log.info("Profesional eliminado permanentemente con ID: {}", id);
     }
 
@@ -0,0 +1,139 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.entity.Cita;
+import com.neita.sistemacitas.entity.FranjaReservada;
+import com.neita.sistemacitas.exception.HorarioNoDisponibleException;
+import com.neita.sistemacitas.repository.FranjaReservadaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Servicio que reserva y libera las franjas de agenda ocupadas por las citas.
+ * La detección de solapamientos la realiza la restricción única de franja_reservada:
+ * reservar es una inserción indexada y falla si otra transacción ya ocupó alguna franja.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservaFranjaService {
+
+    private final FranjaReservadaRepository franjaReservadaRepository;
+
+    /**
+     * Reserva las franjas que ocupa la cita según la duración de su servicio.
+     * Debe ejecutarse dentro de la transacción que guarda la cita.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reservar(Cita cita) {
+        List<FranjaReservada> franjas = calcularFranjas(cita);
+        log.debug("Reservando {} franjas para cita ID: {}", franjas.size(), cita.getId());
+        try {
+            franjaReservadaRepository.saveAllAndFlush(franjas);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Horario no disponible para profesional ID: {} en {}",
+                    cita.getProfesional().getId(), cita.getFechaHora());
+            throw new HorarioNoDisponibleException(
+                    "El profesional ya tiene una cita reservada en el horario " + cita.getFechaHora(), e);
+        }
+    }
+
+    /**
+     * Reserva en una sola operación las franjas de varias citas. Los INSERT se envían en lotes JDBC;
+     * si alguna franja ya está ocupada falla la reserva completa.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reservarTodas(Collection<Cita> citas) {
+        List<FranjaReservada> franjas = new ArrayList<>();
+        for (Cita cita : citas) {
+            franjas.addAll(calcularFranjas(cita));
+        }
+        log.debug("Reservando {} franjas para {} citas", franjas.size(), citas.size());
+        try {
+            franjaReservadaRepository.saveAllAndFlush(franjas);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Horario no disponible al reservar un lote de {} citas", citas.size());
+            throw new HorarioNoDisponibleException(
+                    "Alguna de las citas coincide con un horario ya reservado", e);
+        }
+    }
+
+    /**
+     * Carga con una sola consulta las franjas ocupadas de varios profesionales en un rango.
+     * @return inicios de franja ocupados por ID de profesional
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Set<LocalDateTime>> cargarOcupadas(Collection<Long> profesionalIds,
+                                                         LocalDateTime desde, LocalDateTime hasta) {
+        Map<Long, Set<LocalDateTime>> ocupadas = new HashMap<>();
+        for (FranjaReservadaRepository.FranjaOcupada franja : franjaReservadaRepository.findFranjasOcupadas(
+                profesionalIds, inicioDeFranja(desde), hasta)) {
+            ocupadas.computeIfAbsent(franja.getProfesionalId(), id -> new HashSet<>()).add(franja.getInicio());
+        }
+        return ocupadas;
+    }
+
+    /**
+     * Libera todas las franjas reservadas por una cita.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void liberar(Long citaId) {
+        int liberadas = franjaReservadaRepository.deleteByCitaId(citaId);
+        log.debug("Liberadas {} franjas de la cita ID: {}", liberadas, citaId);
+    }
+
+    /**
+     * Libera las franjas reservadas por varias citas.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void liberarTodas(Collection<Long> citaIds) {
+        int liberadas = franjaReservadaRepository.deleteByCitaIdIn(citaIds);
+        log.debug("Liberadas {} franjas de {} citas", liberadas, citaIds.size());
+    }
+
+    /**
+     * Calcula las franjas de la cita: desde el inicio de la franja que contiene la fecha
+     * de la cita hasta cubrir la duración del servicio.
+     */
+    private List<FranjaReservada> calcularFranjas(Cita cita) {
+        Long profesionalId = cita.getProfesional().getId();
+        List<FranjaReservada> franjas = new ArrayList<>();
+        for (LocalDateTime franja : iniciosDeFranja(cita.getFechaHora(), cita.getFechaHoraFin())) {
+            franjas.add(new FranjaReservada(null, profesionalId, franja, cita));
+        }
+        return franjas;
+    }
+
+    /**
+     * Calcula los inicios de las franjas que cubren el intervalo [inicio, fin).
+     */
+    static List<LocalDateTime> iniciosDeFranja(LocalDateTime inicio, LocalDateTime fin) {
+        List<LocalDateTime> inicios = new ArrayList<>();
+        for (LocalDateTime franja = inicioDeFranja(inicio); franja.isBefore(fin);
+             franja = franja.plusMinutes(FranjaReservada.MINUTOS_POR_FRANJA)) {
+            inicios.add(franja);
+        }
+        return inicios;
+    }
+
+    /**
+     * Redondea hacia abajo una fecha al inicio de su franja.
+     */
+    static LocalDateTime inicioDeFranja(LocalDateTime fechaHora) {
+        LocalDateTime truncada = fechaHora.truncatedTo(ChronoUnit.MINUTES);
+        return truncada.minusMinutes(truncada.getMinute() % FranjaReservada.MINUTOS_POR_FRANJA);
+    }
+}
@@ -0,0 +1,191 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.dto.ReporteDTO;
+import com.neita.sistemacitas.entity.EstadoCita;
+import com.neita.sistemacitas.event.CitaEvento;
+import com.neita.sistemacitas.repository.ResumenDiarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servicio que mantiene los resúmenes diarios de citas y responde los reportes a partir de ellos.
+ * Los CitaEvento de una transacción se acumulan en memoria por (día, profesional, servicio) y se
+ * escriben justo antes del commit con un upsert por clave, dentro de la misma transacción que
+ * el cambio de las citas. ResumenDiarioTarea reconstruye cada noche los días recientes como red
+ * de seguridad, un día por transacción. Los ingresos suman el precio guardado en cada cita al
+ * reservarla, de modo que un cambio de precio del servicio no altera los días ya registrados.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResumenDiarioService {
+
+    private static final int MAXIMO_DIAS_REPORTE = 366 * 5;
+
+    private final ResumenDiarioRepository resumenDiarioRepository;
+
+    /**
+     * Totales por día entre dos fechas (ambas inclusive).
+     */
+    @Transactional(readOnly = true)
+    public List<ReporteDTO> obtenerPorDia(LocalDate desde, LocalDate hasta, Long profesionalId, Long servicioId) {
+        validarRango(desde, hasta);
+        return resumenDiarioRepository.findTotalesPorDia(desde, hasta, profesionalId, servicioId);
+    }
+
+    /**
+     * Totales por mes entre dos fechas (ambas inclusive).
+     */
+    @Transactional(readOnly = true)
+    public List<ReporteDTO> obtenerPorMes(LocalDate desde, LocalDate hasta, Long profesionalId, Long servicioId) {
+        validarRango(desde, hasta);
+        return resumenDiarioRepository.findTotalesPorMes(desde, hasta, profesionalId, servicioId);
+    }
+
+    /**
+     * Totales por profesional entre dos fechas (ambas inclusive).
+     */
+    @Transactional(readOnly = true)
+    public List<ReporteDTO> obtenerPorProfesional(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        return resumenDiarioRepository.findTotalesPorProfesional(desde, hasta);
+    }
+
+    /**
+     * Totales por servicio entre dos fechas (ambas inclusive).
+     */
+    @Transactional(readOnly = true)
+    public List<ReporteDTO> obtenerPorServicio(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        return resumenDiarioRepository.findTotalesPorServicio(desde, hasta);
+    }
+
+    /**
+     * Acumula el cambio de una cita en los resúmenes pendientes de la transacción en curso.
+     * Se ejecuta de forma síncrona, dentro de la transacción que publica el evento.
+     */
+    @EventListener
+    public void alCambiarCita(CitaEvento evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<Clave, Variacion> variaciones = new HashMap<>();
+            acumular(variaciones, evento);
+            escribir(variaciones);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Clave, Variacion> pendientes = (Map<Clave, Variacion>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            Map<Clave, Variacion> nuevas = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, nuevas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    escribir(nuevas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ResumenDiarioService.this);
+                }
+            });
+            pendientes = nuevas;
+        }
+        acumular(pendientes, evento);
+    }
+
+    /**
+     * Reconstruye los resúmenes de un día a partir de las citas, en su propia transacción corta.
+     * @return el número de filas creadas
+     */
+    @Transactional
+    public int reconstruirDia(LocalDate fecha) {
+        resumenDiarioRepository.deleteEntre(fecha, fecha.plusDays(1));
+        return resumenDiarioRepository.reconstruirEntre(fecha, fecha.plusDays(1));
+    }
+
+    /**
+     * Resta la situación anterior de la cita y suma la actual.
+     */
+    private void acumular(Map<Clave, Variacion> variaciones, CitaEvento evento) {
+        if (evento.getAnterior() != null) {
+            acumular(variaciones, evento.getAnterior(), -1);
+        }
+        if (evento.getActual() != null) {
+            acumular(variaciones, evento.getActual(), 1);
+        }
+    }
+
+    private void acumular(Map<Clave, Variacion> variaciones, CitaEvento.Instantanea cita, int signo) {
+        Clave clave = new Clave(cita.getInicio().toLocalDate(), cita.getProfesionalId(), cita.getServicioId());
+        Variacion variacion = variaciones.computeIfAbsent(clave, c -> new Variacion());
+        variacion.citas += signo;
+        if (cita.getEstado() == EstadoCita.COMPLETADA) {
+            variacion.completadas += signo;
+            variacion.ingresos += signo * cita.getPrecio();
+        }
+        if (cita.getEstado() == EstadoCita.CANCELADA) {
+            variacion.canceladas += signo;
+        }
+        if (cita.getEstado().ocupaAgenda() && cita.getFin() != null) {
+            variacion.minutos += signo * (int) ChronoUnit.MINUTES.between(cita.getInicio(), cita.getFin());
+        }
+    }
+
+    /**
+     * Escribe las variaciones acumuladas con un upsert por clave.
+     */
+    private void escribir(Map<Clave, Variacion> variaciones) {
+        variaciones.values().removeIf(Variacion::esNula);
+        if (variaciones.isEmpty()) {
+            return;
+        }
+
+        variaciones.forEach((clave, variacion) -> resumenDiarioRepository.acumular(
+                clave.fecha(), clave.profesionalId(), clave.servicioId(),
+                variacion.citas, variacion.completadas, variacion.canceladas, variacion.ingresos,
+                variacion.minutos));
+        log.debug("Actualizados {} resúmenes diarios", variaciones.size());
+    }
+
+    private void validarRango(LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("La fecha final no puede ser anterior a la fecha inicial");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAXIMO_DIAS_REPORTE) {
+            throw new IllegalArgumentException("El rango del reporte no puede superar " + MAXIMO_DIAS_REPORTE + " días");
+        }
+    }
+
+    /**
+     * Clave de un resumen: un profesional y un servicio en un día.
+     */
+    private record Clave(LocalDate fecha, Long profesionalId, Long servicioId) {
+    }
+
+    /**
+     * Variación pendiente de escribir en un resumen.
+     */
+    private static class Variacion {
+        private int citas;
+        private int completadas;
+        private int canceladas;
+        private double ingresos;
+        private int minutos;
+
+        private boolean esNula() {
+            return citas == 0 && completadas == 0 && canceladas == 0 && ingresos == 0 && minutos == 0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.neita.sistemacitas.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tarea programada que reconstruye los resúmenes diarios de los días recientes a partir de las citas.
+ * Cada día se reconstruye en su propia transacción corta, de modo que los bloqueos sobre resumen_diario
+ * y el tamaño del undo log quedan acotados a un día. Los días más antiguos solo contienen citas
+ * archivadas, que ya no cambian.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResumenDiarioTarea {
+
+    private final ResumenDiarioService resumenDiarioService;
+
+    @Value("${app.reportes.dias-reconstruccion:400}")
+    private int diasReconstruccion;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean();
+
+    /**
+     * Reconstruye los resúmenes desde hace los días configurados hasta hoy, del más antiguo al más reciente.
+     */
+    @Scheduled(cron = "${app.reportes.cron-reconstruccion:0 45 2 * * *}")
+    public void ejecutar() {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            log.debug("La reconstrucción de resúmenes diarios ya está en ejecución");
+            return;
+        }
+        long inicio = System.nanoTime();
+        LocalDate desde = LocalDate.now().minusDays(diasReconstruccion);
+        LocalDate hoy = LocalDate.now();
+        int dias = 0;
+        long creadas = 0;
+
+        try {
+            for (LocalDate fecha = desde; !fecha.isAfter(hoy); fecha = fecha.plusDays(1)) {
+                creadas += resumenDiarioService.reconstruirDia(fecha);
+                dias++;
+            }
+            log.info("Resúmenes diarios reconstruidos desde {}: {} días, {} filas ({} ms)",
+                    desde, dias, creadas, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        } catch (RuntimeException e) {
+            log.error("Error al reconstruir resúmenes diarios tras {} días: {}", dias, e.getMessage(), e);
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.entity.TokenRevocado;
+import com.neita.sistemacitas.entity.UsuarioRevocado;
+import com.neita.sistemacitas.exception.TokenInvalidoException;
+import com.neita.sistemacitas.repository.TokenRevocadoRepository;
+import com.neita.sistemacitas.repository.UsuarioRevocadoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio con las listas de revocación de tokens JWT.
+ * Guarda los IDs (jti) de los tokens revocados hasta que expiran y, por usuario, el instante
+ * a partir del cual se rechazan todos sus tokens anteriores (baja, cambio de contraseña o de email).
+ * Se usa como validador del decodificador de JWT, por lo que la comprobación se hace en memoria y no
+ * accede a la base de datos. Cada revocación se guarda también en token_revocado o usuario_revocado:
+ * al arrancar se cargan, de modo que un reinicio no vuelve a aceptar tokens revocados, y la purga
+ * periódica incorpora las revocaciones hechas por otras instancias.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RevocacionTokenService implements OAuth2TokenValidator<Jwt> {
+
+    private static final OAuth2Error TOKEN_REVOCADO =
+            new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, "El token ha sido revocado", null);
+
+    private final TokenRevocadoRepository tokenRevocadoRepository;
+    private final UsuarioRevocadoRepository usuarioRevocadoRepository;
+
+    @Value("${app.jwt.duracion-refresco-dias:7}")
+    private long duracionRefrescoDias;
+
+    // jti del token revocado -> instante de expiración del token
+    private final Map<String, Instant> tokensRevocados = new ConcurrentHashMap<>();
+
+    // email del usuario -> instante hasta el que se rechazan sus tokens
+    private final Map<String, Instant> usuariosRevocados = new ConcurrentHashMap<>();
+
+    /**
+     * Revoca un token concreto hasta su expiración.
+     */
+    @Transactional
+    public void revocar(Jwt token) {
+        if (token.getId() != null && token.getExpiresAt() != null) {
+            tokenRevocadoRepository.save(new TokenRevocado(token.getId(), utc(token.getExpiresAt())));
+            tokensRevocados.put(token.getId(), token.getExpiresAt());
+        }
+    }
+
+    /**
+     * Revoca un token de refresco al canjearlo, de modo que solo una petición pueda usarlo.
+     * La marca en memoria se añade con putIfAbsent y rechaza los canjes concurrentes en esta instancia;
+     * la fila se inserta sin actualizar una existente y la clave duplicada rechaza los de otras instancias.
+     * @throws TokenInvalidoException si el token ya se había canjeado o revocado
+     */
+    @Transactional
+    public void consumir(Jwt token) {
+        if (token.getId() == null || token.getExpiresAt() == null) {
+            throw new TokenInvalidoException("El token de refresco no tiene ID o expiración");
+        }
+        if (tokensRevocados.putIfAbsent(token.getId(), token.getExpiresAt()) != null) {
+            throw new TokenInvalidoException("El token de refresco ya se ha usado");
+        }
+        try {
+            tokenRevocadoRepository.insertar(token.getId(), utc(token.getExpiresAt()));
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia lo canjeó antes; la marca en memoria se conserva porque el token está revocado
+            throw new TokenInvalidoException("El token de refresco ya se ha usado");
+        } catch (RuntimeException e) {
+            tokensRevocados.remove(token.getId());
+            throw e;
+        }
+    }
+
+    /**
+     * Revoca todos los tokens emitidos hasta ahora para un usuario.
+     * Se redondea al segundo siguiente porque la fecha de emisión (iat) de los tokens tiene precisión de segundos.
+     * La revocación se guarda en la transacción en curso y solo se aplica en memoria tras su commit:
+     * si el cambio del usuario se deshace, sus tokens siguen siendo válidos.
+     */
+    @Transactional
+    public void revocarUsuario(String email) {
+        Instant revocadoHasta = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        usuarioRevocadoRepository.save(new UsuarioRevocado(email, utc(revocadoHasta)));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                usuariosRevocados.merge(email, revocadoHasta, RevocacionTokenService::masReciente);
+                log.info("Revocados los tokens emitidos para el usuario {}", email);
+            }
+        });
+    }
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt token) {
+        if (token.getId() != null && tokensRevocados.containsKey(token.getId())) {
+            return OAuth2TokenValidatorResult.failure(TOKEN_REVOCADO);
+        }
+        Instant revocadoHasta = usuariosRevocados.get(token.getSubject());
+        if (revocadoHasta != null && token.getIssuedAt() != null && token.getIssuedAt().isBefore(revocadoHasta)) {
+            return OAuth2TokenValidatorResult.failure(TOKEN_REVOCADO);
+        }
+        return OAuth2TokenValidatorResult.success();
+    }
+
+    /**
+     * Elimina las entradas que ya no pueden afectar a ningún token vigente y carga las guardadas
+     * en la base de datos, al arrancar y de forma periódica. Las revocaciones en memoria solo se
+     * eliminan al expirar, de modo que una revocación confirmada durante la carga no se pierde.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.jwt.purga-revocados-ms:600000}")
+    @Transactional
+    public void purgar() {
+        Instant ahora = Instant.now();
+        Instant limiteUsuarios = ahora.minus(Duration.ofDays(duracionRefrescoDias));
+        tokenRevocadoRepository.deleteExpiradosAntesDe(utc(ahora));
+        usuarioRevocadoRepository.deleteAnterioresA(utc(limiteUsuarios));
+
+        for (TokenRevocado token : tokenRevocadoRepository.findByExpiracionAfter(utc(ahora))) {
+            tokensRevocados.put(token.getJti(), token.getExpiracion().toInstant(ZoneOffset.UTC));
+        }
+        for (UsuarioRevocado usuario : usuarioRevocadoRepository.findByRevocadoHastaAfter(utc(limiteUsuarios))) {
+            usuariosRevocados.merge(usuario.getEmail(), usuario.getRevocadoHasta().toInstant(ZoneOffset.UTC),
+                    RevocacionTokenService::masReciente);
+        }
+        tokensRevocados.values().removeIf(expiracion -> expiracion.isBefore(ahora));
+        usuariosRevocados.values().removeIf(instante -> instante.isBefore(limiteUsuarios));
+    }
+
+    private static LocalDateTime utc(Instant instante) {
+        return LocalDateTime.ofInstant(instante, ZoneOffset.UTC);
+    }
+
+    private static Instant masReciente(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
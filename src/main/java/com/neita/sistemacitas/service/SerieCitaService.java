@@ -0,0 +1,233 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.dto.CitaDTO;
+import com.neita.sistemacitas.dto.SerieCitaDTO;
+import com.neita.sistemacitas.entity.Cita;
+import com.neita.sistemacitas.entity.EstadoCita;
+import com.neita.sistemacitas.entity.Profesional;
+import com.neita.sistemacitas.entity.SerieCita;
+import com.neita.sistemacitas.entity.Servicio;
+import com.neita.sistemacitas.event.CitaEvento;
+import com.neita.sistemacitas.exception.HorarioNoDisponibleException;
+import com.neita.sistemacitas.exception.ResourceNotFoundException;
+import com.neita.sistemacitas.repository.CitaRepository;
+import com.neita.sistemacitas.repository.ProfesionalRepository;
+import com.neita.sistemacitas.repository.SerieCitaRepository;
+import com.neita.sistemacitas.repository.ServicioRepository;
+import com.neita.sistemacitas.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio para gestionar series de citas recurrentes.
+ * Una serie se expande en todas sus citas de una vez: los conflictos de horario se comprueban con
+ * una sola consulta de rango sobre la agenda del profesional y las citas se insertan en lotes JDBC.
+ * Editar o cancelar el resto de una serie se resuelve con sentencias UPDATE/DELETE sobre el conjunto.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SerieCitaService {
+
+    /**
+     * Número máximo de citas que puede generar una serie.
+     */
+    public static final int MAXIMO_OCURRENCIAS = 104;
+
+    private final SerieCitaRepository serieCitaRepository;
+    private final CitaRepository citaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final ServicioRepository servicioRepository;
+    private final ProfesionalRepository profesionalRepository;
+    private final ReservaFranjaService reservaFranjaService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Obtiene las citas generadas por una serie.
+     */
+    @Transactional(readOnly = true)
+    public List<CitaDTO> obtenerCitas(Long serieId) {
+        log.debug("Obteniendo citas de la serie con ID: {}", serieId);
+        if (!serieCitaRepository.existsById(serieId)) {
+            throw new ResourceNotFoundException("Serie no encontrada con ID: " + serieId);
+        }
+        return citaRepository.findBySerieId(serieId);
+    }
+
+    /**
+     * Crea una serie y genera todas sus citas.
+     * Si alguna ocurrencia coincide con un horario ya reservado no se crea ninguna.
+     */
+    @Transactional
+    public SerieCitaDTO crear(SerieCitaDTO serieDTO) {
+        log.info("Creando serie de citas para usuario ID: {}", serieDTO.getUsuarioId());
+
+        List<LocalDateTime> fechas = calcularFechas(serieDTO);
+
+        if (!usuarioRepository.existsById(serieDTO.getUsuarioId())) {
+            throw new ResourceNotFoundException("Usuario no encontrado con ID: " + serieDTO.getUsuarioId());
+        }
+        Servicio servicio = servicioRepository.findById(serieDTO.getServicioId())
+                .orElseThrow(() -> new ResourceNotFoundException("Servicio no encontrado con ID: " + serieDTO.getServicioId()));
+        Profesional profesional = profesionalRepository.findById(serieDTO.getProfesionalId())
+                .orElseThrow(() -> new ResourceNotFoundException("Profesional no encontrado con ID: " + serieDTO.getProfesionalId()));
+
+        SerieCita serie = new SerieCita();
+        serie.setFechaHoraInicio(serieDTO.getFechaHoraInicio());
+        serie.setIntervaloSemanas(serieDTO.getIntervaloSemanas());
+        serie.setHasta(serieDTO.getHasta());
+        serie.setNotas(serieDTO.getNotas());
+        serie.setUsuario(usuarioRepository.getReferenceById(serieDTO.getUsuarioId()));
+        serie.setServicio(servicio);
+        serie.setProfesional(profesional);
+
+        List<Cita> citas = new ArrayList<>();
+        for (LocalDateTime fecha : fechas) {
+            Cita cita = new Cita();
+            cita.setFechaHora(fecha);
+            cita.setFechaHoraFin(fecha.plusMinutes(servicio.getDuracionMinutos()));
+            cita.setEstado(EstadoCita.PENDIENTE);
+            cita.setNotas(serie.getNotas());
+            cita.setPrecio(servicio.getPrecio());
+            cita.setFechaCreacion(LocalDateTime.now());
+            cita.setUsuario(serie.getUsuario());
+            cita.setServicio(servicio);
+            cita.setProfesional(profesional);
+            cita.setSerie(serie);
+            citas.add(cita);
+        }
+        verificarConflictos(profesional.getId(), citas);
+
+        SerieCita guardada = serieCitaRepository.save(serie);
+        citaRepository.saveAll(citas);
+        reservaFranjaService.reservarTodas(citas);
+        for (Cita cita : citas) {
+            eventPublisher.publishEvent(new CitaEvento(
+                    CitaEvento.Tipo.CREADA, cita.getId(), null, CitaEvento.Instantanea.de(cita)));
+        }
+        log.info("Serie creada exitosamente con ID: {} y {} citas", guardada.getId(), citas.size());
+
+        return convertirADTO(guardada, citas.size());
+    }
+
+    /**
+     * Actualiza las notas de las citas de la serie a partir de una fecha.
+     * @return el número de citas actualizadas
+     */
+    @Transactional
+    public int actualizarNotasDesde(Long serieId, LocalDateTime desde, String notas) {
+        log.info("Actualizando notas de la serie ID: {} desde {}", serieId, desde);
+        SerieCita serie = obtenerSerie(serieId);
+        serie.setNotas(notas);
+        int actualizadas = citaRepository.actualizarNotasSerieDesde(serieId, desde, notas);
+        log.info("Notas actualizadas en {} citas de la serie ID: {}", actualizadas, serieId);
+        return actualizadas;
+    }
+
+    /**
+     * Cancela las citas de la serie a partir de una fecha y libera sus franjas.
+     * La serie queda inactiva.
+     * @return el número de citas canceladas
+     */
+    @Transactional
+    public int cancelarDesde(Long serieId, LocalDateTime desde) {
+        log.info("Cancelando la serie ID: {} desde {}", serieId, desde);
+        SerieCita serie = obtenerSerie(serieId);
+        serie.setActiva(false);
+
+        // Los datos de agenda se leen antes del UPDATE para publicar los eventos de cada cita
+        Set<EstadoCita> predecesores = EstadoCita.CANCELADA.getPredecesores();
+        List<CitaRepository.AgendaCita> afectadas = citaRepository.findAgendaDeSerie(serieId, desde, predecesores);
+        if (afectadas.isEmpty()) {
+            return 0;
+        }
+        reservaFranjaService.liberarTodas(afectadas.stream().map(CitaRepository.AgendaCita::getId).toList());
+        int canceladas = citaRepository.actualizarEstadoSerieDesde(
+                serieId, desde, EstadoCita.CANCELADA, predecesores);
+
+        for (CitaRepository.AgendaCita cita : afectadas) {
+            CitaEvento.Instantanea anterior = new CitaEvento.Instantanea(
+                    cita.getProfesionalId(), cita.getServicioId(), cita.getInicio(), cita.getFin(), cita.getEstado(), cita.getPrecio());
+            CitaEvento.Instantanea actual = new CitaEvento.Instantanea(
+                    cita.getProfesionalId(), cita.getServicioId(), cita.getInicio(), cita.getFin(), EstadoCita.CANCELADA, cita.getPrecio());
+            eventPublisher.publishEvent(new CitaEvento(CitaEvento.Tipo.ACTUALIZADA, cita.getId(), anterior, actual));
+        }
+        log.info("Canceladas {} citas de la serie ID: {}", canceladas, serieId);
+        return canceladas;
+    }
+
+    /**
+     * Calcula las fechas de las citas de la serie según su regla de recurrencia.
+     */
+    private List<LocalDateTime> calcularFechas(SerieCitaDTO serieDTO) {
+        LocalDateTime inicio = serieDTO.getFechaHoraInicio();
+        if (serieDTO.getHasta().isBefore(inicio.toLocalDate())) {
+            throw new IllegalArgumentException("La fecha límite no puede ser anterior a la primera cita");
+        }
+        List<LocalDateTime> fechas = new ArrayList<>();
+        for (LocalDateTime fecha = inicio; !fecha.toLocalDate().isAfter(serieDTO.getHasta());
+             fecha = fecha.plusWeeks(serieDTO.getIntervaloSemanas())) {
+            if (fechas.size() == MAXIMO_OCURRENCIAS) {
+                throw new IllegalArgumentException("La serie no puede generar más de " + MAXIMO_OCURRENCIAS + " citas");
+            }
+            fechas.add(fecha);
+        }
+        return fechas;
+    }
+
+    /**
+     * Comprueba con una sola consulta de rango que ninguna cita de la serie coincida
+     * con una franja ya reservada del profesional.
+     */
+    private void verificarConflictos(Long profesionalId, List<Cita> citas) {
+        Set<LocalDateTime> ocupadas = reservaFranjaService.cargarOcupadas(
+                List.of(profesionalId),
+                citas.get(0).getFechaHora(),
+                citas.get(citas.size() - 1).getFechaHoraFin())
+                .getOrDefault(profesionalId, new HashSet<>());
+
+        List<LocalDateTime> conflictos = citas.stream()
+                .filter(cita -> ReservaFranjaService.iniciosDeFranja(cita.getFechaHora(), cita.getFechaHoraFin())
+                        .stream().anyMatch(ocupadas::contains))
+                .map(Cita::getFechaHora)
+                .toList();
+        if (!conflictos.isEmpty()) {
+            log.warn("La serie coincide con {} citas ya reservadas del profesional ID: {}", conflictos.size(), profesionalId);
+            throw new HorarioNoDisponibleException("El profesional ya tiene citas reservadas en: " +
+                    conflictos.stream().map(LocalDateTime::toString).collect(Collectors.joining(", ")));
+        }
+    }
+
+    private SerieCita obtenerSerie(Long serieId) {
+        return serieCitaRepository.findById(serieId)
+                .orElseThrow(() -> new ResourceNotFoundException("Serie no encontrada con ID: " + serieId));
+    }
+
+    /**
+     * Convierte una entidad SerieCita a DTO.
+     */
+    private SerieCitaDTO convertirADTO(SerieCita serie, int totalCitas) {
+        SerieCitaDTO dto = new SerieCitaDTO();
+        dto.setId(serie.getId());
+        dto.setFechaHoraInicio(serie.getFechaHoraInicio());
+        dto.setIntervaloSemanas(serie.getIntervaloSemanas());
+        dto.setHasta(serie.getHasta());
+        dto.setNotas(serie.getNotas());
+        dto.setActiva(serie.getActiva());
+        dto.setUsuarioId(serie.getUsuario().getId());
+        dto.setServicioId(serie.getServicio().getId());
+        dto.setProfesionalId(serie.getProfesional().getId());
+        dto.setTotalCitas(totalCitas);
+        return dto;
+    }
+}
@@ -1,11 +1,19 @@
 package com.neita.sistemacitas.service;
 
+import com.neita.sistemacitas.config.CacheConfig;
 import com.neita.sistemacitas.dto.ServicioDTO;
 import com.neita.sistemacitas.entity.Servicio;
+import com.neita.sistemacitas.event.ContadorEvento;
+import com.neita.sistemacitas.event.ContadorEvento.Contador;
 import com.neita.sistemacitas.exception.ResourceNotFoundException;
+import com.neita.sistemacitas.repository.CitaHistoricaRepository;
 import com.neita.sistemacitas.repository.ServicioRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +30,8 @@ import java.util.stream.Collectors;
 public class ServicioService {
 
     private final ServicioRepository servicioRepository;
+    private final CitaHistoricaRepository citaHistoricaRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Obtiene todos los servicios del sistema.
@@ -35,8 +45,9 @@ public class ServicioService {
     }
 
     /**
-     * Obtiene un servicio por su ID.
+     * Obtiene un servicio por su ID. El resultado se guarda en caché.
      */
+    @Cacheable(CacheConfig.SERVICIO_POR_ID)
     @Transactional(readOnly = true)
     public ServicioDTO obtenerPorId(Long id) {
         log.debug("Obteniendo servicio con ID: {}", id);
@@ -46,14 +57,15 @@ public class ServicioService {
     }
 
     /**
-     * Obtiene todos los servicios activos.
+     * Obtiene todos los servicios activos. El resultado se guarda en caché como lista inmutable.
      */
+    @Cacheable(CacheConfig.SERVICIOS_ACTIVOS)
     @Transactional(readOnly = true)
     public List<ServicioDTO> obtenerActivos() {
         log.debug("Obteniendo servicios activos");
         return servicioRepository.findByActivoTrue().stream()
                 .map(this::convertirADTO)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     /**
@@ -103,6 +115,7 @@ public class ServicioService {
     /**
      * Crea un nuevo servicio.
      */
+    @CacheEvict(cacheNames = CacheConfig.SERVICIOS_ACTIVOS, allEntries = true)
     @Transactional
     public ServicioDTO crear(ServicioDTO servicioDTO) {
         log.info("Creando nuevo servicio: {}", servicioDTO.getNombre());
@@ -110,11 +123,12 @@ public class ServicioService {
         Servicio servicio = new Servicio();
         servicio.setNombre(servicioDTO.getNombre());
         servicio.setDescripcion(servicioDTO.getDescripcion());
-        servicio.setDuracion(servicioDTO.getDuracion());
+        servicio.setDuracionMinutos(servicioDTO.getDuracionMinutos());
         servicio.setPrecio(servicioDTO.getPrecio());
         servicio.setActivo(true);
 
         Servicio guardado = servicioRepository.save(servicio);
+        eventPublisher.publishEvent(ContadorEvento.incremento(Contador.SERVICIOS_ACTIVOS));
         log.info("Servicio creado exitosamente con ID: {}", guardado.getId());
         
         return convertirADTO(guardado);
@@ -123,6 +137,10 @@ public class ServicioService {
     /**
      * Actualiza un servicio existente.
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.SERVICIO_POR_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.SERVICIOS_ACTIVOS, allEntries = true)
+    })
     @Transactional
     public ServicioDTO actualizar(Long id, ServicioDTO servicioDTO) {
         log.info("Actualizando servicio con ID: {}", id);
@@ -132,7 +150,7 @@ public class ServicioService {
 
         servicio.setNombre(servicioDTO.getNombre());
         servicio.setDescripcion(servicioDTO.getDescripcion());
-        servicio.setDuracion(servicioDTO.getDuracion());
+        servicio.setDuracionMinutos(servicioDTO.getDuracionMinutos());
         servicio.setPrecio(servicioDTO.getPrecio());
 
         Servicio actualizado = servicioRepository.save(servicio);
@@ -144,6 +162,10 @@ public class ServicioService {
     /**
      * Elimina un servicio (eliminación lógica).
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.SERVICIO_POR_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.SERVICIOS_ACTIVOS, allEntries = true)
+    })
     @Transactional
     public void eliminar(Long id) {
         log.info("Eliminando servicio con ID: {}", id);
@@ -151,6 +173,9 @@ public class ServicioService {
         Servicio servicio = servicioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Servicio no encontrado con ID: " + id));
         
+        if (Boolean.TRUE.equals(servicio.getActivo())) {
+            eventPublisher.publishEvent(ContadorEvento.decremento(Contador.SERVICIOS_ACTIVOS));
+        }
         servicio.setActivo(false);
         servicioRepository.save(servicio);
         
@@ -160,6 +185,10 @@ public class ServicioService {
     /**
      * Elimina permanentemente un servicio.
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.SERVICIO_POR_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.SERVICIOS_ACTIVOS, allEntries = true)
+    })
     @Transactional
     public void eliminarPermanente(Long id) {
         log.warn("Eliminando permanentemente servicio con ID: {}", id);
@@ -168,7 +197,13 @@ public class ServicioService {
             throw new ResourceNotFoundException("Servicio no encontrado con ID: " + id);
         }
         
+        // El archivo no tiene claves foráneas: sus citas se eliminan aquí
+        citaHistoricaRepository.deleteByServicioId(id);
         servicioRepository.deleteById(id);
+
+        // El borrado elimina en cascada las citas del servicio y, en la base de datos, sus series
+        eventPublisher.publishEvent(ContadorEvento.recuento(Contador.SERVICIOS_ACTIVOS));
+        eventPublisher.publishEvent(ContadorEvento.recuento(Contador.CITAS));
         log.info("Servicio eliminado permanentemente con ID: {}", id);
     }
 
@@ -180,7 +215,7 @@ public class ServicioService {
         dto.setId(servicio.getId());
         dto.setNombre(servicio.getNombre());
         dto.setDescripcion(servicio.getDescripcion());
-        dto.setDuracion(servicio.getDuracion());
+        dto.setDuracionMinutos(servicio.getDuracionMinutos());
         dto.setPrecio(servicio.getPrecio());
         dto.setActivo(servicio.getActivo());
         return dto;
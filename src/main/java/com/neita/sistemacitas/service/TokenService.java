@@ -0,0 +1,160 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.dto.TokenDTO;
+import com.neita.sistemacitas.exception.TokenInvalidoException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Servicio que emite, refresca y revoca los tokens JWT de la API.
+ * El token de acceso es de corta duración y lleva los roles del usuario; el de refresco dura más
+ * y solo sirve para obtener un nuevo par. Al refrescar se vuelve a cargar el usuario, de modo que
+ * un usuario desactivado no puede obtener tokens nuevos, y el token de refresco usado se revoca.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenService {
+
+    public static final String CLAIM_TIPO = "tipo";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String TIPO_ACCESO = "acceso";
+    public static final String TIPO_REFRESCO = "refresco";
+
+    private final JwtEncoder jwtEncoder;
+    private final SecretKey claveFirmaJwt;
+    private final UserDetailsService userDetailsService;
+    private final RevocacionTokenService revocacionTokenService;
+
+    @Value("${app.jwt.emisor:sistema-citas}")
+    private String emisor;
+
+    @Value("${app.jwt.duracion-acceso-minutos:15}")
+    private long duracionAccesoMinutos;
+
+    @Value("${app.jwt.duracion-refresco-dias:7}")
+    private long duracionRefrescoDias;
+
+    private volatile JwtDecoder decodificadorRefresco;
+
+    /**
+     * Emite un par de tokens para un usuario ya autenticado.
+     */
+    public TokenDTO emitir(UserDetails usuario) {
+        Instant ahora = Instant.now();
+        Duration duracionAcceso = Duration.ofMinutes(duracionAccesoMinutos);
+        List<String> roles = usuario.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+
+        String acceso = codificar(JwtClaimsSet.builder()
+                .issuer(emisor)
+                .subject(usuario.getUsername())
+                .id(UUID.randomUUID().toString())
+                .issuedAt(ahora)
+                .expiresAt(ahora.plus(duracionAcceso))
+                .claim(CLAIM_TIPO, TIPO_ACCESO)
+                .claim(CLAIM_ROLES, roles)
+                .build());
+        String refresco = codificar(JwtClaimsSet.builder()
+                .issuer(emisor)
+                .subject(usuario.getUsername())
+                .id(UUID.randomUUID().toString())
+                .issuedAt(ahora)
+                .expiresAt(ahora.plus(Duration.ofDays(duracionRefrescoDias)))
+                .claim(CLAIM_TIPO, TIPO_REFRESCO)
+                .build());
+
+        log.debug("Tokens emitidos para el usuario {}", usuario.getUsername());
+        return new TokenDTO(acceso, refresco, "Bearer", duracionAcceso.toSeconds());
+    }
+
+    /**
+     * Cambia un token de refresco válido por un nuevo par de tokens y revoca el usado.
+     * Si varias peticiones usan a la vez el mismo token, solo una obtiene el nuevo par.
+     */
+    public TokenDTO refrescar(String tokenRefresco) {
+        Jwt refresco = decodificarRefresco(tokenRefresco);
+        UserDetails usuario;
+        try {
+            usuario = userDetailsService.loadUserByUsername(refresco.getSubject());
+        } catch (UsernameNotFoundException e) {
+            throw new TokenInvalidoException("El usuario del token no existe o está inactivo");
+        }
+        if (!usuario.isEnabled()) {
+            throw new TokenInvalidoException("El usuario del token está inactivo");
+        }
+        revocacionTokenService.consumir(refresco);
+        return emitir(usuario);
+    }
+
+    /**
+     * Revoca un token de refresco y, si se indica, el token de acceso con el que se hizo la petición.
+     */
+    public void revocar(String tokenRefresco, Jwt acceso) {
+        Jwt refresco = decodificarRefresco(tokenRefresco);
+        if (acceso != null && !acceso.getSubject().equals(refresco.getSubject())) {
+            throw new TokenInvalidoException("Los tokens pertenecen a usuarios distintos");
+        }
+        revocacionTokenService.revocar(refresco);
+        if (acceso != null) {
+            revocacionTokenService.revocar(acceso);
+        }
+        log.info("Tokens revocados para el usuario {}", refresco.getSubject());
+    }
+
+    private String codificar(JwtClaimsSet claims) {
+        JwsHeader cabecera = JwsHeader.with(MacAlgorithm.HS256).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(cabecera, claims)).getTokenValue();
+    }
+
+    private Jwt decodificarRefresco(String token) {
+        try {
+            return obtenerDecodificadorRefresco().decode(token);
+        } catch (JwtException e) {
+            throw new TokenInvalidoException("Token de refresco no válido: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Decodificador de los tokens de refresco; se construye al primer uso con la misma clave
+     * que los de acceso pero exige el tipo de refresco.
+     */
+    private JwtDecoder obtenerDecodificadorRefresco() {
+        JwtDecoder decoder = decodificadorRefresco;
+        if (decoder == null) {
+            NimbusJwtDecoder nimbus = NimbusJwtDecoder.withSecretKey(claveFirmaJwt)
+                    .macAlgorithm(MacAlgorithm.HS256)
+                    .build();
+            nimbus.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                    JwtValidators.createDefaultWithIssuer(emisor),
+                    new JwtClaimValidator<String>(CLAIM_TIPO, TIPO_REFRESCO::equals),
+                    revocacionTokenService));
+            decodificadorRefresco = nimbus;
+            decoder = nimbus;
+        }
+        return decoder;
+    }
+}
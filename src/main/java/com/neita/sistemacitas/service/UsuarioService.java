@@ -1,31 +1,46 @@
 package com.neita.sistemacitas.service;
 
+import com.neita.sistemacitas.config.CacheConfig;
 import com.neita.sistemacitas.dto.UsuarioDTO;
 import com.neita.sistemacitas.entity.Usuario;
+import com.neita.sistemacitas.event.ContadorEvento;
+import com.neita.sistemacitas.event.ContadorEvento.Contador;
 import com.neita.sistemacitas.exception.ResourceNotFoundException;
 import com.neita.sistemacitas.exception.DuplicateResourceException;
+import com.neita.sistemacitas.repository.CitaHistoricaRepository;
 import com.neita.sistemacitas.repository.UsuarioRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Servicio para gestionar operaciones relacionadas con usuarios.
  * Implementa la lógica de negocio y validaciones necesarias.
  */
 @Service
+@Timed("servicio.metodos")
 @RequiredArgsConstructor
 @Slf4j
 public class UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
+    private final CitaHistoricaRepository citaHistoricaRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RevocacionTokenService revocacionTokenService;
+    private final CacheAutenticacionService cacheAutenticacion;
 
     /**
      * Obtiene todos los usuarios del sistema.
@@ -38,6 +53,18 @@ public class UsuarioService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Recorre todos los usuarios del sistema entregándolos uno a uno al consumidor,
+     * sin mantener la lista completa en memoria.
+     */
+    @Transactional(readOnly = true)
+    public void recorrerTodos(Consumer<UsuarioDTO> consumidor) {
+        log.debug("Recorriendo todos los usuarios en modo streaming");
+        try (Stream<UsuarioDTO> usuarios = usuarioRepository.streamAllDTO()) {
+            usuarios.forEach(consumidor);
+        }
+    }
+
     /**
      * Obtiene un usuario por su ID.
      */
@@ -104,6 +131,7 @@ public class UsuarioService {
         usuario.setActivo(true);
 
         Usuario guardado = usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(ContadorEvento.incremento(Contador.USUARIOS_ACTIVOS));
         log.info("Usuario creado exitosamente con ID: {}", guardado.getId());
         
         return convertirADTO(guardado);
@@ -111,7 +139,12 @@ public class UsuarioService {
 
     /**
      * Actualiza un usuario existente.
+     * Invalida la caché de profesionales, que incluye el nombre y el email del usuario.
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PROFESIONAL_POR_ID, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.PROFESIONALES_ACTIVOS, allEntries = true)
+    })
     @Transactional
     public UsuarioDTO actualizar(Long id, UsuarioDTO usuarioDTO) {
         log.info("Actualizando usuario con ID: {}", id);
@@ -125,15 +158,24 @@ public class UsuarioService {
             throw new DuplicateResourceException("Ya existe un usuario con el email: " + usuarioDTO.getEmail());
         }
 
+        String emailAnterior = usuario.getEmail();
+        boolean cambiaPassword = usuarioDTO.getPassword() != null && !usuarioDTO.getPassword().isEmpty();
+
         usuario.setNombre(usuarioDTO.getNombre());
         usuario.setEmail(usuarioDTO.getEmail());
         usuario.setTelefono(usuarioDTO.getTelefono());
         
         // Solo actualizar contraseña si se proporciona una nueva
-        if (usuarioDTO.getPassword() != null && !usuarioDTO.getPassword().isEmpty()) {
+        if (cambiaPassword) {
             usuario.setPassword(passwordEncoder.encode(usuarioDTO.getPassword()));
         }
 
+        // Los tokens emitidos con el email o la contraseña anteriores dejan de ser válidos
+        if (cambiaPassword || !emailAnterior.equals(usuarioDTO.getEmail())) {
+            revocacionTokenService.revocarUsuario(emailAnterior);
+        }
+        cacheAutenticacion.removeUserFromCache(emailAnterior);
+
         Usuario actualizado = usuarioRepository.save(usuario);
         log.info("Usuario actualizado exitosamente con ID: {}", actualizado.getId());
         
@@ -150,24 +192,45 @@ public class UsuarioService {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + id));
         
+        if (Boolean.TRUE.equals(usuario.getActivo())) {
+            eventPublisher.publishEvent(ContadorEvento.decremento(Contador.USUARIOS_ACTIVOS));
+        }
         usuario.setActivo(false);
         usuarioRepository.save(usuario);
+        revocacionTokenService.revocarUsuario(usuario.getEmail());
+        cacheAutenticacion.removeUserFromCache(usuario.getEmail());
         
         log.info("Usuario eliminado exitosamente con ID: {}", id);
     }
 
     /**
      * Elimina permanentemente un usuario.
+     * Invalida la caché de profesionales porque el borrado elimina en cascada su profesional.
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PROFESIONAL_POR_ID, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.PROFESIONALES_ACTIVOS, allEntries = true)
+    })
     @Transactional
     public void eliminarPermanente(Long id) {
         log.warn("Eliminando permanentemente usuario con ID: {}", id);
         
-        if (!usuarioRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Usuario no encontrado con ID: " + id);
-        }
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + id));
         
-        usuarioRepository.deleteById(id);
+        // El archivo no tiene claves foráneas: sus citas, y las de su profesional, se eliminan aquí
+        citaHistoricaRepository.deleteByUsuarioId(id);
+        if (usuario.getProfesional() != null) {
+            citaHistoricaRepository.deleteByProfesionalId(usuario.getProfesional().getId());
+        }
+        usuarioRepository.delete(usuario);
+        revocacionTokenService.revocarUsuario(usuario.getEmail());
+        cacheAutenticacion.removeUserFromCache(usuario.getEmail());
+
+        // El borrado elimina en cascada el profesional y las citas del usuario y, en la base de datos, sus series
+        eventPublisher.publishEvent(ContadorEvento.recuento(Contador.USUARIOS_ACTIVOS));
+        eventPublisher.publishEvent(ContadorEvento.recuento(Contador.PROFESIONALES_ACTIVOS));
+        eventPublisher.publishEvent(ContadorEvento.recuento(Contador.CITAS));
         log.info("Usuario eliminado permanentemente con ID: {}", id);
     }
 
@@ -0,0 +1,16 @@
+-- Revocaciones de tokens JWT para H2, equivalente a mysql/V10__revocacion_tokens.sql.
+
+CREATE TABLE token_revocado (
+    jti VARCHAR(64) NOT NULL,
+    expiracion TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (jti)
+);
+
+CREATE TABLE usuario_revocado (
+    email VARCHAR(255) NOT NULL,
+    revocado_hasta TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (email)
+);
+
+CREATE INDEX idx_token_revocado_expiracion ON token_revocado (expiracion);
+CREATE INDEX idx_usuario_revocado_hasta ON usuario_revocado (revocado_hasta);
@@ -0,0 +1,4 @@
+-- Índices del borrado de citas archivadas para H2, equivalente a mysql/V11__indices_borrado_historico.sql.
+
+CREATE INDEX idx_cita_historico_servicio ON cita_historico (servicio_id);
+CREATE INDEX idx_cita_historico_profesional ON cita_historico (profesional_id);
@@ -0,0 +1,52 @@
+-- Esquema inicial para H2 en modo MySQL (perfil perf), equivalente a mysql/V1__esquema_inicial.sql.
+-- H2 convierte TEXT en CLOB y Hibernate espera VARCHAR, por lo que los textos largos se declaran VARCHAR.
+-- En H2 la base de datos siempre parte vacía: el ID de cita se crea ya sin autoincremento (ver V2).
+
+CREATE TABLE usuario (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nombre VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    telefono VARCHAR(255),
+    fecha_registro TIMESTAMP(6) NOT NULL,
+    rol VARCHAR(50) NOT NULL,
+    activo BOOLEAN NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_usuario_email UNIQUE (email)
+);
+
+CREATE TABLE profesional (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    especialidad VARCHAR(255) NOT NULL,
+    horario_disponible TIMESTAMP(6),
+    activo BOOLEAN NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_profesional_usuario UNIQUE (usuario_id),
+    CONSTRAINT fk_profesional_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id)
+);
+
+CREATE TABLE servicio (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nombre VARCHAR(255) NOT NULL,
+    descripcion VARCHAR(65535),
+    duracion VARCHAR(255) NOT NULL,
+    precio DOUBLE NOT NULL,
+    activo BOOLEAN NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE cita (
+    id BIGINT NOT NULL,
+    fecha_hora TIMESTAMP(6) NOT NULL,
+    estado VARCHAR(50) NOT NULL,
+    notas VARCHAR(65535),
+    fecha_creacion TIMESTAMP(6) NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    servicio_id BIGINT NOT NULL,
+    profesional_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_cita_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id),
+    CONSTRAINT fk_cita_servicio FOREIGN KEY (servicio_id) REFERENCES servicio (id),
+    CONSTRAINT fk_cita_profesional FOREIGN KEY (profesional_id) REFERENCES profesional (id)
+);
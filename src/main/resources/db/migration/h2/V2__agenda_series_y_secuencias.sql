@@ -0,0 +1,40 @@
+-- Estructura de agenda para H2, equivalente a mysql/V2__agenda_series_y_secuencias.sql.
+-- H2 tiene secuencias nativas y Hibernate las usa con H2Dialect en lugar de las tablas *_seq de MySQL.
+
+ALTER TABLE servicio ADD COLUMN duracion_minutos INT NULL;
+
+ALTER TABLE cita ADD COLUMN fecha_hora_fin TIMESTAMP(6) NULL;
+ALTER TABLE cita ADD COLUMN serie_id BIGINT NULL;
+
+CREATE TABLE serie_cita (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    fecha_hora_inicio TIMESTAMP(6) NOT NULL,
+    intervalo_semanas INT NOT NULL,
+    hasta DATE NOT NULL,
+    notas VARCHAR(65535),
+    activa BOOLEAN NOT NULL,
+    fecha_creacion TIMESTAMP(6) NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    servicio_id BIGINT NOT NULL,
+    profesional_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_serie_cita_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id),
+    CONSTRAINT fk_serie_cita_servicio FOREIGN KEY (servicio_id) REFERENCES servicio (id),
+    CONSTRAINT fk_serie_cita_profesional FOREIGN KEY (profesional_id) REFERENCES profesional (id)
+);
+
+ALTER TABLE cita ADD CONSTRAINT fk_cita_serie FOREIGN KEY (serie_id) REFERENCES serie_cita (id);
+
+CREATE TABLE franja_reservada (
+    id BIGINT NOT NULL,
+    profesional_id BIGINT NOT NULL,
+    inicio TIMESTAMP(6) NOT NULL,
+    cita_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_franja_profesional_inicio UNIQUE (profesional_id, inicio),
+    CONSTRAINT fk_franja_reservada_cita FOREIGN KEY (cita_id) REFERENCES cita (id) ON DELETE CASCADE
+);
+
+-- Mismo tamaño de bloque que Cita.IDS_POR_BLOQUE; V3 ajusta franja_reservada_seq
+CREATE SEQUENCE cita_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE franja_reservada_seq START WITH 1 INCREMENT BY 50;
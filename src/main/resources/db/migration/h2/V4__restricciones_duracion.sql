@@ -0,0 +1,4 @@
+-- Restricciones de la duración para H2, equivalente a mysql/V4__restricciones_duracion.sql.
+
+ALTER TABLE servicio ALTER COLUMN duracion_minutos SET NOT NULL;
+ALTER TABLE servicio DROP COLUMN duracion;
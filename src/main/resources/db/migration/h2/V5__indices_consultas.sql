@@ -0,0 +1,32 @@
+-- Índices compuestos para las consultas frecuentes de los repositorios (H2, igual que mysql/V5__indices_consultas.sql).
+-- Las columnas siguen el orden filtro de igualdad, rango/orden y desempate por id.
+
+-- CitaRepository: findByProfesionalIdOrderByFechaHoraAsc, findCitasByProfesionalAndFechaHora
+CREATE INDEX idx_cita_profesional_fecha ON cita (profesional_id, fecha_hora);
+
+-- CitaRepository: findPaginaPorEstado (keyset), findByEstado, countByEstado, findAgendaVencidas
+CREATE INDEX idx_cita_estado_fecha ON cita (estado, fecha_hora, id);
+
+-- CitaRepository: findByUsuarioIdOrderByFechaHoraDesc, findByUsuarioId
+CREATE INDEX idx_cita_usuario_fecha ON cita (usuario_id, fecha_hora);
+
+-- CitaRepository: findPaginaEnRango, findPaginaPasadas (keyset), findAllDTO, streamAllDTO, findByFechaHoraBetween
+CREATE INDEX idx_cita_fecha_id ON cita (fecha_hora, id);
+
+-- CitaRepository: findBySerieId, findAgendaDeSerie, actualizarEstadoSerieDesde, actualizarNotasSerieDesde
+CREATE INDEX idx_cita_serie_fecha ON cita (serie_id, fecha_hora);
+
+-- UsuarioRepository: findByActivoTrue, countUsuariosActivos
+CREATE INDEX idx_usuario_activo ON usuario (activo);
+
+-- UsuarioRepository: findByRol
+CREATE INDEX idx_usuario_rol ON usuario (rol);
+
+-- ProfesionalRepository: findByActivoTrue, countProfesionalesActivos
+CREATE INDEX idx_profesional_activo ON profesional (activo);
+
+-- ServicioRepository: findByActivoTrue, countServiciosActivos
+CREATE INDEX idx_servicio_activo ON servicio (activo);
+
+-- ServicioRepository: findByPrecioLessThanEqual, findByPrecioBetween, findAllByOrderByPrecioAsc
+CREATE INDEX idx_servicio_precio ON servicio (precio);
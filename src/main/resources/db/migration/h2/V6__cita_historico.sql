@@ -0,0 +1,22 @@
+-- Archivo de citas finalizadas antiguas para H2, equivalente a mysql/V6__cita_historico.sql.
+
+CREATE TABLE cita_historico (
+    id BIGINT NOT NULL,
+    fecha_hora TIMESTAMP(6) NOT NULL,
+    fecha_hora_fin TIMESTAMP(6),
+    estado VARCHAR(50) NOT NULL,
+    notas VARCHAR(65535),
+    fecha_creacion TIMESTAMP(6) NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    servicio_id BIGINT NOT NULL,
+    profesional_id BIGINT NOT NULL,
+    serie_id BIGINT,
+    fecha_archivo TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- CitaHistoricaRepository: findPaginaPasadas (keyset), findFechaMaxima
+CREATE INDEX idx_cita_historico_fecha_id ON cita_historico (fecha_hora, id);
+
+-- CitaHistoricaRepository: findByUsuarioIdOrderByFechaHoraDesc
+CREATE INDEX idx_cita_historico_usuario_fecha ON cita_historico (usuario_id, fecha_hora);
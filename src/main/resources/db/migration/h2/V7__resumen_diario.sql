@@ -0,0 +1,18 @@
+-- Resumen de citas por día, profesional y servicio para H2, equivalente a mysql/V7__resumen_diario.sql.
+-- En H2 la base de datos parte vacía, por lo que no hay carga inicial.
+
+CREATE TABLE resumen_diario (
+    fecha DATE NOT NULL,
+    profesional_id BIGINT NOT NULL,
+    servicio_id BIGINT NOT NULL,
+    citas INT NOT NULL,
+    completadas INT NOT NULL,
+    canceladas INT NOT NULL,
+    ingresos DOUBLE NOT NULL,
+    minutos_reservados INT NOT NULL,
+    PRIMARY KEY (fecha, profesional_id, servicio_id)
+);
+
+-- ResumenDiarioRepository: reportes filtrados por profesional o por servicio
+CREATE INDEX idx_resumen_profesional_fecha ON resumen_diario (profesional_id, fecha);
+CREATE INDEX idx_resumen_servicio_fecha ON resumen_diario (servicio_id, fecha);
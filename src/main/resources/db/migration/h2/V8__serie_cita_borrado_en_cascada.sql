@@ -0,0 +1,15 @@
+-- Borrado en cascada de las series para H2, equivalente a mysql/V8__serie_cita_borrado_en_cascada.sql.
+
+ALTER TABLE serie_cita DROP CONSTRAINT fk_serie_cita_usuario;
+ALTER TABLE serie_cita DROP CONSTRAINT fk_serie_cita_servicio;
+ALTER TABLE serie_cita DROP CONSTRAINT fk_serie_cita_profesional;
+ALTER TABLE cita DROP CONSTRAINT fk_cita_serie;
+
+ALTER TABLE serie_cita ADD CONSTRAINT fk_serie_cita_usuario
+    FOREIGN KEY (usuario_id) REFERENCES usuario (id) ON DELETE CASCADE;
+ALTER TABLE serie_cita ADD CONSTRAINT fk_serie_cita_servicio
+    FOREIGN KEY (servicio_id) REFERENCES servicio (id) ON DELETE CASCADE;
+ALTER TABLE serie_cita ADD CONSTRAINT fk_serie_cita_profesional
+    FOREIGN KEY (profesional_id) REFERENCES profesional (id) ON DELETE CASCADE;
+
+ALTER TABLE cita ADD CONSTRAINT fk_cita_serie FOREIGN KEY (serie_id) REFERENCES serie_cita (id) ON DELETE SET NULL;
@@ -0,0 +1,9 @@
+-- Precio de cada cita para H2, equivalente a mysql/V9__precio_cita.sql.
+
+ALTER TABLE cita ADD COLUMN precio DOUBLE NULL;
+UPDATE cita c SET precio = (SELECT s.precio FROM servicio s WHERE s.id = c.servicio_id);
+ALTER TABLE cita ALTER COLUMN precio SET NOT NULL;
+
+ALTER TABLE cita_historico ADD COLUMN precio DOUBLE NULL;
+UPDATE cita_historico h SET precio = COALESCE((SELECT s.precio FROM servicio s WHERE s.id = h.servicio_id), 0);
+ALTER TABLE cita_historico ALTER COLUMN precio SET NOT NULL;
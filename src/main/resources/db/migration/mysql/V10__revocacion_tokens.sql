@@ -0,0 +1,20 @@
+-- Revocaciones de tokens JWT. RevocacionTokenService las valida en memoria y las guarda aquí para que
+-- un reinicio o un despliegue no vuelva a aceptar tokens revocados. Los instantes se guardan en UTC.
+
+-- Tokens revocados por su jti hasta su expiración
+CREATE TABLE token_revocado (
+    jti VARCHAR(64) NOT NULL,
+    expiracion DATETIME(6) NOT NULL,
+    PRIMARY KEY (jti)
+) ENGINE = InnoDB;
+
+-- Usuarios cuyos tokens emitidos antes de revocado_hasta se rechazan
+CREATE TABLE usuario_revocado (
+    email VARCHAR(255) NOT NULL,
+    revocado_hasta DATETIME(6) NOT NULL,
+    PRIMARY KEY (email)
+) ENGINE = InnoDB;
+
+-- RevocacionTokenService.purgar
+CREATE INDEX idx_token_revocado_expiracion ON token_revocado (expiracion);
+CREATE INDEX idx_usuario_revocado_hasta ON usuario_revocado (revocado_hasta);
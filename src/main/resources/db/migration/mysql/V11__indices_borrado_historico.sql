@@ -0,0 +1,9 @@
+-- Índices para eliminar las citas archivadas de un servicio o profesional que se borra permanentemente.
+-- cita_historico no declara claves foráneas, por lo que el borrado lo hacen los servicios; sin estos
+-- índices cada borrado recorrería el archivo completo. usuario_id ya está cubierto por V6.
+
+-- CitaHistoricaRepository: deleteByServicioId
+CREATE INDEX idx_cita_historico_servicio ON cita_historico (servicio_id);
+
+-- CitaHistoricaRepository: deleteByProfesionalId
+CREATE INDEX idx_cita_historico_profesional ON cita_historico (profesional_id);
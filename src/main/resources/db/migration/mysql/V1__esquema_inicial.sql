@@ -0,0 +1,51 @@
+-- Esquema inicial del sistema de citas, tal como lo generaba Hibernate con ddl-auto=update.
+-- En bases de datos ya existentes no se ejecuta: spring.flyway.baseline-on-migrate las registra en la versión 1.
+
+CREATE TABLE usuario (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    telefono VARCHAR(255),
+    fecha_registro DATETIME(6) NOT NULL,
+    rol VARCHAR(50) NOT NULL,
+    activo BIT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_usuario_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE profesional (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    especialidad VARCHAR(255) NOT NULL,
+    horario_disponible DATETIME(6),
+    activo BIT NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_profesional_usuario UNIQUE (usuario_id),
+    CONSTRAINT fk_profesional_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE servicio (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(255) NOT NULL,
+    descripcion TEXT,
+    duracion VARCHAR(255) NOT NULL,
+    precio DOUBLE NOT NULL,
+    activo BIT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE cita (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    fecha_hora DATETIME(6) NOT NULL,
+    estado VARCHAR(50) NOT NULL,
+    notas TEXT,
+    fecha_creacion DATETIME(6) NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    servicio_id BIGINT NOT NULL,
+    profesional_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_cita_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id),
+    CONSTRAINT fk_cita_servicio FOREIGN KEY (servicio_id) REFERENCES servicio (id),
+    CONSTRAINT fk_cita_profesional FOREIGN KEY (profesional_id) REFERENCES profesional (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,51 @@
+-- Estructura de agenda: duración en minutos, fin de cita, franjas reservadas, series recurrentes
+-- y secuencias de IDs de cita y franja (emuladas con tablas, ya que MySQL no tiene secuencias).
+-- Los datos existentes se convierten en V3 y las restricciones definitivas se aplican en V4.
+
+ALTER TABLE servicio ADD COLUMN duracion_minutos INT NULL;
+
+-- Los IDs de cita los asigna Hibernate desde cita_seq en bloques para poder agrupar los INSERT
+ALTER TABLE cita
+    MODIFY id BIGINT NOT NULL,
+    ADD COLUMN fecha_hora_fin DATETIME(6) NULL,
+    ADD COLUMN serie_id BIGINT NULL;
+
+CREATE TABLE serie_cita (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    fecha_hora_inicio DATETIME(6) NOT NULL,
+    intervalo_semanas INT NOT NULL,
+    hasta DATE NOT NULL,
+    notas TEXT,
+    activa BIT NOT NULL,
+    fecha_creacion DATETIME(6) NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    servicio_id BIGINT NOT NULL,
+    profesional_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_serie_cita_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id),
+    CONSTRAINT fk_serie_cita_servicio FOREIGN KEY (servicio_id) REFERENCES servicio (id),
+    CONSTRAINT fk_serie_cita_profesional FOREIGN KEY (profesional_id) REFERENCES profesional (id)
+) ENGINE = InnoDB;
+
+ALTER TABLE cita ADD CONSTRAINT fk_cita_serie FOREIGN KEY (serie_id) REFERENCES serie_cita (id);
+
+CREATE TABLE franja_reservada (
+    id BIGINT NOT NULL,
+    profesional_id BIGINT NOT NULL,
+    inicio DATETIME(6) NOT NULL,
+    cita_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_franja_profesional_inicio UNIQUE (profesional_id, inicio),
+    CONSTRAINT fk_franja_reservada_cita FOREIGN KEY (cita_id) REFERENCES cita (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+-- Hibernate entrega los IDs de cada bloque de 50 por debajo del valor leído:
+-- el valor inicial supera el mayor ID existente en al menos el tamaño del bloque
+CREATE TABLE cita_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO cita_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM cita;
+
+CREATE TABLE franja_reservada_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
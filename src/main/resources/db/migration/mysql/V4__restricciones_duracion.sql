@@ -0,0 +1,6 @@
+-- La duración en minutos ya está calculada para todos los servicios (V3): se vuelve obligatoria
+-- y se elimina la duración en texto libre.
+
+ALTER TABLE servicio
+    MODIFY duracion_minutos INT NOT NULL,
+    DROP COLUMN duracion;
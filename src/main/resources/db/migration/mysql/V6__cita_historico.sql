@@ -0,0 +1,23 @@
+-- Archivo de citas finalizadas antiguas. Las filas conservan el ID de cita y no declaran claves foráneas
+-- para que archivar no añada bloqueos sobre usuario, servicio ni profesional.
+
+CREATE TABLE cita_historico (
+    id BIGINT NOT NULL,
+    fecha_hora DATETIME(6) NOT NULL,
+    fecha_hora_fin DATETIME(6),
+    estado VARCHAR(50) NOT NULL,
+    notas TEXT,
+    fecha_creacion DATETIME(6) NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    servicio_id BIGINT NOT NULL,
+    profesional_id BIGINT NOT NULL,
+    serie_id BIGINT,
+    fecha_archivo DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- CitaHistoricaRepository: findPaginaPasadas (keyset), findFechaMaxima
+CREATE INDEX idx_cita_historico_fecha_id ON cita_historico (fecha_hora, id);
+
+-- CitaHistoricaRepository: findByUsuarioIdOrderByFechaHoraDesc
+CREATE INDEX idx_cita_historico_usuario_fecha ON cita_historico (usuario_id, fecha_hora);
@@ -0,0 +1,34 @@
+-- Resumen de citas por día, profesional y servicio para los reportes.
+-- Se mantiene de forma incremental desde ResumenDiarioService y se reconstruye cada noche.
+
+CREATE TABLE resumen_diario (
+    fecha DATE NOT NULL,
+    profesional_id BIGINT NOT NULL,
+    servicio_id BIGINT NOT NULL,
+    citas INT NOT NULL,
+    completadas INT NOT NULL,
+    canceladas INT NOT NULL,
+    ingresos DOUBLE NOT NULL,
+    minutos_reservados INT NOT NULL,
+    PRIMARY KEY (fecha, profesional_id, servicio_id)
+) ENGINE = InnoDB;
+
+-- ResumenDiarioRepository: reportes filtrados por profesional o por servicio
+CREATE INDEX idx_resumen_profesional_fecha ON resumen_diario (profesional_id, fecha);
+CREATE INDEX idx_resumen_servicio_fecha ON resumen_diario (servicio_id, fecha);
+
+-- Carga inicial con las citas existentes, activas y archivadas
+INSERT INTO resumen_diario
+    (fecha, profesional_id, servicio_id, citas, completadas, canceladas, ingresos, minutos_reservados)
+SELECT DATE(c.fecha_hora), c.profesional_id, c.servicio_id,
+       COUNT(*),
+       SUM(CASE WHEN c.estado = 'COMPLETADA' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN c.estado = 'CANCELADA' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN c.estado = 'COMPLETADA' THEN s.precio ELSE 0 END),
+       COALESCE(SUM(CASE WHEN c.estado <> 'CANCELADA'
+                         THEN TIMESTAMPDIFF(MINUTE, c.fecha_hora, c.fecha_hora_fin) ELSE 0 END), 0)
+FROM (SELECT fecha_hora, fecha_hora_fin, estado, profesional_id, servicio_id FROM cita
+      UNION ALL
+      SELECT fecha_hora, fecha_hora_fin, estado, profesional_id, servicio_id FROM cita_historico) c
+JOIN servicio s ON s.id = c.servicio_id
+GROUP BY DATE(c.fecha_hora), c.profesional_id, c.servicio_id;
@@ -0,0 +1,15 @@
+-- Las series se borran con su cliente, servicio o profesional, igual que sus citas: sin ON DELETE
+-- el borrado permanente de un propietario con series fallaba por la clave foránea.
+-- Una cita que cambió de profesional o servicio puede seguir apuntando a una serie borrada: queda como cita individual.
+
+ALTER TABLE serie_cita DROP FOREIGN KEY fk_serie_cita_usuario;
+ALTER TABLE serie_cita DROP FOREIGN KEY fk_serie_cita_servicio;
+ALTER TABLE serie_cita DROP FOREIGN KEY fk_serie_cita_profesional;
+ALTER TABLE cita DROP FOREIGN KEY fk_cita_serie;
+
+ALTER TABLE serie_cita
+    ADD CONSTRAINT fk_serie_cita_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id) ON DELETE CASCADE,
+    ADD CONSTRAINT fk_serie_cita_servicio FOREIGN KEY (servicio_id) REFERENCES servicio (id) ON DELETE CASCADE,
+    ADD CONSTRAINT fk_serie_cita_profesional FOREIGN KEY (profesional_id) REFERENCES profesional (id) ON DELETE CASCADE;
+
+ALTER TABLE cita ADD CONSTRAINT fk_cita_serie FOREIGN KEY (serie_id) REFERENCES serie_cita (id) ON DELETE SET NULL;
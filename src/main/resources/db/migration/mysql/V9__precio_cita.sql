@@ -0,0 +1,13 @@
+-- Precio de cada cita, fijado al reservarla. Los resúmenes diarios suman este precio en lugar del
+-- precio actual del servicio, de modo que cambiar un precio no reescribe los ingresos ya registrados.
+-- Las citas existentes toman el precio actual de su servicio: es el único dato disponible.
+
+ALTER TABLE cita ADD COLUMN precio DOUBLE NULL;
+UPDATE cita c JOIN servicio s ON s.id = c.servicio_id SET c.precio = s.precio;
+ALTER TABLE cita MODIFY precio DOUBLE NOT NULL;
+
+ALTER TABLE cita_historico ADD COLUMN precio DOUBLE NULL;
+UPDATE cita_historico h JOIN servicio s ON s.id = h.servicio_id SET h.precio = s.precio;
+-- Sin clave foránea, una cita archivada puede referenciar un servicio ya eliminado
+UPDATE cita_historico SET precio = 0 WHERE precio IS NULL;
+ALTER TABLE cita_historico MODIFY precio DOUBLE NOT NULL;
@@ -0,0 +1,171 @@
+package com.neita.sistemacitas;
+
+import com.neita.sistemacitas.entity.Cita;
+import com.neita.sistemacitas.entity.EstadoCita;
+import com.neita.sistemacitas.entity.Profesional;
+import com.neita.sistemacitas.entity.SerieCita;
+import com.neita.sistemacitas.entity.Servicio;
+import com.neita.sistemacitas.entity.Usuario;
+import com.neita.sistemacitas.repository.CitaHistoricaRepository;
+import com.neita.sistemacitas.repository.CitaRepository;
+import com.neita.sistemacitas.repository.ProfesionalRepository;
+import com.neita.sistemacitas.repository.SerieCitaRepository;
+import com.neita.sistemacitas.repository.ServicioRepository;
+import com.neita.sistemacitas.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Datos de partida de las pruebas de integración. Cada catálogo tiene su propio cliente, profesional
+ * y servicio, de modo que las pruebas que comparten el contexto (y la base de datos) no se mezclan.
+ * Las citas se guardan directamente con el repositorio, sin reservar franjas ni publicar eventos.
+ */
+@TestComponent
+public class DatosPrueba {
+
+    /**
+     * Precio de los servicios creados.
+     */
+    public static final double PRECIO = 25000.0;
+
+    private static final AtomicInteger SECUENCIA = new AtomicInteger();
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProfesionalRepository profesionalRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private SerieCitaRepository serieCitaRepository;
+
+    @Autowired
+    private CitaHistoricaRepository citaHistoricaRepository;
+
+    /**
+     * Crea un cliente, un profesional y un servicio nuevos.
+     */
+    @Transactional
+    public Catalogo crearCatalogo() {
+        int numero = SECUENCIA.incrementAndGet();
+        Usuario cliente = usuarioRepository.save(usuario("Cliente " + numero, "cliente" + numero + "@pruebas.com"));
+
+        Profesional profesional = new Profesional();
+        profesional.setEspecialidad("Cortes clásicos");
+        profesional.setActivo(true);
+        profesional.setUsuario(usuarioRepository.save(
+                usuario("Profesional " + numero, "profesional" + numero + "@pruebas.com")));
+        profesional = profesionalRepository.save(profesional);
+
+        Servicio servicio = new Servicio();
+        servicio.setNombre("Corte " + numero);
+        servicio.setDuracionMinutos(30);
+        servicio.setPrecio(PRECIO);
+        servicio.setActivo(true);
+        servicio = servicioRepository.save(servicio);
+
+        // Cada catálogo usa días distintos para que las consultas por rango no vean citas de otras pruebas
+        LocalDateTime primeraCita = LocalDate.now().plusDays(10L * numero).atTime(8, 0);
+        return new Catalogo(cliente.getId(), profesional.getId(), servicio.getId(), primeraCita);
+    }
+
+    /**
+     * Crea citas confirmadas del catálogo, una cada 30 minutos a partir de la cita número desde.
+     * @return los IDs de las citas creadas
+     */
+    @Transactional
+    public List<Long> crearCitas(Catalogo catalogo, int desde, int cantidad) {
+        Usuario cliente = usuarioRepository.getReferenceById(catalogo.clienteId());
+        Profesional profesional = profesionalRepository.getReferenceById(catalogo.profesionalId());
+        Servicio servicio = servicioRepository.getReferenceById(catalogo.servicioId());
+        List<Cita> citas = new ArrayList<>(cantidad);
+        for (int i = desde; i < desde + cantidad; i++) {
+            Cita cita = new Cita();
+            cita.setFechaHora(catalogo.primeraCita().plusMinutes(30L * i));
+            cita.setFechaHoraFin(cita.getFechaHora().plusMinutes(30));
+            cita.setEstado(EstadoCita.CONFIRMADA);
+            cita.setPrecio(PRECIO);
+            cita.setFechaCreacion(LocalDateTime.now());
+            cita.setUsuario(cliente);
+            cita.setProfesional(profesional);
+            cita.setServicio(servicio);
+            citas.add(cita);
+        }
+        return citaRepository.saveAll(citas).stream().map(Cita::getId).toList();
+    }
+
+    /**
+     * Crea citas confirmadas del catálogo y las mueve al archivo, como hace ArchivoCitaService.
+     * @return los IDs de las citas archivadas
+     */
+    @Transactional
+    public List<Long> crearCitasArchivadas(Catalogo catalogo, int desde, int cantidad) {
+        List<Long> ids = crearCitas(catalogo, desde, cantidad);
+        citaRepository.flush();
+        citaHistoricaRepository.copiarDesdeCita(ids);
+        citaRepository.deleteByIdIn(ids);
+        return ids;
+    }
+
+    /**
+     * Crea una serie semanal del catálogo con sus citas, a partir de la primera cita del catálogo.
+     * @return el ID de la serie creada
+     */
+    @Transactional
+    public Long crearSerie(Catalogo catalogo, int ocurrencias) {
+        SerieCita serie = new SerieCita();
+        serie.setFechaHoraInicio(catalogo.primeraCita());
+        serie.setIntervaloSemanas(1);
+        serie.setHasta(catalogo.primeraCita().toLocalDate().plusWeeks(ocurrencias - 1L));
+        serie.setUsuario(usuarioRepository.getReferenceById(catalogo.clienteId()));
+        serie.setServicio(servicioRepository.getReferenceById(catalogo.servicioId()));
+        serie.setProfesional(profesionalRepository.getReferenceById(catalogo.profesionalId()));
+        serie = serieCitaRepository.save(serie);
+
+        List<Cita> citas = new ArrayList<>(ocurrencias);
+        for (int i = 0; i < ocurrencias; i++) {
+            Cita cita = new Cita();
+            cita.setFechaHora(catalogo.primeraCita().plusWeeks(i));
+            cita.setFechaHoraFin(cita.getFechaHora().plusMinutes(30));
+            cita.setEstado(EstadoCita.PENDIENTE);
+            cita.setPrecio(PRECIO);
+            cita.setFechaCreacion(LocalDateTime.now());
+            cita.setUsuario(serie.getUsuario());
+            cita.setProfesional(serie.getProfesional());
+            cita.setServicio(serie.getServicio());
+            cita.setSerie(serie);
+            citas.add(cita);
+        }
+        citaRepository.saveAll(citas);
+        return serie.getId();
+    }
+
+    private static Usuario usuario(String nombre, String email) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre(nombre);
+        usuario.setEmail(email);
+        usuario.setPassword("clave");
+        usuario.setRol("SUPER_ADMIN");
+        usuario.setActivo(true);
+        return usuario;
+    }
+
+    /**
+     * IDs de un cliente, un profesional y un servicio, y la fecha de la primera cita del catálogo.
+     */
+    public record Catalogo(Long clienteId, Long profesionalId, Long servicioId, LocalDateTime primeraCita) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.neita.sistemacitas.config.consultas;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neita.sistemacitas.DatosPrueba;
+import com.neita.sistemacitas.dto.CitaDTO;
+import com.neita.sistemacitas.entity.EstadoCita;
+import com.neita.sistemacitas.exception.PresupuestoConsultasExcedidoException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pruebas del presupuesto de consultas por petición. Con app.consultas.estricto=true
+ * (src/test/resources/application.properties), una petición que supera el presupuesto de su
+ * endpoint lanza PresupuestoConsultasExcedidoException y MockMvc la propaga a la prueba.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(DatosPrueba.class)
+@WithMockUser
+class PresupuestoConsultasFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DatosPrueba datosPrueba;
+
+    @Value("${app.consultas.estricto}")
+    private boolean estricto;
+
+    @Test
+    void lasPruebasUsanElModoEstricto() {
+        assertThat(estricto).isTrue();
+    }
+
+    @Test
+    void obtenerPorIdNoSuperaSuPresupuesto() throws Exception {
+        DatosPrueba.Catalogo catalogo = datosPrueba.crearCatalogo();
+        List<Long> ids = datosPrueba.crearCitas(catalogo, 0, 5);
+
+        mockMvc.perform(get("/api/citas/{id}", ids.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(consultasHasta(3));
+    }
+
+    @Test
+    void obtenerPorRangoNoSuperaSuPresupuesto() throws Exception {
+        DatosPrueba.Catalogo catalogo = datosPrueba.crearCatalogo();
+        datosPrueba.crearCitas(catalogo, 0, 20);
+
+        mockMvc.perform(get("/api/citas/rango")
+                        .param("inicio", catalogo.primeraCita().toString())
+                        .param("fin", catalogo.primeraCita().plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(consultasHasta(4));
+    }
+
+    @Test
+    void crearNoSuperaSuPresupuesto() throws Exception {
+        DatosPrueba.Catalogo catalogo = datosPrueba.crearCatalogo();
+        CitaDTO cita = new CitaDTO();
+        cita.setFechaHora(catalogo.primeraCita().minusDays(1).withHour(10));
+        cita.setEstado(EstadoCita.PENDIENTE);
+        cita.setUsuarioId(catalogo.clienteId());
+        cita.setProfesionalId(catalogo.profesionalId());
+        cita.setServicioId(catalogo.servicioId());
+
+        mockMvc.perform(post("/api/citas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cita)))
+                .andExpect(status().isCreated())
+                .andExpect(consultasHasta(12));
+    }
+
+    @Test
+    void superarElPresupuestoFallaEnModoEstricto() {
+        PresupuestoConsultasFilter filtro = new PresupuestoConsultasFilter(1, true, List.of());
+
+        assertThatThrownBy(() -> filtro.doFilter(peticion(), new MockHttpServletResponse(), (request, response) -> {
+            ContadorConsultas.registrar(1_000);
+            ContadorConsultas.registrar(1_000);
+        })).isInstanceOf(PresupuestoConsultasExcedidoException.class)
+                .hasMessageContaining("2 consultas SQL");
+    }
+
+    @Test
+    void superarElPresupuestoSoloAvisaFueraDelModoEstricto() {
+        PresupuestoConsultasFilter filtro = new PresupuestoConsultasFilter(1, false, List.of());
+
+        assertThatCode(() -> filtro.doFilter(peticion(), new MockHttpServletResponse(), (request, response) -> {
+            ContadorConsultas.registrar(1_000);
+            ContadorConsultas.registrar(1_000);
+        })).doesNotThrowAnyException();
+    }
+
+    private static MockHttpServletRequest peticion() {
+        return new MockHttpServletRequest("GET", "/api/citas/1");
+    }
+
+    /**
+     * Comprueba la cabecera X-Query-Count además del modo estricto, que ya hace fallar la petición.
+     */
+    private static ResultMatcher consultasHasta(int maximo) {
+        return resultado -> {
+            String consultas = resultado.getResponse().getHeader("X-Query-Count");
+            assertThat(consultas).isNotNull();
+            assertThat(Integer.parseInt(consultas)).isBetween(1, maximo);
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.neita.sistemacitas.controller;
+
+import com.neita.sistemacitas.DatosPrueba;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Comprueba que las consultas de citas construyen los CitaDTO con una sola consulta con joins:
+ * el número de sentencias preparadas de cada endpoint es el mismo con N y con 10·N citas.
+ * Cada endpoint se llama una vez antes de medir para que las cachés ya estén cargadas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(DatosPrueba.class)
+@WithMockUser
+class CitaRestControllerConsultasTest {
+
+    private static final int CITAS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DatosPrueba datosPrueba;
+
+    @Test
+    void lasSentenciasNoCrecenConElNumeroDeCitas() throws Exception {
+        DatosPrueba.Catalogo catalogo = datosPrueba.crearCatalogo();
+        List<Long> ids = datosPrueba.crearCitas(catalogo, 0, CITAS);
+        Map<String, Long> conN = medir(catalogo, ids.get(0));
+
+        datosPrueba.crearCitas(catalogo, CITAS, 9 * CITAS);
+        Map<String, Long> con10N = medir(catalogo, ids.get(0));
+
+        mockMvc.perform(get("/api/citas/usuario/{id}", catalogo.clienteId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(10 * CITAS));
+        assertThat(con10N).isEqualTo(conN);
+    }
+
+    /**
+     * Sentencias preparadas por cada endpoint de listado y de consulta por ID.
+     */
+    private Map<String, Long> medir(DatosPrueba.Catalogo catalogo, Long citaId) throws Exception {
+        Map<String, Long> sentencias = new LinkedHashMap<>();
+        sentencias.put("id", medir(get("/api/citas/{id}", citaId)));
+        sentencias.put("usuario", medir(get("/api/citas/usuario/{id}", catalogo.clienteId())));
+        sentencias.put("profesional", medir(get("/api/citas/profesional/{id}", catalogo.profesionalId())));
+        sentencias.put("servicio", medir(get("/api/citas/servicio/{id}", catalogo.servicioId())));
+        sentencias.put("rango", medir(get("/api/citas/rango")
+                .param("inicio", catalogo.primeraCita().toString())
+                .param("fin", catalogo.primeraCita().plusDays(2).toString())));
+        return sentencias;
+    }
+
+    private long medir(RequestBuilder peticion) throws Exception {
+        mockMvc.perform(peticion).andExpect(status().isOk());
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        mockMvc.perform(peticion).andExpect(status().isOk());
+        return estadisticas.getPrepareStatementCount();
+    }
+}
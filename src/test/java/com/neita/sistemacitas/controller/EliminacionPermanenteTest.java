@@ -0,0 +1,80 @@
+package com.neita.sistemacitas.controller;
+
+import com.neita.sistemacitas.DatosPrueba;
+import com.neita.sistemacitas.repository.CitaHistoricaRepository;
+import com.neita.sistemacitas.repository.SerieCitaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Comprueba que el borrado permanente de un cliente, un servicio o un profesional con una serie
+ * de citas elimina también la serie en lugar de fallar por la clave foránea, y que elimina sus
+ * citas archivadas, que no tienen claves foráneas que las borren en cascada.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(DatosPrueba.class)
+@WithMockUser
+class EliminacionPermanenteTest {
+
+    private static final int OCURRENCIAS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatosPrueba datosPrueba;
+
+    @Autowired
+    private SerieCitaRepository serieCitaRepository;
+
+    @Autowired
+    private CitaHistoricaRepository citaHistoricaRepository;
+
+    @Test
+    void eliminarProfesionalConSerieYArchivo() throws Exception {
+        DatosPrueba.Catalogo catalogo = datosPrueba.crearCatalogo();
+        Long serieId = datosPrueba.crearSerie(catalogo, OCURRENCIAS);
+        List<Long> archivadas = datosPrueba.crearCitasArchivadas(catalogo, 1, 2);
+
+        mockMvc.perform(delete("/api/profesionales/{id}/permanente", catalogo.profesionalId()))
+                .andExpect(status().isOk());
+        assertThat(serieCitaRepository.existsById(serieId)).isFalse();
+        assertThat(archivadas).noneMatch(citaHistoricaRepository::existsById);
+    }
+
+    @Test
+    void eliminarServicioConSerieYArchivo() throws Exception {
+        DatosPrueba.Catalogo catalogo = datosPrueba.crearCatalogo();
+        Long serieId = datosPrueba.crearSerie(catalogo, OCURRENCIAS);
+        List<Long> archivadas = datosPrueba.crearCitasArchivadas(catalogo, 1, 2);
+
+        mockMvc.perform(delete("/api/servicios/{id}/permanente", catalogo.servicioId()))
+                .andExpect(status().isOk());
+        assertThat(serieCitaRepository.existsById(serieId)).isFalse();
+        assertThat(archivadas).noneMatch(citaHistoricaRepository::existsById);
+    }
+
+    @Test
+    void eliminarClienteConSerieYArchivo() throws Exception {
+        DatosPrueba.Catalogo catalogo = datosPrueba.crearCatalogo();
+        Long serieId = datosPrueba.crearSerie(catalogo, OCURRENCIAS);
+        List<Long> archivadas = datosPrueba.crearCitasArchivadas(catalogo, 1, 2);
+
+        mockMvc.perform(delete("/api/usuarios/{id}/permanente", catalogo.clienteId()))
+                .andExpect(status().isOk());
+        assertThat(serieCitaRepository.existsById(serieId)).isFalse();
+        assertThat(archivadas).noneMatch(citaHistoricaRepository::existsById);
+    }
+}
@@ -0,0 +1,69 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.entity.EstadoCita;
+import com.neita.sistemacitas.event.CitaEvento;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+/**
+ * Comprueba que un error al leer los cambios tras el commit no llega a quien confirmó la transacción
+ * y que las suscripciones afectadas se cierran para que el cliente recargue la agenda.
+ * El commit se simula invocando las sincronizaciones registradas en la transacción.
+ */
+@ExtendWith(MockitoExtension.class)
+class AgendaEnVivoServiceTest {
+
+    private static final Long PROFESIONAL_ID = 1L;
+    private static final LocalDate MANANA = LocalDate.now().plusDays(1);
+    private static final LocalDateTime INICIO_CITA = MANANA.atTime(10, 0);
+
+    @Mock
+    private CitaService citaService;
+
+    private AgendaEnVivoService agendaEnVivoService;
+
+    @BeforeEach
+    void configurar() {
+        agendaEnVivoService = new AgendaEnVivoService(citaService);
+        ReflectionTestUtils.setField(agendaEnVivoService, "capacidadCola", 64);
+        ReflectionTestUtils.setField(agendaEnVivoService, "timeoutMs", 60000L);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void limpiar() {
+        TransactionSynchronizationManager.clear();
+        TransactionSynchronizationManager.unbindResourceIfPossible(agendaEnVivoService);
+    }
+
+    @Test
+    void unErrorTrasElCommitCierraLasSuscripcionesSinPropagarse() {
+        when(citaService.obtenerAgendaDelDia(PROFESIONAL_ID, MANANA)).thenReturn(List.of());
+        when(citaService.obtenerPorIds(anyCollection())).thenThrow(new DataAccessResourceFailureException("Sin conexión"));
+        agendaEnVivoService.suscribir(PROFESIONAL_ID, MANANA);
+
+        agendaEnVivoService.alCambiarCita(new CitaEvento(CitaEvento.Tipo.CREADA, 3L, null, new CitaEvento.Instantanea(
+                PROFESIONAL_ID, 2L, INICIO_CITA, INICIO_CITA.plusMinutes(30), EstadoCita.CONFIRMADA, 25000.0)));
+
+        assertThatCode(() -> TransactionSynchronizationUtils.invokeAfterCommit(
+                TransactionSynchronizationManager.getSynchronizations())).doesNotThrowAnyException();
+        assertThat(agendaEnVivoService.contarSuscriptores()).isZero();
+    }
+}
@@ -0,0 +1,51 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.DatosPrueba;
+import com.neita.sistemacitas.dto.ProfesionalDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comprueba que las cachés del catálogo devuelven copias: modificar un DTO obtenido del servicio
+ * no cambia lo que devuelven las lecturas siguientes.
+ */
+@SpringBootTest
+@Import(DatosPrueba.class)
+class CacheCatalogoTest {
+
+    @Autowired
+    private DatosPrueba datosPrueba;
+
+    @Autowired
+    private ServicioService servicioService;
+
+    @Autowired
+    private ProfesionalService profesionalService;
+
+    @Test
+    void modificarElServicioDevueltoNoCambiaLaCache() {
+        DatosPrueba.Catalogo catalogo = datosPrueba.crearCatalogo();
+
+        servicioService.obtenerPorId(catalogo.servicioId()).setPrecio(1.0);
+        servicioService.obtenerPorId(catalogo.servicioId()).setPrecio(2.0);
+
+        assertThat(servicioService.obtenerPorId(catalogo.servicioId()).getPrecio()).isEqualTo(DatosPrueba.PRECIO);
+    }
+
+    @Test
+    void modificarLosProfesionalesActivosDevueltosNoCambiaLaCache() {
+        DatosPrueba.Catalogo catalogo = datosPrueba.crearCatalogo();
+
+        profesionalService.obtenerActivos().forEach(profesional -> profesional.setEspecialidad("Modificada"));
+        profesionalService.obtenerActivos().forEach(profesional -> profesional.setEspecialidad("Modificada"));
+
+        assertThat(profesionalService.obtenerActivos())
+                .filteredOn(profesional -> profesional.getId().equals(catalogo.profesionalId()))
+                .extracting(ProfesionalDTO::getEspecialidad)
+                .containsExactly("Cortes clásicos");
+    }
+}
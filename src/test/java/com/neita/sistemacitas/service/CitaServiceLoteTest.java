@@ -0,0 +1,75 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.DatosPrueba;
+import com.neita.sistemacitas.dto.CitaDTO;
+import com.neita.sistemacitas.dto.ResultadoLoteDTO;
+import com.neita.sistemacitas.entity.EstadoCita;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Comprueba que una reserva confirmada por otra transacción entre la consulta de franjas ocupadas
+ * y la inserción del lote solo hace fallar la cita que pedía esa franja. La reserva concurrente se
+ * confirma desde otro hilo justo después de la primera consulta de franjas.
+ */
+@SpringBootTest
+@Import(DatosPrueba.class)
+class CitaServiceLoteTest {
+
+    @Autowired
+    private DatosPrueba datosPrueba;
+
+    @Autowired
+    private CitaService citaService;
+
+    @MockitoSpyBean
+    private ReservaFranjaService reservaFranjaService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void unaReservaConcurrenteSoloHaceFallarLaCitaQueChoca() {
+        DatosPrueba.Catalogo catalogo = datosPrueba.crearCatalogo();
+        LocalDateTime disputada = catalogo.primeraCita();
+        LocalDateTime libre = disputada.plusHours(2);
+
+        // cargarOcupadas exige una transacción, también al registrar el stub
+        AtomicBoolean reservada = new AtomicBoolean();
+        transactionTemplate.executeWithoutResult(estado -> doAnswer(invocacion -> {
+            Object ocupadas = invocacion.callRealMethod();
+            if (reservada.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> citaService.crear(cita(catalogo, disputada))).join();
+            }
+            return ocupadas;
+        }).when(reservaFranjaService).cargarOcupadas(any(), any(), any()));
+
+        List<ResultadoLoteDTO> resultados = citaService.crearLote(List.of(cita(catalogo, disputada), cita(catalogo, libre)));
+
+        assertThat(resultados).extracting(ResultadoLoteDTO::isCreada).containsExactly(false, true);
+        assertThat(resultados.get(1).getCita().getFechaHora()).isEqualTo(libre);
+    }
+
+    private static CitaDTO cita(DatosPrueba.Catalogo catalogo, LocalDateTime fechaHora) {
+        CitaDTO cita = new CitaDTO();
+        cita.setFechaHora(fechaHora);
+        cita.setEstado(EstadoCita.CONFIRMADA);
+        cita.setUsuarioId(catalogo.clienteId());
+        cita.setServicioId(catalogo.servicioId());
+        cita.setProfesionalId(catalogo.profesionalId());
+        return cita;
+    }
+}
@@ -0,0 +1,140 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.dto.DisponibilidadDTO;
+import com.neita.sistemacitas.entity.EstadoCita;
+import com.neita.sistemacitas.entity.Profesional;
+import com.neita.sistemacitas.entity.Servicio;
+import com.neita.sistemacitas.entity.Usuario;
+import com.neita.sistemacitas.event.CitaEvento;
+import com.neita.sistemacitas.repository.FranjaReservadaRepository;
+import com.neita.sistemacitas.repository.ProfesionalRepository;
+import com.neita.sistemacitas.repository.ServicioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+/**
+ * Comprueba que una cita confirmada mientras se carga un mapa de ocupación no deja en memoria
+ * un mapa sin esa cita. El commit concurrente se simula aplicando su evento desde el repositorio,
+ * que devuelve la agenda de la instantánea anterior al commit.
+ */
+@ExtendWith(MockitoExtension.class)
+class DisponibilidadServiceTest {
+
+    private static final Long PROFESIONAL_ID = 1L;
+    private static final Long SERVICIO_ID = 2L;
+    private static final LocalDate MANANA = LocalDate.now().plusDays(1);
+    private static final LocalDateTime INICIO_CITA = MANANA.atTime(10, 0);
+
+    @Mock
+    private ProfesionalRepository profesionalRepository;
+
+    @Mock
+    private ServicioRepository servicioRepository;
+
+    @Mock
+    private FranjaReservadaRepository franjaReservadaRepository;
+
+    private DisponibilidadService disponibilidadService;
+
+    private Servicio servicio;
+
+    @BeforeEach
+    void configurar() {
+        disponibilidadService = new DisponibilidadService(profesionalRepository, servicioRepository, franjaReservadaRepository);
+        ReflectionTestUtils.setField(disponibilidadService, "horaApertura", 8);
+        ReflectionTestUtils.setField(disponibilidadService, "horaCierre", 20);
+
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Profesional");
+        Profesional profesional = new Profesional();
+        profesional.setId(PROFESIONAL_ID);
+        profesional.setEspecialidad("Cortes clásicos");
+        profesional.setUsuario(usuario);
+        when(profesionalRepository.findByActivoTrue()).thenReturn(List.of(profesional));
+
+        servicio = new Servicio();
+        servicio.setId(SERVICIO_ID);
+        servicio.setDuracionMinutos(30);
+    }
+
+    @Test
+    void unCommitAntesDeLeerLaVersionNoDejaElMapaEnMemoria() {
+        // El commit llega con la primera lectura, que fija la instantánea sin la cita
+        AtomicBoolean confirmada = new AtomicBoolean();
+        when(servicioRepository.findById(SERVICIO_ID)).thenAnswer(invocacion -> {
+            if (confirmada.compareAndSet(false, true)) {
+                disponibilidadService.alCambiarCita(eventoCitaCreada());
+            }
+            return Optional.of(servicio);
+        });
+        when(franjaReservadaRepository.findFranjasOcupadas(anyCollection(), any(), any()))
+                .thenReturn(List.of())
+                .thenReturn(franjasDeLaCita());
+
+        disponibilidadService.buscar(SERVICIO_ID, MANANA, MANANA);
+
+        assertThat(horasLibres()).doesNotContain(INICIO_CITA.toLocalTime());
+    }
+
+    @Test
+    void unCommitDuranteLaCargaNoDejaElMapaEnMemoria() {
+        when(servicioRepository.findById(SERVICIO_ID)).thenReturn(Optional.of(servicio));
+        AtomicBoolean confirmada = new AtomicBoolean();
+        when(franjaReservadaRepository.findFranjasOcupadas(anyCollection(), any(), any())).thenAnswer(invocacion -> {
+            if (confirmada.compareAndSet(false, true)) {
+                disponibilidadService.alCambiarCita(eventoCitaCreada());
+                return List.of();
+            }
+            return franjasDeLaCita();
+        });
+
+        disponibilidadService.buscar(SERVICIO_ID, MANANA, MANANA);
+
+        assertThat(horasLibres()).doesNotContain(INICIO_CITA.toLocalTime());
+    }
+
+    private List<LocalTime> horasLibres() {
+        List<DisponibilidadDTO> disponibilidad = disponibilidadService.buscar(SERVICIO_ID, MANANA, MANANA);
+        assertThat(disponibilidad).hasSize(1);
+        return disponibilidad.get(0).getHorasInicio();
+    }
+
+    private static CitaEvento eventoCitaCreada() {
+        return new CitaEvento(CitaEvento.Tipo.CREADA, 3L, null, new CitaEvento.Instantanea(
+                PROFESIONAL_ID, SERVICIO_ID, INICIO_CITA, INICIO_CITA.plusMinutes(30), EstadoCita.CONFIRMADA, 25000.0));
+    }
+
+    private static List<FranjaReservadaRepository.FranjaOcupada> franjasDeLaCita() {
+        return List.of(franja(INICIO_CITA), franja(INICIO_CITA.plusMinutes(15)));
+    }
+
+    private static FranjaReservadaRepository.FranjaOcupada franja(LocalDateTime inicio) {
+        return new FranjaReservadaRepository.FranjaOcupada() {
+            @Override
+            public Long getProfesionalId() {
+                return PROFESIONAL_ID;
+            }
+
+            @Override
+            public LocalDateTime getInicio() {
+                return inicio;
+            }
+        };
+    }
+}
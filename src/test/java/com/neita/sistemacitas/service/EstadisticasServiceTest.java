@@ -0,0 +1,79 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.event.ContadorEvento;
+import com.neita.sistemacitas.event.ContadorEvento.Contador;
+import com.neita.sistemacitas.repository.CitaHistoricaRepository;
+import com.neita.sistemacitas.repository.CitaRepository;
+import com.neita.sistemacitas.repository.ProfesionalRepository;
+import com.neita.sistemacitas.repository.ServicioRepository;
+import com.neita.sistemacitas.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Comprueba que un recuento no sobrescribe los eventos confirmados mientras se leía la base de
+ * datos. El commit concurrente se simula aplicando su evento desde el repositorio.
+ */
+@ExtendWith(MockitoExtension.class)
+class EstadisticasServiceTest {
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private CitaHistoricaRepository citaHistoricaRepository;
+
+    @Mock
+    private ServicioRepository servicioRepository;
+
+    @Mock
+    private ProfesionalRepository profesionalRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private EstadisticasService estadisticasService;
+
+    @BeforeEach
+    void configurar() {
+        estadisticasService = new EstadisticasService(citaRepository, citaHistoricaRepository,
+                servicioRepository, profesionalRepository, usuarioRepository);
+    }
+
+    @Test
+    void unEventoDuranteElRecuentoNoSePierde() {
+        when(servicioRepository.countServiciosActivos()).thenReturn(3L);
+        estadisticasService.reconciliar();
+
+        // El recuento lee 3 servicios antes de que se confirme la creación del cuarto
+        AtomicBoolean confirmado = new AtomicBoolean();
+        when(servicioRepository.countServiciosActivos()).thenAnswer(invocacion -> {
+            if (confirmado.compareAndSet(false, true)) {
+                estadisticasService.alCambiarContador(ContadorEvento.incremento(Contador.SERVICIOS_ACTIVOS));
+            }
+            return 3L;
+        });
+        estadisticasService.reconciliar();
+
+        assertThat(estadisticasService.getServiciosActivos()).isEqualTo(4);
+    }
+
+    @Test
+    void unRecuentoSinEventosCorrigeElValor() {
+        when(servicioRepository.countServiciosActivos()).thenReturn(3L);
+        estadisticasService.reconciliar();
+        estadisticasService.alCambiarContador(ContadorEvento.decremento(Contador.SERVICIOS_ACTIVOS));
+
+        estadisticasService.reconciliar();
+
+        assertThat(estadisticasService.getServiciosActivos()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,85 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.DatosPrueba;
+import com.neita.sistemacitas.dto.CitaDTO;
+import com.neita.sistemacitas.dto.ReporteDTO;
+import com.neita.sistemacitas.dto.ServicioDTO;
+import com.neita.sistemacitas.entity.EstadoCita;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comprueba que los ingresos de los resúmenes diarios usan el precio guardado en cada cita:
+ * cambiar el precio del servicio no altera ni la resta incremental ni la reconstrucción de un día.
+ */
+@SpringBootTest
+@Import(DatosPrueba.class)
+class ResumenDiarioServiceTest {
+
+    private static final double NUEVO_PRECIO = 40000.0;
+
+    @Autowired
+    private DatosPrueba datosPrueba;
+
+    @Autowired
+    private CitaService citaService;
+
+    @Autowired
+    private ServicioService servicioService;
+
+    @Autowired
+    private ResumenDiarioService resumenDiarioService;
+
+    @Test
+    void eliminarUnaCitaCompletadaRestaSuPrecioReservado() {
+        DatosPrueba.Catalogo catalogo = datosPrueba.crearCatalogo();
+        CitaDTO cita = completarCita(catalogo);
+        cambiarPrecio(catalogo);
+
+        citaService.eliminar(cita.getId());
+
+        assertThat(ingresos(catalogo)).isZero();
+    }
+
+    @Test
+    void reconstruirUnDiaConservaLosIngresosTrasCambiarElPrecio() {
+        DatosPrueba.Catalogo catalogo = datosPrueba.crearCatalogo();
+        completarCita(catalogo);
+        cambiarPrecio(catalogo);
+
+        resumenDiarioService.reconstruirDia(catalogo.primeraCita().toLocalDate());
+
+        assertThat(ingresos(catalogo)).isEqualTo(DatosPrueba.PRECIO);
+    }
+
+    private CitaDTO completarCita(DatosPrueba.Catalogo catalogo) {
+        CitaDTO nueva = new CitaDTO();
+        nueva.setFechaHora(catalogo.primeraCita());
+        nueva.setUsuarioId(catalogo.clienteId());
+        nueva.setServicioId(catalogo.servicioId());
+        nueva.setProfesionalId(catalogo.profesionalId());
+        CitaDTO cita = citaService.crear(nueva);
+        citaService.cambiarEstado(cita.getId(), EstadoCita.COMPLETADA);
+        assertThat(ingresos(catalogo)).isEqualTo(DatosPrueba.PRECIO);
+        return cita;
+    }
+
+    private void cambiarPrecio(DatosPrueba.Catalogo catalogo) {
+        ServicioDTO servicio = servicioService.obtenerPorId(catalogo.servicioId());
+        servicio.setPrecio(NUEVO_PRECIO);
+        servicioService.actualizar(servicio.getId(), servicio);
+    }
+
+    private double ingresos(DatosPrueba.Catalogo catalogo) {
+        LocalDate dia = catalogo.primeraCita().toLocalDate();
+        List<ReporteDTO> totales = resumenDiarioService.obtenerPorDia(dia, dia, catalogo.profesionalId(), null);
+        return totales.isEmpty() ? 0 : totales.get(0).getIngresos();
+    }
+}
@@ -0,0 +1,112 @@
+package com.neita.sistemacitas.service;
+
+import com.neita.sistemacitas.exception.TokenInvalidoException;
+import com.neita.sistemacitas.repository.TokenRevocadoRepository;
+import com.neita.sistemacitas.repository.UsuarioRevocadoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Comprueba que las revocaciones de tokens se conservan tras un reinicio (una instancia nueva del
+ * servicio que las carga de la base de datos), que la revocación de un usuario se deshace con la
+ * transacción que la pidió y que un token de refresco solo se puede canjear una vez.
+ */
+@SpringBootTest
+class RevocacionTokenServiceTest {
+
+    @Autowired
+    private RevocacionTokenService revocacionTokenService;
+
+    @Autowired
+    private TokenRevocadoRepository tokenRevocadoRepository;
+
+    @Autowired
+    private UsuarioRevocadoRepository usuarioRevocadoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void lasRevocacionesSobrevivenAUnReinicio() {
+        Jwt revocado = token("revocado@pruebas.com");
+        Jwt deUsuarioRevocado = token("usuario-revocado@pruebas.com");
+        revocacionTokenService.revocar(revocado);
+        revocacionTokenService.revocarUsuario(deUsuarioRevocado.getSubject());
+
+        RevocacionTokenService reiniciado = new RevocacionTokenService(tokenRevocadoRepository, usuarioRevocadoRepository);
+        ReflectionTestUtils.setField(reiniciado, "duracionRefrescoDias", 7L);
+        transactionTemplate.executeWithoutResult(estado -> reiniciado.purgar());
+
+        assertThat(reiniciado.validate(revocado).hasErrors()).isTrue();
+        assertThat(reiniciado.validate(deUsuarioRevocado).hasErrors()).isTrue();
+        assertThat(reiniciado.validate(token("vigente@pruebas.com")).hasErrors()).isFalse();
+    }
+
+    @Test
+    void laRevocacionDeUnUsuarioSeDeshaceConSuTransaccion() {
+        Jwt token = token("transaccion-deshecha@pruebas.com");
+
+        transactionTemplate.executeWithoutResult(estado -> {
+            revocacionTokenService.revocarUsuario(token.getSubject());
+            estado.setRollbackOnly();
+        });
+
+        assertThat(revocacionTokenService.validate(token).hasErrors()).isFalse();
+        assertThat(usuarioRevocadoRepository.existsById(token.getSubject())).isFalse();
+    }
+
+    @Test
+    void laRevocacionDeUnUsuarioSeAplicaAlConfirmarSuTransaccion() {
+        Jwt token = token("transaccion-confirmada@pruebas.com");
+
+        transactionTemplate.executeWithoutResult(estado -> {
+            revocacionTokenService.revocarUsuario(token.getSubject());
+            assertThat(revocacionTokenService.validate(token).hasErrors()).isFalse();
+        });
+
+        assertThat(revocacionTokenService.validate(token).hasErrors()).isTrue();
+    }
+
+    @Test
+    void unTokenDeRefrescoSoloSeCanjeaUnaVez() {
+        Jwt token = token("canje-repetido@pruebas.com");
+
+        revocacionTokenService.consumir(token);
+
+        assertThatThrownBy(() -> revocacionTokenService.consumir(token))
+                .isInstanceOf(TokenInvalidoException.class);
+    }
+
+    @Test
+    void otraInstanciaNoCanjeaUnTokenDeRefrescoYaCanjeado() {
+        Jwt token = token("canje-otra-instancia@pruebas.com");
+        RevocacionTokenService otraInstancia = new RevocacionTokenService(tokenRevocadoRepository, usuarioRevocadoRepository);
+
+        revocacionTokenService.consumir(token);
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(estado -> otraInstancia.consumir(token)))
+                .isInstanceOf(TokenInvalidoException.class);
+        assertThat(otraInstancia.validate(token).hasErrors()).isTrue();
+    }
+
+    private static Jwt token(String email) {
+        Instant emision = Instant.now().minusSeconds(60);
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject(email)
+                .jti(UUID.randomUUID().toString())
+                .issuedAt(emision)
+                .expiresAt(emision.plusSeconds(3600))
+                .build();
+    }
+}